@@ -0,0 +1,49 @@
+package semsem.chatbot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import semsem.chatbot.config.concurrency.ConcurrencyLimitFilter;
+import semsem.chatbot.config.concurrency.ConcurrencyProperties;
+
+/**
+ * Opt-in admission control for /api, sized from the JDBC pool rather than the servlet container's worker count.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ConcurrencyProperties.class)
+public class ConcurrencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "chat.concurrency.limit", name = "enabled", havingValue = "true")
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            ConcurrencyProperties properties,
+            ObjectMapper objectMapper,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize
+    ) {
+        ConcurrencyProperties.Limit limit = properties.getLimit();
+        int maxInFlight = limit.getMaxInFlight() > 0
+                ? limit.getMaxInFlight()
+                : poolSize * Math.max(1, limit.getRequestsPerConnection());
+        log.info("Limiting /api to {} concurrent requests (connection pool size {})", maxInFlight, poolSize);
+        return new ConcurrencyLimitFilter(maxInFlight, limit.getAcquireTimeout(), objectMapper);
+    }
+
+    /**
+     * Runs ahead of the security chain so rejected requests cost no JWT work.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "chat.concurrency.limit", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(ConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+}
@@ -0,0 +1,76 @@
+package semsem.chatbot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import semsem.chatbot.config.datasource.ReadYourWritesRegistry;
+import semsem.chatbot.config.datasource.ReplicaRoutingDataSource;
+import semsem.chatbot.config.datasource.ReplicaRoutingProperties;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource with primary/replica routing when
+ * {@code chat.datasource.routing.enabled=true}. Read-only transactions go to a healthy, caught-up
+ * replica; writes, non-transactional work and recently-writing users go to the primary.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "chat.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadYourWritesRegistry readYourWritesRegistry(ReplicaRoutingProperties properties) {
+        return new ReadYourWritesRegistry(properties.getReadYourWritesWindow(), Clock.systemUTC());
+    }
+
+    /**
+     * The primary pool, bound to {@code spring.datasource.hikari.*} the same way Boot binds its own pool.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            ReadYourWritesRegistry readYourWritesRegistry,
+            ReplicaRoutingProperties properties
+    ) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReplicaRoutingProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + replica.getName());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            pool.setMaximumPoolSize(properties.getReplicaPoolSize());
+            pool.setReadOnly(true);
+            replicas.put(replica.getName(), pool);
+        }
+
+        return new ReplicaRoutingDataSource(
+                primaryDataSource, replicas, properties.getLagQuery(), properties.getMaxLag(), readYourWritesRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
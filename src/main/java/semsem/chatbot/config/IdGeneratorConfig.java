@@ -0,0 +1,37 @@
+package semsem.chatbot.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import semsem.chatbot.util.id.IdGenerator;
+import semsem.chatbot.util.id.IdStrategy;
+import semsem.chatbot.util.id.SnowflakeIdGenerator;
+import semsem.chatbot.util.id.UlidGenerator;
+
+import java.time.Clock;
+
+/**
+ * Picks the generator behind {@code messageId}/{@code conversationId}. Changing strategy on a live
+ * database is safe: existing ids stay valid, only the shape of new ones changes.
+ */
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(
+            @Value("${chat.ids.strategy:ULID}") IdStrategy strategy,
+            @Value("${chat.ids.worker-id:-1}") int workerId
+    ) {
+        if (strategy == IdStrategy.SNOWFLAKE) {
+            if (workerId < 0) {
+                throw new IllegalStateException("chat.ids.worker-id must be set (0-" + SnowflakeIdGenerator.MAX_WORKER_ID
+                        + ") and unique per instance when chat.ids.strategy=SNOWFLAKE");
+            }
+            log.info("Using Snowflake ids with worker id {}", workerId);
+            return new SnowflakeIdGenerator(Clock.systemUTC(), workerId);
+        }
+        return new UlidGenerator(Clock.systemUTC());
+    }
+}
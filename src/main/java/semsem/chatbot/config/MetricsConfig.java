@@ -0,0 +1,90 @@
+package semsem.chatbot.config;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import semsem.chatbot.config.metrics.HttpTimingInterceptor;
+import semsem.chatbot.config.metrics.MetricsRegistry;
+import semsem.chatbot.config.metrics.StatementCountInterceptor;
+import semsem.chatbot.config.metrics.StatementCounter;
+import semsem.chatbot.config.metrics.TimedComponent;
+import semsem.chatbot.config.metrics.TimedMethodInterceptor;
+
+import java.lang.reflect.Modifier;
+
+/**
+ * Hot-path timers: every Spring Data repository method, every method of a {@link TimedComponent} bean (the
+ * mappers) and every controller route, plus the JWT filter (timed in place), and SQL statement counts per
+ * route with N+1 warnings.
+ * All of it is scraped from {@code /actuator/prometheus} once {@code chat.metrics.scrape-enabled} is set.
+ * Disabling {@code chat.metrics.enabled} removes the proxies and interceptor; the registry stays so
+ * the JWT filter and scrape endpoint keep working.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static MetricsRegistry metricsRegistry() {
+        return new MetricsRegistry();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "chat.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor timedComponentsPostProcessor(MetricsRegistry metricsRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new TimedMethodInterceptor(
+                                    metricsRegistry, "chat_repository_seconds", "Repository method time",
+                                    "repository", information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                TimedComponent timed = AnnotationUtils.findAnnotation(bean.getClass(), TimedComponent.class);
+                if (timed == null || bean instanceof Advised || Modifier.isFinal(bean.getClass().getModifiers())) {
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvice(new TimedMethodInterceptor(
+                        metricsRegistry, "chat_" + timed.value() + "_seconds", StringUtils.capitalize(timed.value()) + " method time",
+                        timed.value(), bean.getClass().getSimpleName()));
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+
+    /**
+     * Statement counts need {@link StatementCounter} registered as Hibernate's statement inspector
+     * ({@code spring.jpa.properties.hibernate.session_factory.statement_inspector}).
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "chat.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public WebMvcConfigurer httpTimingConfigurer(
+            MetricsRegistry metricsRegistry,
+            @Value("${chat.metrics.n-plus-one-threshold:5}") int nPlusOneThreshold
+    ) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HttpTimingInterceptor(metricsRegistry)).addPathPatterns("/api/**");
+                registry.addInterceptor(new StatementCountInterceptor(metricsRegistry, nPlusOneThreshold))
+                        .addPathPatterns("/api/**");
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package semsem.chatbot.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import semsem.chatbot.security.ratelimit.LocalRateLimiter;
+import semsem.chatbot.security.ratelimit.RateLimitProperties;
+import semsem.chatbot.security.ratelimit.RateLimiter;
+
+/**
+ * In-process token buckets unless another {@link RateLimiter} (e.g. a shared Redis-backed one) is defined.
+ * Limits then apply per instance, so size rules for one node's share of the traffic.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimiter.class)
+    public RateLimiter localRateLimiter(RateLimitProperties properties) {
+        return new LocalRateLimiter(properties.getMaxBuckets());
+    }
+}
@@ -0,0 +1,33 @@
+package semsem.chatbot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import semsem.chatbot.config.schema.SchemaMigrator;
+
+import javax.sql.DataSource;
+
+/**
+ * Versioned migrations, on unless {@code chat.schema.migrate=false}. The EntityManagerFactory waits for the
+ * migrator, so {@code ddl-auto=validate} sees the migrated schema and {@code update} only has
+ * to add what the scripts do not cover.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "chat.schema", name = "migrate", havingValue = "true")
+public class SchemaMigrationConfig {
+
+    @Bean
+    public SchemaMigrator schemaMigrator(
+            DataSource dataSource,
+            @Value("${chat.schema.locations:classpath*:db/migration/V*__*.sql}") String locations
+    ) {
+        return new SchemaMigrator(dataSource, locations);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigrator() {
+        return new EntityManagerFactoryDependsOnPostProcessor("schemaMigrator");
+    }
+}
@@ -0,0 +1,41 @@
+package semsem.chatbot.config.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Request admission ({@code chat.concurrency.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "chat.concurrency")
+public class ConcurrencyProperties {
+
+    private Limit limit = new Limit();
+
+    @Data
+    public static class Limit {
+
+        /**
+         * Cap concurrently executing /api requests.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Explicit cap; 0 derives it as connection-pool size × {@code requestsPerConnection}.
+         */
+        private int maxInFlight = 0;
+
+        /**
+         * How many in-flight requests share one JDBC connection on average. A request holds a connection
+         * only for its transactions, so this is above 1; at much more the pool becomes the queue.
+         */
+        private int requestsPerConnection = 4;
+
+        /**
+         * How long a request may wait for a slot before getting 503.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,58 @@
+package semsem.chatbot.config.datasource;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently so their reads stay on the primary until replicas have
+ * caught up. Users are identified by the authenticated principal name; anonymous work is never pinned.
+ */
+public class ReadYourWritesRegistry {
+
+    private final Duration window;
+    private final Clock clock;
+    private final Map<String, Instant> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesRegistry(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return !window.isZero() && !window.isNegative();
+    }
+
+    public void pinCurrentUser() {
+        String user = currentUser();
+        if (user != null && isEnabled()) {
+            pinnedUntil.put(user, clock.instant().plus(window));
+        }
+    }
+
+    public boolean isCurrentUserPinned() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Instant until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (clock.instant().isBefore(until)) {
+            return true;
+        }
+        pinnedUntil.remove(user, until);
+        return false;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
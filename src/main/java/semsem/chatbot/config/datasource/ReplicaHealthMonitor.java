@@ -0,0 +1,75 @@
+package semsem.chatbot.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodically probes each replica with the configured lag query. A replica is eligible for reads only
+ * if its last probe succeeded and reported lag within {@code maxLag}; otherwise reads fall back to the primary.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final Map<String, Long> eligibleLagMs = new ConcurrentHashMap<>();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    public ReplicaHealthMonitor(Map<String, DataSource> replicas, String lagQuery, Duration maxLag) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLag.toMillis();
+    }
+
+    public void refresh() {
+        replicas.forEach(this::probe);
+    }
+
+    /**
+     * Next eligible replica in round-robin order, or null when none is healthy and caught up.
+     */
+    public String nextReplica() {
+        List<String> eligible = List.copyOf(eligibleLagMs.keySet());
+        if (eligible.isEmpty()) {
+            return null;
+        }
+        return eligible.get(Math.floorMod(roundRobin.getAndIncrement(), eligible.size()));
+    }
+
+    public boolean isEligible(String replica) {
+        return eligibleLagMs.containsKey(replica);
+    }
+
+    private void probe(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(PROBE_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                long lagMs = resultSet.next() ? resultSet.getLong(1) : Long.MAX_VALUE;
+                if (lagMs <= maxLagMs) {
+                    if (eligibleLagMs.put(name, lagMs) == null) {
+                        log.info("Replica {} is eligible for reads (lag {} ms)", name, lagMs);
+                    }
+                } else if (eligibleLagMs.remove(name) != null) {
+                    log.warn("Replica {} lags {} ms (max {} ms); reads fall back to primary", name, lagMs, maxLagMs);
+                }
+            }
+        } catch (Exception ex) {
+            if (eligibleLagMs.remove(name) != null) {
+                log.warn("Replica {} failed its health check; reads fall back to primary: {}", name, ex.getMessage());
+            }
+        }
+    }
+}
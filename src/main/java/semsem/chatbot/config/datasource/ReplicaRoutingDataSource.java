@@ -0,0 +1,118 @@
+package semsem.chatbot.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to an eligible replica and everything else to the primary.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * transaction's read-only flag is only visible once the first statement actually needs a connection.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Object WRITE_TRACKED = new Object();
+
+    private final Map<String, DataSource> replicas;
+    private final ReplicaHealthMonitor healthMonitor;
+    private final ReadYourWritesRegistry readYourWrites;
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            Map<String, DataSource> replicas,
+            String lagQuery,
+            Duration maxLag,
+            ReadYourWritesRegistry readYourWrites
+    ) {
+        this.replicas = replicas;
+        this.healthMonitor = new ReplicaHealthMonitor(replicas, lagQuery, maxLag);
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * The first probe runs on the scheduler once the context is up rather than during bean initialisation,
+     * so an unreachable replica cannot hold up startup; until it has run, reads go to the primary.
+     */
+    @Scheduled(fixedDelayString = "${chat.datasource.routing.health-check-interval-ms:5000}")
+    public void refreshReplicaHealth() {
+        healthMonitor.refresh();
+    }
+
+    public ReplicaHealthMonitor getHealthMonitor() {
+        return healthMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+
+        if (!inTransaction || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (inTransaction) {
+                trackWrite();
+            }
+            return PRIMARY;
+        }
+        if (readYourWrites.isCurrentUserPinned()) {
+            return PRIMARY;
+        }
+
+        String replica = healthMonitor.nextReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+
+    /**
+     * Pins the current user to the primary once their read-write transaction commits.
+     */
+    private void trackWrite() {
+        if (!readYourWrites.isEnabled()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.pinCurrentUser();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+
+    /**
+     * Closes the replica pools, which only this data source knows about; the primary is closed by its owner.
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource dataSource : replicas.values()) {
+            close(dataSource);
+        }
+    }
+
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
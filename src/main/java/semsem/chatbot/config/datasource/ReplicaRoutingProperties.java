@@ -0,0 +1,52 @@
+package semsem.chatbot.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing settings ({@code chat.datasource.routing.*}). The primary is still configured
+ * through {@code spring.datasource.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "chat.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Route read-only transactions to replicas. When false the single spring.datasource pool is used as-is.
+     */
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Replicas lagging further behind than this are skipped until they catch up.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Query returning the replica's replay lag in milliseconds. The default reports 0 when the replica
+     * has replayed everything it received, so an idle primary does not look like lag.
+     */
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    /**
+     * After a committed write, the same user's reads go to the primary for this long. Zero disables it.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private int replicaPoolSize = 10;
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
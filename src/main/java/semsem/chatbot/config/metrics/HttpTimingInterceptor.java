@@ -0,0 +1,50 @@
+package semsem.chatbot.config.metrics;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times controller handling per route template, method and status. Uses the matched pattern rather than
+ * the raw URI, so conversation ids do not become labels.
+ * <p>
+ * Async handlers (long-poll sync, streamed export) pass through the interceptor twice: the first dispatch
+ * starts the timer and the ASYNC dispatch that writes the response records it, once, including the wait.
+ */
+public class HttpTimingInterceptor implements AsyncHandlerInterceptor {
+
+    static final String METRIC = "chat_http_server_seconds";
+    private static final String START_ATTRIBUTE = HttpTimingInterceptor.class.getName() + ".start";
+
+    private final MetricsRegistry registry;
+
+    public HttpTimingInterceptor(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        registry.histogram(METRIC, "Controller handling time by route",
+                        "method", request.getMethod(),
+                        "uri", pattern != null ? pattern.toString() : "UNKNOWN",
+                        "status", String.valueOf(response.getStatus()))
+                .record(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,22 @@
+package semsem.chatbot.config.metrics;
+
+/**
+ * One labelled series in the {@link MetricsRegistry}.
+ */
+interface Metric {
+
+    /**
+     * Prometheus metric type written in the family's {@code # TYPE} line.
+     */
+    String type();
+
+    /**
+     * Appends this series' samples; {@code labels} is the rendered label set without braces, possibly empty.
+     */
+    void writeSamples(StringBuilder out, String name, String labels);
+
+    /**
+     * Largest observation since startup, exposed as the {@code <name>_max} gauge.
+     */
+    double max();
+}
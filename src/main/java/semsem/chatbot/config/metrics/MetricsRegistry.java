@@ -0,0 +1,88 @@
+package semsem.chatbot.config.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-process latency histograms and value summaries grouped by metric name and label set, rendered in the
+ * Prometheus text exposition format. Callers on hot paths should look their series up once and keep it.
+ */
+public class MetricsRegistry {
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * @param labels alternating label names and values
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return series(name, help, LatencyHistogram.class, LatencyHistogram::new, labels);
+    }
+
+    /**
+     * @param labels alternating label names and values
+     */
+    public ValueSummary summary(String name, String help, String... labels) {
+        return series(name, help, ValueSummary.class, ValueSummary::new, labels);
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        new TreeMap<>(families).forEach((name, family) -> {
+            Map<String, Metric> series = new TreeMap<>(family.series);
+            if (series.isEmpty()) {
+                return;
+            }
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(series.values().iterator().next().type()).append('\n');
+            series.forEach((labels, metric) -> metric.writeSamples(out, name, labels));
+
+            out.append("# HELP ").append(name).append("_max Largest observation since startup\n");
+            out.append("# TYPE ").append(name).append("_max gauge\n");
+            series.forEach((labels, metric) -> {
+                String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+                out.append(name).append("_max").append(braces).append(' ').append(metric.max()).append('\n');
+            });
+        });
+        return out.toString();
+    }
+
+    private <T extends Metric> T series(String name, String help, Class<T> type, Supplier<T> factory, String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        Family family = families.computeIfAbsent(name, n -> new Family(help));
+        Metric metric = family.series.computeIfAbsent(labelSet(labels), l -> factory.get());
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is a " + metric.type() + ", not a "
+                    + type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    private static String labelSet(String[] labels) {
+        StringBuilder set = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                set.append(',');
+            }
+            set.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return set.toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record Family(String help, Map<String, Metric> series) {
+
+        Family(String help) {
+            this(help, new ConcurrentHashMap<>());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package semsem.chatbot.config.metrics;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Records the statements each request ran, per route, and flags suspected N+1 queries: any statement
+ * shape repeated {@code nPlusOneThreshold} or more times within the request is logged with its SQL and
+ * counted under the route.
+ */
+@Slf4j
+public class StatementCountInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String LOG_ATTRIBUTE = StatementCountInterceptor.class.getName() + ".log";
+
+    private final MetricsRegistry registry;
+    private final int nPlusOneThreshold;
+
+    public StatementCountInterceptor(MetricsRegistry registry, int nPlusOneThreshold) {
+        this.registry = registry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        // The ASYNC dispatch of an async request was already counted when concurrent handling started
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(LOG_ATTRIBUTE, StatementCounter.start());
+        }
+        return true;
+    }
+
+    /**
+     * The rest of an async request runs on another thread; only the part up to here is counted.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        afterCompletion(request, response, handler, null);
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (!(request.getAttribute(LOG_ATTRIBUTE) instanceof StatementLog statements)) {
+            return;
+        }
+        request.removeAttribute(LOG_ATTRIBUTE);
+        StatementCounter.stop(statements);
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        registry.summary("chat_http_server_statements", "SQL statements per request by route",
+                        "method", request.getMethod(), "uri", uri)
+                .record(statements.count());
+
+        Map<String, Integer> repeated = statements.repeated(nPlusOneThreshold);
+        if (!repeated.isEmpty()) {
+            ValueSummary suspected = registry.summary("chat_n_plus_one_suspected",
+                    "Statement shapes repeated within one request (count) and their executions (sum)",
+                    "method", request.getMethod(), "uri", uri);
+            repeated.forEach((sql, times) -> {
+                suspected.record(times);
+                log.warn("Suspected N+1 on {} {}: {} executions of: {}", request.getMethod(), uri, times, sql);
+            });
+        }
+    }
+}
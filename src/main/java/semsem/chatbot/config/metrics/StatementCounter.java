@@ -0,0 +1,41 @@
+package semsem.chatbot.config.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Registered as Hibernate's
+ * {@code hibernate.session_factory.statement_inspector}; statements are only recorded while a
+ * {@link #start()}ed log is open, so outside of requests and counted blocks it costs one ThreadLocal read.
+ * Logs nest: a statement is recorded in the innermost log and all enclosing ones.
+ * <p>
+ * JdbcTemplate statements bypass Hibernate and are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+
+    // StatementInspector is Serializable; the counter itself carries no state
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<StatementLog> CURRENT = new ThreadLocal<>();
+
+    public static StatementLog start() {
+        StatementLog log = new StatementLog(CURRENT.get());
+        CURRENT.set(log);
+        return log;
+    }
+
+    public static void stop(StatementLog log) {
+        if (log.parent != null) {
+            CURRENT.set(log.parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (StatementLog log = CURRENT.get(); log != null; log = log.parent) {
+            log.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,42 @@
+package semsem.chatbot.config.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL statements Hibernate prepared on one thread during a request or a counted block. Hibernate binds
+ * every value as a parameter, so identical SQL text is an identical statement shape; the same shape run
+ * many times in one request is the signature of an N+1 loop.
+ */
+public final class StatementLog {
+
+    final StatementLog parent;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int count;
+
+    StatementLog(StatementLog parent) {
+        this.parent = parent;
+    }
+
+    void add(String sql) {
+        count++;
+        shapes.merge(sql, 1, Integer::sum);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Statement shapes executed at least {@code threshold} times, most repeated first.
+     */
+    public Map<String, Integer> repeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+}
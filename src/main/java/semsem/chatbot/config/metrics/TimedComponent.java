@@ -0,0 +1,20 @@
+package semsem.chatbot.config.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a bean into per-method timing: {@code MetricsConfig} wraps it in a class-based proxy that records
+ * {@code chat_<label>_seconds}. The class must not be final, and a bean that is already proxied is left alone.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TimedComponent {
+
+    /** Component label and metric infix, e.g. {@code mapper}. */
+    String value();
+}
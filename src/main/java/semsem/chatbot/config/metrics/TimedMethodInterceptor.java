@@ -0,0 +1,76 @@
+package semsem.chatbot.config.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call on a repository or mapper proxy. Histograms are resolved once per method and
+ * result-size bucket; methods returning a collection are labelled with its size, which for the
+ * per-conversation queries is the conversation's size.
+ */
+public class TimedMethodInterceptor implements MethodInterceptor {
+
+    private static final String[] SIZE_LABELS = {"0", "1-10", "11-100", "101-1000", "1001+"};
+
+    private final MetricsRegistry registry;
+    private final String metricName;
+    private final String help;
+    private final String componentLabel;
+    private final String componentName;
+    private final Map<Method, LatencyHistogram[]> histograms = new ConcurrentHashMap<>();
+
+    public TimedMethodInterceptor(MetricsRegistry registry, String metricName, String help,
+                                  String componentLabel, String componentName) {
+        this.registry = registry;
+        this.metricName = metricName;
+        this.help = help;
+        this.componentLabel = componentLabel;
+        this.componentName = componentName;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            LatencyHistogram[] byMethod = histograms.computeIfAbsent(method, m -> new LatencyHistogram[SIZE_LABELS.length + 1]);
+            int slot = result instanceof Collection<?> collection ? 1 + sizeIndex(collection.size()) : 0;
+            LatencyHistogram histogram = byMethod[slot];
+            if (histogram == null) {
+                histogram = slot == 0
+                        ? registry.histogram(metricName, help, componentLabel, componentName, "method", method.getName())
+                        : registry.histogram(metricName, help, componentLabel, componentName, "method", method.getName(),
+                        "size", SIZE_LABELS[slot - 1]);
+                byMethod[slot] = histogram;
+            }
+            histogram.record(elapsed);
+        }
+    }
+
+    private static int sizeIndex(int size) {
+        if (size == 0) {
+            return 0;
+        }
+        if (size <= 10) {
+            return 1;
+        }
+        if (size <= 100) {
+            return 2;
+        }
+        return size <= 1_000 ? 3 : 4;
+    }
+}
@@ -0,0 +1,49 @@
+package semsem.chatbot.config.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count, sum and max of integer observations (e.g. statements per request), exposed as a
+ * quantile-less Prometheus summary.
+ */
+public final class ValueSummary implements Metric {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    ValueSummary() {
+    }
+
+    public void record(long value) {
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sum() {
+        return sum.sum();
+    }
+
+    @Override
+    public String type() {
+        return "summary";
+    }
+
+    @Override
+    public void writeSamples(StringBuilder out, String name, String labels) {
+        String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(braces).append(' ').append(sum.sum()).append('\n');
+        out.append(name).append("_count").append(braces).append(' ').append(count.sum()).append('\n');
+    }
+
+    @Override
+    public double max() {
+        return max.get();
+    }
+}
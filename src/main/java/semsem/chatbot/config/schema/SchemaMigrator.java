@@ -0,0 +1,188 @@
+package semsem.chatbot.config.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies versioned SQL scripts ({@code V<version>__<description>.sql}, Flyway's naming) in order and
+ * records each in {@code schema_migrations} with a checksum, so Hibernate can start with
+ * {@code ddl-auto=validate} instead of diffing the schema on every boot.
+ * <p>
+ * Startup fails if an applied script was edited afterwards or two scripts share a version. A database
+ * that already has the chat tables but no history (created by {@code ddl-auto=update}) is baselined:
+ * version 1 is recorded without running. On PostgreSQL an advisory lock keeps concurrently starting
+ * pods from migrating at the same time.
+ */
+@Slf4j
+public class SchemaMigrator implements InitializingBean {
+
+    static final String HISTORY_TABLE = "schema_migrations";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final long ADVISORY_LOCK_KEY = 0x636861745f6d6967L;
+    private static final String BASELINE_MARKER_TABLE = "conversations";
+
+    private final DataSource dataSource;
+    private final String locations;
+
+    public SchemaMigrator(DataSource dataSource, String locations) {
+        this.dataSource = dataSource;
+        this.locations = locations;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException, IOException {
+        migrate();
+    }
+
+    /**
+     * @return how many scripts were run (baselined versions are not counted)
+     */
+    public int migrate() throws SQLException, IOException {
+        List<Migration> migrations = resolve();
+        long start = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+            if (postgres) {
+                execute(connection, "SELECT pg_advisory_lock(" + ADVISORY_LOCK_KEY + ")");
+            }
+            try {
+                connection.setAutoCommit(true);
+                execute(connection, "CREATE TABLE IF NOT EXISTS " + HISTORY_TABLE + " ("
+                        + "version INTEGER PRIMARY KEY, "
+                        + "description VARCHAR(200) NOT NULL, "
+                        + "checksum BIGINT NOT NULL, "
+                        + "baseline BOOLEAN NOT NULL, "
+                        + "applied_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL)");
+
+                Map<Integer, Long> applied = applied(connection);
+                if (applied.isEmpty() && !migrations.isEmpty() && tableExists(connection, BASELINE_MARKER_TABLE)) {
+                    Migration baseline = migrations.get(0);
+                    record(connection, baseline, true);
+                    applied.put(baseline.version(), baseline.checksum());
+                    log.info("Existing schema baselined at V{} ({})", baseline.version(), baseline.description());
+                }
+
+                int ran = 0;
+                for (Migration migration : migrations) {
+                    Long checksum = applied.get(migration.version());
+                    if (checksum != null) {
+                        if (checksum != migration.checksum()) {
+                            throw new IllegalStateException("Migration V" + migration.version()
+                                    + " was modified after it was applied; add a new version instead");
+                        }
+                        continue;
+                    }
+                    apply(connection, migration);
+                    ran++;
+                }
+
+                log.info("Schema at V{}: {} migration(s) applied in {} ms",
+                        migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version(),
+                        ran, (System.nanoTime() - start) / 1_000_000);
+                return ran;
+            } finally {
+                if (postgres) {
+                    connection.setAutoCommit(true);
+                    execute(connection, "SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+                }
+            }
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        log.info("Applying migration V{} ({})", migration.version(), migration.description());
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, migration.resource());
+            record(connection, migration, false);
+            connection.commit();
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private List<Migration> resolve() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(locations)) {
+            Matcher name = SCRIPT_NAME.matcher(resource.getFilename() != null ? resource.getFilename() : "");
+            if (!name.matches()) {
+                continue;
+            }
+            byte[] content = StreamUtils.copyToByteArray(resource.getInputStream());
+            CRC32 crc = new CRC32();
+            // Normalize line endings so a checkout on Windows does not look like an edit
+            crc.update(new String(content, StandardCharsets.UTF_8).replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                    crc.getValue(), resource));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version V" + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    private static Map<Integer, Long> applied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT version, checksum FROM " + HISTORY_TABLE)) {
+            while (rows.next()) {
+                applied.put(rows.getInt(1), rows.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private static void record(Connection connection, Migration migration, boolean baseline) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + HISTORY_TABLE
+                + " (version, description, checksum, baseline) VALUES (?, ?, ?, ?)")) {
+            insert.setInt(1, migration.version());
+            insert.setString(2, migration.description());
+            insert.setLong(3, migration.checksum());
+            insert.setBoolean(4, baseline);
+            insert.executeUpdate();
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(null, null, table, new String[]{"TABLE", "PARTITIONED TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private record Migration(int version, String description, long checksum, Resource resource) {
+    }
+}
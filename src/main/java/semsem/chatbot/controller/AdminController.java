@@ -0,0 +1,50 @@
+package semsem.chatbot.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import semsem.chatbot.config.concurrency.ConcurrencyLimitFilter;
+import semsem.chatbot.model.dto.response.MyApiResponse;
+import semsem.chatbot.security.BoundedPasswordEncoder;
+import semsem.chatbot.security.ratelimit.RateLimitMetrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin", description = "Operational endpoints (admin only)")
+public class AdminController {
+
+    private final RateLimitMetrics rateLimitMetrics;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final ObjectProvider<ConcurrencyLimitFilter> concurrencyLimitFilter;
+
+    @GetMapping("/rate-limits")
+    @Operation(summary = "Allowed and rejected request counts per rate-limit rule on this instance")
+    public ResponseEntity<MyApiResponse<Map<String, Map<String, Long>>>> getRateLimitMetrics() {
+        return ResponseEntity.ok(MyApiResponse.success(rateLimitMetrics.snapshot()));
+    }
+
+    @GetMapping("/password-hashing")
+    @Operation(summary = "Password-hashing pool usage and rejections on this instance")
+    public ResponseEntity<MyApiResponse<Map<String, Long>>> getPasswordHashingStats() {
+        return ResponseEntity.ok(MyApiResponse.success(passwordEncoder.snapshot()));
+    }
+
+    @GetMapping("/concurrency")
+    @Operation(summary = "Request-slot usage on this instance")
+    public ResponseEntity<MyApiResponse<Map<String, Object>>> getConcurrencyStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requestLimit", concurrencyLimitFilter.stream().map(ConcurrencyLimitFilter::snapshot).findFirst().orElse(null));
+        return ResponseEntity.ok(MyApiResponse.success(stats));
+    }
+}
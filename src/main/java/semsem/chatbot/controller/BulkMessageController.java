@@ -0,0 +1,38 @@
+package semsem.chatbot.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import semsem.chatbot.model.dto.request.BulkCreateMessagesRequest;
+import semsem.chatbot.model.dto.response.BulkIngestionResponse;
+import semsem.chatbot.model.dto.response.MyApiResponse;
+import semsem.chatbot.service.chat.BulkMessageIngestionService;
+
+@RestController
+@RequestMapping("/api/v1/messages")
+@RequiredArgsConstructor
+@Tag(name = "Messages", description = "Message management endpoints")
+public class BulkMessageController {
+
+    private final BulkMessageIngestionService bulkMessageIngestionService;
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Ingest messages across conversations in bulk",
+            description = "Accepts up to " + BulkMessageIngestionService.MAX_MESSAGES_PER_REQUEST
+                    + " messages per request; inserts are sent to the database in JDBC batches")
+    public ResponseEntity<MyApiResponse<BulkIngestionResponse>> ingestMessages(
+            @Valid @RequestBody BulkCreateMessagesRequest request
+    ) {
+        BulkIngestionResponse response = bulkMessageIngestionService.ingest(request);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(MyApiResponse.success("Messages ingested successfully", response));
+    }
+}
@@ -10,15 +10,20 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import semsem.chatbot.model.dto.request.CreateConversationRequest;
+import semsem.chatbot.model.dto.request.MetadataSearchRequest;
 import semsem.chatbot.model.dto.request.UpdateConversationRequest;
 import semsem.chatbot.model.dto.response.ConversationResponse;
 import semsem.chatbot.model.dto.response.MyApiResponse;
+import semsem.chatbot.model.dto.response.PurgeStatusResponse;
 import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.service.chat.ConversationPurgeService;
 import semsem.chatbot.service.chat.ConversationService;
+import semsem.chatbot.service.chat.MetadataQueryService;
 
 import java.util.List;
 
@@ -29,6 +34,8 @@ import java.util.List;
 public class ConversationController {
 
     private final ConversationService conversationService;
+    private final MetadataQueryService metadataQueryService;
+    private final ConversationPurgeService conversationPurgeService;
 
     @PostMapping
     @Operation(summary = "Create a new conversation")
@@ -136,6 +143,39 @@ public class ConversationController {
         return ResponseEntity.ok(MyApiResponse.success("Conversation deleted successfully"));
     }
 
+    @DeleteMapping("/status/{status}")
+    @Operation(summary = "Delete all of the current user's conversations in a status",
+            description = "Conversations disappear immediately; their messages are removed in the background")
+    public ResponseEntity<MyApiResponse<Integer>> deleteConversationsByStatus(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable ConversationStatus status
+    ) {
+        int deleted = conversationService.deleteConversationsByStatus(userDetails.getUsername(), status);
+        return ResponseEntity.ok(MyApiResponse.success("Conversations deleted successfully", deleted));
+    }
+
+    @GetMapping("/purge/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Progress of the background purge of deleted conversations (admin only)")
+    public ResponseEntity<MyApiResponse<PurgeStatusResponse>> getPurgeStatus() {
+        return ResponseEntity.ok(MyApiResponse.success(conversationPurgeService.getStatus()));
+    }
+
+    @PostMapping("/metadata/search")
+    @Operation(summary = "Find the current user's conversations whose metadata contains a JSON document",
+            description = "Uses PostgreSQL jsonb containment (@>); newest conversations first")
+    public ResponseEntity<MyApiResponse<List<ConversationResponse>>> searchConversationsByMetadata(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody MetadataSearchRequest request
+    ) {
+        List<ConversationResponse> conversations = metadataQueryService.findConversations(
+                userDetails.getUsername(),
+                request.getContains(),
+                request.getLimit()
+        );
+        return ResponseEntity.ok(MyApiResponse.success(conversations));
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search conversations by title")
     public ResponseEntity<MyApiResponse<List<ConversationResponse>>> searchConversations(
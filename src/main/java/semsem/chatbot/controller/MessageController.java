@@ -8,18 +8,32 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import semsem.chatbot.model.dto.request.CreateMessageRequest;
+import semsem.chatbot.model.dto.request.MetadataSearchRequest;
+import semsem.chatbot.model.dto.response.CursorPageResponse;
 import semsem.chatbot.model.dto.response.MessageResponse;
 import semsem.chatbot.model.dto.response.MessageStatsResponse;
+import semsem.chatbot.model.dto.response.MessageSyncResponse;
+import semsem.chatbot.model.dto.response.MessageThreadResponse;
 import semsem.chatbot.model.dto.response.MyApiResponse;
+import semsem.chatbot.model.enums.CursorDirection;
 import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.model.enums.ThreadDirection;
+import semsem.chatbot.service.chat.MessageExportService;
 import semsem.chatbot.service.chat.MessageService;
+import semsem.chatbot.service.chat.MessageSyncService;
+import semsem.chatbot.service.chat.MetadataQueryService;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/conversations/{conversationId}/messages")
@@ -27,7 +41,12 @@ import java.util.List;
 @Tag(name = "Messages", description = "Message management endpoints")
 public class MessageController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final MessageService messageService;
+    private final MessageExportService messageExportService;
+    private final MessageSyncService messageSyncService;
+    private final MetadataQueryService metadataQueryService;
 
     @PostMapping
     @Operation(summary = "Create a new message in a conversation")
@@ -64,6 +83,46 @@ public class MessageController {
         return ResponseEntity.ok(MyApiResponse.success(messages));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get messages in a conversation with keyset (cursor) pagination")
+    public ResponseEntity<MyApiResponse<CursorPageResponse<MessageResponse>>> getConversationMessagesByCursor(
+            @PathVariable String conversationId,
+            @Parameter(description = "Opaque cursor from a previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "NEXT reads newer messages, PREV reads older ones (PREV without cursor starts at the newest)")
+            @RequestParam(defaultValue = "NEXT") CursorDirection direction,
+            @Parameter(description = "Page size")
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        CursorPageResponse<MessageResponse> messages = messageService.getConversationMessagesByCursor(
+                conversationId, cursor, direction, size);
+        return ResponseEntity.ok(MyApiResponse.success(messages));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream all messages in a conversation as NDJSON",
+            description = "Messages are streamed from a database cursor, one JSON object per line, "
+                    + "so arbitrarily long conversations can be exported without loading them in memory")
+    public ResponseEntity<StreamingResponseBody> exportConversationMessages(
+            @PathVariable String conversationId,
+            @Parameter(description = "Compress the stream with gzip (Content-Encoding: gzip)")
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        messageExportService.assertExportable(conversationId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(NDJSON);
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(conversationId + ".ndjson")
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        StreamingResponseBody body = out -> messageExportService.exportConversation(conversationId, out, gzip);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     @GetMapping("/recent")
     @Operation(summary = "Get recent messages in a conversation")
     public ResponseEntity<MyApiResponse<List<MessageResponse>>> getRecentMessages(
@@ -105,6 +164,63 @@ public class MessageController {
         return ResponseEntity.ok(MyApiResponse.success(messages));
     }
 
+    @PostMapping("/metadata/search")
+    @Operation(summary = "Find messages whose metadata contains a JSON document",
+            description = "Uses PostgreSQL jsonb containment (@>), e.g. {\"tool_calls\": [{\"type\": \"property_search\"}]}")
+    public ResponseEntity<MyApiResponse<List<MessageResponse>>> searchMessagesByMetadata(
+            @PathVariable String conversationId,
+            @Parameter(description = "Only return messages with this role")
+            @RequestParam(required = false) MessageRole role,
+            @Valid @RequestBody MetadataSearchRequest request
+    ) {
+        List<MessageResponse> messages = metadataQueryService.findMessages(
+                conversationId, request.getContains(), role, request.getLimit());
+        return ResponseEntity.ok(MyApiResponse.success(messages));
+    }
+
+    @GetMapping("/tool-calls")
+    @Operation(summary = "Find messages that made a tool call of the given type")
+    public ResponseEntity<MyApiResponse<List<MessageResponse>>> getToolCallMessages(
+            @PathVariable String conversationId,
+            @Parameter(description = "Tool call type stored under metadata.tool_calls[].type")
+            @RequestParam String type,
+            @RequestParam(required = false) Integer limit
+    ) {
+        List<MessageResponse> messages = metadataQueryService.findToolCalls(conversationId, type, limit);
+        return ResponseEntity.ok(MyApiResponse.success(messages));
+    }
+
+    @GetMapping("/{messageId}/thread")
+    @Operation(summary = "Get a message's subtree or ancestor path in one request",
+            description = "DESCENDANTS returns every reply/regeneration below the message; "
+                    + "ANCESTORS returns the path from the root down to the message")
+    public ResponseEntity<MyApiResponse<MessageThreadResponse>> getThread(
+            @PathVariable String conversationId,
+            @PathVariable String messageId,
+            @RequestParam(defaultValue = "DESCENDANTS") ThreadDirection direction,
+            @Parameter(description = "Maximum number of levels to return (1-100)")
+            @RequestParam(defaultValue = "20") int maxDepth
+    ) {
+        MessageThreadResponse thread = messageService.getThread(conversationId, messageId, direction, maxDepth);
+        return ResponseEntity.ok(MyApiResponse.success(thread));
+    }
+
+    @GetMapping("/sync")
+    @Operation(summary = "Long-poll for messages after a cursor",
+            description = "Returns immediately when newer messages exist (or no cursor is given); otherwise holds the "
+                    + "request until a message arrives or the timeout expires, then returns an empty page with "
+                    + "timedOut=true and the same cursor")
+    public CompletableFuture<ResponseEntity<MyApiResponse<MessageSyncResponse>>> syncMessages(
+            @PathVariable String conversationId,
+            @Parameter(description = "Cursor returned by the previous sync call; omit for the initial load")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "How long to wait for new messages (0-60000 ms)")
+            @RequestParam(defaultValue = "25000") long timeoutMs
+    ) {
+        return messageSyncService.sync(conversationId, cursor, timeoutMs)
+                .thenApply(sync -> ResponseEntity.ok(MyApiResponse.success(sync)));
+    }
+
     @GetMapping("/since")
     @Operation(summary = "Get messages since a specific timestamp")
     public ResponseEntity<MyApiResponse<List<MessageResponse>>> getMessagesSince(
@@ -0,0 +1,50 @@
+package semsem.chatbot.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import semsem.chatbot.model.dto.response.CursorPageResponse;
+import semsem.chatbot.model.dto.response.MessageSearchResultResponse;
+import semsem.chatbot.model.dto.response.MyApiResponse;
+import semsem.chatbot.service.chat.MessageSearchService;
+
+@RestController
+@RequestMapping("/api/v1/messages")
+@RequiredArgsConstructor
+@Tag(name = "Messages", description = "Message management endpoints")
+public class MessageSearchController {
+
+    private final MessageSearchService messageSearchService;
+
+    @GetMapping("/search")
+    @Operation(summary = "Full-text search across the current user's conversations",
+            description = "Results are ordered by relevance and paginated with an opaque cursor; "
+                    + "matches in the snippet are wrapped in <mark> tags")
+    public ResponseEntity<MyApiResponse<CursorPageResponse<MessageSearchResultResponse>>> searchMessages(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Parameter(description = "Search query (supports quoted phrases, OR and -exclusions)")
+            @RequestParam String q,
+            @Parameter(description = "Restrict the search to one conversation")
+            @RequestParam(required = false) String conversationId,
+            @Parameter(description = "Opaque cursor from a previous page (nextCursor)")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        CursorPageResponse<MessageSearchResultResponse> response = messageSearchService.search(
+                userDetails.getUsername(),
+                q,
+                conversationId,
+                cursor,
+                size
+        );
+        return ResponseEntity.ok(MyApiResponse.success(response));
+    }
+}
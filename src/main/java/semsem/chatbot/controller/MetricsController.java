@@ -0,0 +1,34 @@
+package semsem.chatbot.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import semsem.chatbot.config.metrics.MetricsRegistry;
+
+/**
+ * Prometheus scrape target. It exposes per-route, per-repository and per-method timings without
+ * authentication (Prometheus scrapes anonymously), so it only exists when {@code chat.metrics.scrape-enabled}
+ * is set, for deployments where {@code /actuator} is reachable from the monitoring network alone.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "chat.metrics", name = "scrape-enabled", havingValue = "true")
+@RequestMapping("/actuator")
+@RequiredArgsConstructor
+@Tag(name = "Metrics", description = "Prometheus scrape endpoint")
+public class MetricsController {
+
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry metricsRegistry;
+
+    @GetMapping(value = "/prometheus", produces = PROMETHEUS_CONTENT_TYPE)
+    @Operation(summary = "Latency histograms for repositories, mappers, controllers and the JWT filter")
+    public ResponseEntity<String> scrape() {
+        return ResponseEntity.ok(metricsRegistry.scrape());
+    }
+}
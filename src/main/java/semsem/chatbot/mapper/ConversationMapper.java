@@ -2,25 +2,29 @@ package semsem.chatbot.mapper;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import semsem.chatbot.config.metrics.TimedComponent;
+import semsem.chatbot.model.dto.projection.ConversationInboxView;
+import semsem.chatbot.model.dto.projection.MessageView;
 import semsem.chatbot.model.dto.request.CreateConversationRequest;
 import semsem.chatbot.model.dto.request.UpdateConversationRequest;
 import semsem.chatbot.model.dto.response.ConversationResponse;
 import semsem.chatbot.model.dto.response.MessageResponse;
 import semsem.chatbot.model.entity.AppUser;
 import semsem.chatbot.model.entity.Conversation;
-import semsem.chatbot.model.entity.Message;
 import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.util.id.IdGenerator;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@TimedComponent("mapper")
 public class ConversationMapper {
 
     private final MessageMapper messageMapper;
+    private final IdGenerator idGenerator;
 
     public ConversationResponse toResponse(Conversation conversation) {
         if (conversation == null) {
@@ -41,8 +45,8 @@ public class ConversationMapper {
 
     public ConversationResponse toResponseWithDetails(
             Conversation conversation,
-            List<Message> messages,
-            Message lastMessage,
+            List<MessageView> messages,
+            MessageView lastMessage,
             int messageCount
     ) {
         if (conversation == null) {
@@ -90,7 +94,7 @@ public class ConversationMapper {
 
     public ConversationResponse toResponseWithLastMessage(
             Conversation conversation,
-            Message lastMessage,
+            MessageView lastMessage,
             int messageCount
     ) {
         if (conversation == null) {
@@ -114,6 +118,43 @@ public class ConversationMapper {
                 .build();
     }
 
+    public ConversationResponse toResponseWithLastMessage(ConversationInboxView view) {
+        if (view == null) {
+            return null;
+        }
+
+        MessageResponse lastMessageResponse = view.hasLastMessage() ?
+                MessageResponse.builder()
+                        .messageId(view.getLastMessageId())
+                        .conversationId(view.getConversationId())
+                        .role(view.getLastMessageRole())
+                        .content(view.getLastMessageContent())
+                        .providerLlm(view.getLastMessageProviderLlm())
+                        .modelUsed(view.getLastMessageModelUsed())
+                        .promptTokens(view.getLastMessagePromptTokens())
+                        .completionTokens(view.getLastMessageCompletionTokens())
+                        .totalTokens(view.getLastMessageTotalTokens())
+                        .latencyMs(view.getLastMessageLatencyMs())
+                        .parentMessageId(view.getLastMessageParentMessageId())
+                        .metadata(view.getLastMessageMetadata())
+                        .createdAt(view.getLastMessageCreatedAt())
+                        .processedAt(view.getLastMessageProcessedAt())
+                        .build() : null;
+
+        return ConversationResponse.builder()
+                .conversationId(view.getConversationId())
+                .title(view.getTitle())
+                .status(view.getStatus())
+                .summary(view.getSummary())
+                .tokenCount(view.getTokenCount())
+                .metadata(view.getMetadata())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .messageCount(view.getMessageCount() != null ? view.getMessageCount().intValue() : 0)
+                .lastMessage(lastMessageResponse)
+                .build();
+    }
+
     public Conversation toEntity(CreateConversationRequest request, AppUser user) {
         String conversationId = generateConversationId();
         Instant now = Instant.now();
@@ -145,6 +186,6 @@ public class ConversationMapper {
     }
 
     private String generateConversationId() {
-        return "conv_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        return "conv_" + idGenerator.nextId();
     }
 }
@@ -1,19 +1,26 @@
 package semsem.chatbot.mapper;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import semsem.chatbot.config.metrics.TimedComponent;
+import semsem.chatbot.model.dto.projection.MessageView;
 import semsem.chatbot.model.dto.request.CreateMessageRequest;
 import semsem.chatbot.model.dto.response.MessageResponse;
 import semsem.chatbot.model.entity.Conversation;
 import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.util.id.IdGenerator;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@RequiredArgsConstructor
+@TimedComponent("mapper")
 public class MessageMapper {
 
+    private final IdGenerator idGenerator;
+
     public MessageResponse toResponse(Message message) {
         if (message == null) {
             return null;
@@ -38,7 +45,30 @@ public class MessageMapper {
                 .build();
     }
 
-    public List<MessageResponse> toResponseList(List<Message> messages) {
+    public MessageResponse toResponse(MessageView view) {
+        if (view == null) {
+            return null;
+        }
+
+        return MessageResponse.builder()
+                .messageId(view.getMessageId())
+                .conversationId(view.getConversationId())
+                .role(view.getRole())
+                .content(view.getContent())
+                .providerLlm(view.getProviderLlm())
+                .modelUsed(view.getModelUsed())
+                .promptTokens(view.getPromptTokens())
+                .completionTokens(view.getCompletionTokens())
+                .totalTokens(view.getTotalTokens())
+                .latencyMs(view.getLatencyMs())
+                .parentMessageId(view.getParentMessageId())
+                .metadata(view.getMetadata())
+                .createdAt(view.getCreatedAt())
+                .processedAt(view.getProcessedAt())
+                .build();
+    }
+
+    public List<MessageResponse> toResponseList(List<MessageView> messages) {
         if (messages == null) {
             return List.of();
         }
@@ -96,6 +126,6 @@ public class MessageMapper {
     }
 
     private String generateMessageId() {
-        return "msg_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        return "msg_" + idGenerator.nextId();
     }
 }
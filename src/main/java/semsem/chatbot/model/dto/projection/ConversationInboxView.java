@@ -0,0 +1,47 @@
+package semsem.chatbot.model.dto.projection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.MessageRole;
+
+import java.time.Instant;
+
+/**
+ * Read-only inbox row: conversation fields, message count and the last message,
+ * selected together by a single JPQL constructor expression.
+ * All {@code lastMessage*} fields are null when the conversation has no messages.
+ */
+@Getter
+@AllArgsConstructor
+public class ConversationInboxView {
+
+    private String conversationId;
+    private String title;
+    private ConversationStatus status;
+    private String summary;
+    private Integer tokenCount;
+    private JsonNode metadata;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Long messageCount;
+
+    private String lastMessageId;
+    private MessageRole lastMessageRole;
+    private String lastMessageContent;
+    private String lastMessageProviderLlm;
+    private String lastMessageModelUsed;
+    private Integer lastMessagePromptTokens;
+    private Integer lastMessageCompletionTokens;
+    private Integer lastMessageTotalTokens;
+    private Long lastMessageLatencyMs;
+    private Long lastMessageParentMessageId;
+    private JsonNode lastMessageMetadata;
+    private Instant lastMessageCreatedAt;
+    private Instant lastMessageProcessedAt;
+
+    public boolean hasLastMessage() {
+        return lastMessageId != null;
+    }
+}
@@ -0,0 +1,61 @@
+package semsem.chatbot.model.dto.projection;
+
+import lombok.Getter;
+
+/**
+ * Per-conversation aggregate of the messages table, used to build and reconcile
+ * {@link semsem.chatbot.model.entity.ConversationStats}. Accepts {@link Number} arguments because
+ * the JPQL SUM/COUNT result types differ between dialects.
+ */
+@Getter
+public class MessageAggregateView {
+
+    private final String conversationId;
+    private final long messageCount;
+    private final long userMessages;
+    private final long assistantMessages;
+    private final long systemMessages;
+    private final long toolMessages;
+    private final long functionMessages;
+    private final long totalTokens;
+    private final long latencySumMs;
+    private final long latencyCount;
+    private final Long latencyMinMs;
+    private final Long latencyMaxMs;
+
+    public MessageAggregateView(
+            String conversationId,
+            Number messageCount,
+            Number userMessages,
+            Number assistantMessages,
+            Number systemMessages,
+            Number toolMessages,
+            Number functionMessages,
+            Number totalTokens,
+            Number latencySumMs,
+            Number latencyCount,
+            Number latencyMinMs,
+            Number latencyMaxMs
+    ) {
+        this.conversationId = conversationId;
+        this.messageCount = toLong(messageCount);
+        this.userMessages = toLong(userMessages);
+        this.assistantMessages = toLong(assistantMessages);
+        this.systemMessages = toLong(systemMessages);
+        this.toolMessages = toLong(toolMessages);
+        this.functionMessages = toLong(functionMessages);
+        this.totalTokens = toLong(totalTokens);
+        this.latencySumMs = toLong(latencySumMs);
+        this.latencyCount = toLong(latencyCount);
+        this.latencyMinMs = latencyMinMs != null ? latencyMinMs.longValue() : null;
+        this.latencyMaxMs = latencyMaxMs != null ? latencyMaxMs.longValue() : null;
+    }
+
+    public static MessageAggregateView empty(String conversationId) {
+        return new MessageAggregateView(conversationId, 0, 0, 0, 0, 0, 0, 0, 0, 0, null, null);
+    }
+
+    private static long toLong(Number value) {
+        return value != null ? value.longValue() : 0;
+    }
+}
@@ -0,0 +1,13 @@
+package semsem.chatbot.model.dto.projection;
+
+/**
+ * Row of the ranked full-text message search: message id, ts_rank_cd score and ts_headline snippet.
+ */
+public interface MessageSearchHit {
+
+    Long getId();
+
+    Float getRank();
+
+    String getSnippet();
+}
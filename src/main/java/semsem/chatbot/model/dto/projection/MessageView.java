@@ -0,0 +1,34 @@
+package semsem.chatbot.model.dto.projection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import semsem.chatbot.model.enums.MessageRole;
+
+import java.time.Instant;
+
+/**
+ * Read-only message row selected column by column (JPQL constructor expression or native query), so list
+ * reads never put {@link semsem.chatbot.model.entity.Message} entities or their dirty-checking snapshots
+ * into the persistence context. Carries the surrogate {@code id} for keyset cursors and thread building.
+ */
+@Getter
+@AllArgsConstructor
+public class MessageView {
+
+    private Long id;
+    private String messageId;
+    private String conversationId;
+    private MessageRole role;
+    private String content;
+    private String providerLlm;
+    private String modelUsed;
+    private Integer promptTokens;
+    private Integer completionTokens;
+    private Integer totalTokens;
+    private Long latencyMs;
+    private Long parentMessageId;
+    private JsonNode metadata;
+    private Instant createdAt;
+    private Instant processedAt;
+}
@@ -0,0 +1,17 @@
+package semsem.chatbot.model.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * A soft-deleted conversation waiting for the purge job; {@code createdAt} bounds its message partitions.
+ */
+@Getter
+@AllArgsConstructor
+public class PendingPurgeView {
+
+    private String conversationId;
+    private Instant createdAt;
+}
@@ -0,0 +1,22 @@
+package semsem.chatbot.model.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Account flags of a user without the roles collection, for per-request authentication checks.
+ */
+@Getter
+@AllArgsConstructor
+public class UserAccountView {
+
+    private String email;
+    private boolean enabled;
+    private boolean accountNonExpired;
+    private boolean accountNonLocked;
+    private boolean credentialsNonExpired;
+
+    public boolean isUsable() {
+        return enabled && accountNonExpired && accountNonLocked && credentialsNonExpired;
+    }
+}
@@ -0,0 +1,41 @@
+package semsem.chatbot.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to ingest many messages across conversations at once")
+public class BulkCreateMessagesRequest {
+
+    @Valid
+    @NotEmpty(message = "At least one conversation is required")
+    @Schema(description = "Messages grouped by the conversation they belong to")
+    private List<ConversationMessages> conversations;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConversationMessages {
+
+        @NotBlank(message = "Conversation ID is required")
+        @Schema(description = "Target conversation", example = "conv_123abc")
+        private String conversationId;
+
+        @Valid
+        @NotEmpty(message = "At least one message is required")
+        @Schema(description = "Messages in chronological order")
+        private List<CreateMessageRequest> messages;
+    }
+}
@@ -1,5 +1,6 @@
 package semsem.chatbot.model.dto.request;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -18,8 +19,8 @@ public class CreateConversationRequest {
     @Schema(description = "Optional title for the conversation", example = "Real Estate Inquiry")
     private String title;
 
-    @Schema(description = "Optional metadata as JSON string")
-    private String metadata;
+    @Schema(description = "Optional metadata as a JSON object")
+    private JsonNode metadata;
 
     @Schema(description = "Initial message to start the conversation (optional)")
     private String initialMessage;
@@ -1,5 +1,6 @@
 package semsem.chatbot.model.dto.request;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -45,6 +46,6 @@ public class CreateMessageRequest {
     @Schema(description = "Parent message ID for threading")
     private Long parentMessageId;
 
-    @Schema(description = "Message metadata as JSON string")
-    private String metadata;
+    @Schema(description = "Message metadata as a JSON object, e.g. {\"tool_calls\": [{\"type\": \"property_search\"}]}")
+    private JsonNode metadata;
 }
@@ -0,0 +1,29 @@
+package semsem.chatbot.model.dto.request;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filter on JSONB metadata using PostgreSQL containment (@>)")
+public class MetadataSearchRequest {
+
+    @NotNull(message = "A containment document is required")
+    @Schema(description = "JSON object the metadata must contain; arrays match if they contain the given elements",
+            example = "{\"tool_calls\": [{\"type\": \"property_search\"}]}")
+    private JsonNode contains;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 200, message = "Limit must not exceed 200")
+    @Schema(description = "Maximum number of results", example = "50")
+    private Integer limit;
+}
@@ -1,5 +1,6 @@
 package semsem.chatbot.model.dto.request;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -22,6 +23,6 @@ public class UpdateConversationRequest {
     @Schema(description = "New status for the conversation")
     private ConversationStatus status;
 
-    @Schema(description = "Updated metadata as JSON string")
-    private String metadata;
+    @Schema(description = "Updated metadata as a JSON object")
+    private JsonNode metadata;
 }
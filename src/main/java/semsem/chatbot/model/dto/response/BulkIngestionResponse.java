@@ -0,0 +1,27 @@
+package semsem.chatbot.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a bulk message ingestion")
+public class BulkIngestionResponse {
+
+    @Schema(description = "Number of conversations touched", example = "12")
+    private int conversations;
+
+    @Schema(description = "Number of messages inserted", example = "5000")
+    private int messagesCreated;
+
+    @Schema(description = "Number of JDBC batches flushed", example = "100")
+    private int batches;
+
+    @Schema(description = "Server-side ingestion time in milliseconds", example = "840")
+    private long elapsedMs;
+}
@@ -2,6 +2,7 @@ package semsem.chatbot.model.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -39,7 +40,7 @@ public class ConversationResponse {
     private Integer messageCount;
 
     @Schema(description = "Conversation metadata as JSON")
-    private String metadata;
+    private JsonNode metadata;
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
     @Schema(description = "Creation timestamp")
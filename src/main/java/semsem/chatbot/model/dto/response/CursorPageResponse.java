@@ -0,0 +1,37 @@
+package semsem.chatbot.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Keyset page of items with opaque cursors for both directions")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Items in ascending chronological order")
+    private List<T> items;
+
+    @Schema(description = "Number of items in this page")
+    private int size;
+
+    @Schema(description = "Cursor to fetch the page after the last item (direction=NEXT)")
+    private String nextCursor;
+
+    @Schema(description = "Cursor to fetch the page before the first item (direction=PREV)")
+    private String prevCursor;
+
+    @Schema(description = "Whether newer items exist after this page")
+    private boolean hasNext;
+
+    @Schema(description = "Whether older items exist before this page")
+    private boolean hasPrevious;
+}
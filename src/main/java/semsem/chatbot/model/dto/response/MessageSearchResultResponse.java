@@ -0,0 +1,28 @@
+package semsem.chatbot.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Full-text search hit with relevance and highlighted snippet")
+public class MessageSearchResultResponse {
+
+    @Schema(description = "Matched message")
+    private MessageResponse message;
+
+    @Schema(description = "Title of the conversation the message belongs to", example = "Apartment search in Cairo")
+    private String conversationTitle;
+
+    @Schema(description = "Relevance score (ts_rank_cd); higher is more relevant", example = "0.35")
+    private float rank;
+
+    @Schema(description = "Content fragment with matches wrapped in <mark> tags",
+            example = "looking for a <mark>three</mark> <mark>bedroom</mark> apartment")
+    private String snippet;
+}
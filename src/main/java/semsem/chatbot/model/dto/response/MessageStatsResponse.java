@@ -22,9 +22,24 @@ public class MessageStatsResponse {
     @Schema(description = "Number of assistant messages", example = "21")
     private long assistantMessages;
 
+    @Schema(description = "Number of system messages", example = "1")
+    private long systemMessages;
+
+    @Schema(description = "Number of tool messages", example = "0")
+    private long toolMessages;
+
+    @Schema(description = "Number of function messages", example = "0")
+    private long functionMessages;
+
     @Schema(description = "Total tokens used", example = "15000")
     private int totalTokens;
 
     @Schema(description = "Average response latency in milliseconds", example = "250.5")
     private double averageLatencyMs;
+
+    @Schema(description = "Fastest assistant response latency in milliseconds", example = "120")
+    private Long minLatencyMs;
+
+    @Schema(description = "Slowest assistant response latency in milliseconds", example = "980")
+    private Long maxLatencyMs;
 }
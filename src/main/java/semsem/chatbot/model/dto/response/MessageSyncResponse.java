@@ -0,0 +1,26 @@
+package semsem.chatbot.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Messages created after the client's cursor")
+public class MessageSyncResponse {
+
+    @Schema(description = "New messages in ascending chronological order; empty if the wait timed out")
+    private List<MessageResponse> messages;
+
+    @Schema(description = "Cursor to send with the next sync request")
+    private String cursor;
+
+    @Schema(description = "True if no message arrived before the timeout")
+    private boolean timedOut;
+}
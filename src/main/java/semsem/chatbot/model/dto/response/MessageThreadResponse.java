@@ -0,0 +1,48 @@
+package semsem.chatbot.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import semsem.chatbot.model.enums.ThreadDirection;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Branch of a message tree: a subtree below a message or the path from the root down to it")
+public class MessageThreadResponse {
+
+    @Schema(description = "Message the thread was requested for", example = "msg_456def")
+    private String messageId;
+
+    @Schema(description = "Whether nodes are the message's descendants or its ancestors")
+    private ThreadDirection direction;
+
+    @Schema(description = "Maximum depth that was requested", example = "20")
+    private int maxDepth;
+
+    @Schema(description = "True if the tree continues beyond maxDepth")
+    private boolean truncated;
+
+    @Schema(description = "Nodes in depth-first order, parents before children (root first for ancestors)")
+    private List<Node> nodes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Node {
+
+        @Schema(description = "Internal message id, referenced by children's parentMessageId", example = "1042")
+        private Long id;
+
+        @Schema(description = "Distance from the top node of this thread", example = "2")
+        private int depth;
+
+        private MessageResponse message;
+    }
+}
@@ -0,0 +1,44 @@
+package semsem.chatbot.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Progress of the background purge of deleted conversations")
+public class PurgeStatusResponse {
+
+    @Schema(description = "Whether the purge job is enabled on this instance")
+    private boolean enabled;
+
+    @Schema(description = "True while a purge run is in progress")
+    private boolean running;
+
+    @Schema(description = "Soft-deleted conversations still waiting to be removed (all instances)")
+    private long pendingConversations;
+
+    @Schema(description = "Conversation currently being purged, if any")
+    private String currentConversationId;
+
+    @Schema(description = "Conversations fully removed by this instance since startup")
+    private long conversationsPurged;
+
+    @Schema(description = "Messages removed by this instance since startup")
+    private long messagesPurged;
+
+    @Schema(description = "Delete batches executed by this instance since startup")
+    private long batches;
+
+    @Schema(description = "Conversations whose purge failed and will be retried")
+    private long failures;
+
+    private Instant lastRunStartedAt;
+    private Instant lastRunFinishedAt;
+}
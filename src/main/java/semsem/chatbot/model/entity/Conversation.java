@@ -1,9 +1,12 @@
 package semsem.chatbot.model.entity;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.type.SqlTypes;
 import semsem.chatbot.model.enums.ConversationStatus;
 
 import java.time.Instant;
@@ -48,8 +51,9 @@ public class Conversation {
     @Column(name = "status")
     private ConversationStatus status;
 
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "metadata", columnDefinition = "jsonb")
-    private String metadata; // Store additional info as JSON
+    private JsonNode metadata; // Store additional info as JSON
 
     @Column(name = "token_count")
     private Integer tokenCount;
@@ -0,0 +1,40 @@
+package semsem.chatbot.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Cold copy of an archived conversation's messages: one compressed NDJSON document per conversation,
+ * so the hot {@code messages} table (and its indexes) only carries conversations that are still in use.
+ */
+@Entity
+@Table(name = "conversation_archives")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationArchive {
+
+    @Id
+    @Column(name = "conversation_id")
+    private String conversationId;
+
+    @Column(name = "codec", nullable = false, length = 16)
+    private String codec;
+
+    @Column(name = "message_count", nullable = false)
+    private int messageCount;
+
+    /** Size of the uncompressed NDJSON document. */
+    @Column(name = "raw_bytes", nullable = false)
+    private long rawBytes;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
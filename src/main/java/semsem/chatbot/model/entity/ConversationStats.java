@@ -0,0 +1,107 @@
+package semsem.chatbot.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import semsem.chatbot.model.dto.projection.MessageAggregateView;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Incrementally maintained per-conversation read model. Counters are updated in the same
+ * transaction as the message write; latency figures cover assistant messages only, matching
+ * the semantics of the original AVG(latency_ms) query.
+ */
+@Entity
+@Table(name = "conversation_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationStats {
+
+    @Id
+    @Column(name = "conversation_id")
+    private String conversationId;
+
+    @Column(name = "message_count", nullable = false)
+    private long messageCount;
+
+    @Column(name = "user_messages", nullable = false)
+    private long userMessages;
+
+    @Column(name = "assistant_messages", nullable = false)
+    private long assistantMessages;
+
+    @Column(name = "system_messages", nullable = false)
+    private long systemMessages;
+
+    @Column(name = "tool_messages", nullable = false)
+    private long toolMessages;
+
+    @Column(name = "function_messages", nullable = false)
+    private long functionMessages;
+
+    @Column(name = "total_tokens", nullable = false)
+    private long totalTokens;
+
+    @Column(name = "latency_sum_ms", nullable = false)
+    private long latencySumMs;
+
+    @Column(name = "latency_count", nullable = false)
+    private long latencyCount;
+
+    @Column(name = "latency_min_ms")
+    private Long latencyMinMs;
+
+    @Column(name = "latency_max_ms")
+    private Long latencyMaxMs;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public static ConversationStats empty(String conversationId) {
+        return ConversationStats.builder()
+                .conversationId(conversationId)
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    public double getAverageLatencyMs() {
+        return latencyCount == 0 ? 0 : (double) latencySumMs / latencyCount;
+    }
+
+    /**
+     * Overwrites all counters with a freshly computed aggregate; returns true if anything changed.
+     */
+    public boolean applyAggregate(MessageAggregateView aggregate) {
+        boolean drifted = messageCount != aggregate.getMessageCount()
+                || userMessages != aggregate.getUserMessages()
+                || assistantMessages != aggregate.getAssistantMessages()
+                || systemMessages != aggregate.getSystemMessages()
+                || toolMessages != aggregate.getToolMessages()
+                || functionMessages != aggregate.getFunctionMessages()
+                || totalTokens != aggregate.getTotalTokens()
+                || latencySumMs != aggregate.getLatencySumMs()
+                || latencyCount != aggregate.getLatencyCount()
+                || !Objects.equals(latencyMinMs, aggregate.getLatencyMinMs())
+                || !Objects.equals(latencyMaxMs, aggregate.getLatencyMaxMs());
+
+        messageCount = aggregate.getMessageCount();
+        userMessages = aggregate.getUserMessages();
+        assistantMessages = aggregate.getAssistantMessages();
+        systemMessages = aggregate.getSystemMessages();
+        toolMessages = aggregate.getToolMessages();
+        functionMessages = aggregate.getFunctionMessages();
+        totalTokens = aggregate.getTotalTokens();
+        latencySumMs = aggregate.getLatencySumMs();
+        latencyCount = aggregate.getLatencyCount();
+        latencyMinMs = aggregate.getLatencyMinMs();
+        latencyMaxMs = aggregate.getLatencyMaxMs();
+        if (drifted) {
+            updatedAt = Instant.now();
+        }
+        return drifted;
+    }
+}
@@ -1,11 +1,14 @@
 package semsem.chatbot.model.entity;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.type.SqlTypes;
+import semsem.chatbot.model.dto.projection.MessageView;
 import semsem.chatbot.model.enums.MessageRole;
 
 import java.time.Instant;
@@ -18,12 +21,37 @@ import java.time.Instant;
 @Builder
 @Table(name = "messages", indexes = {
         @Index(name = "idx_conversation_created", columnList = "conversation_id, created_at"),
-        @Index(name = "idx_role_conversation", columnList = "role, conversation_id")
+        @Index(name = "idx_role_conversation", columnList = "role, conversation_id"),
+        @Index(name = "idx_messages_parent", columnList = "parent_message_id")
 })
+@SqlResultSetMapping(name = Message.VIEW_MAPPING, classes = @ConstructorResult(
+        targetClass = MessageView.class,
+        columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "message_id", type = String.class),
+                @ColumnResult(name = "conversation_id", type = String.class),
+                @ColumnResult(name = "role", type = MessageRole.class),
+                @ColumnResult(name = "content", type = String.class),
+                @ColumnResult(name = "provider_llm", type = String.class),
+                @ColumnResult(name = "model_used", type = String.class),
+                @ColumnResult(name = "prompt_tokens", type = Integer.class),
+                @ColumnResult(name = "completion_tokens", type = Integer.class),
+                @ColumnResult(name = "total_tokens", type = Integer.class),
+                @ColumnResult(name = "latency_ms", type = Long.class),
+                @ColumnResult(name = "parent_message_id", type = Long.class),
+                @ColumnResult(name = "metadata", type = JsonNode.class),
+                @ColumnResult(name = "created_at", type = Instant.class),
+                @ColumnResult(name = "processed_at", type = Instant.class)
+        }))
 public class Message {
 
+    /** Maps native {@code SELECT m.*}-style rows onto {@link MessageView} without creating entities. */
+    public static final String VIEW_MAPPING = "MessageView";
+
+    // Pooled allocator: one sequence round trip per 50 ids, which keeps JDBC insert batches intact.
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_seq")
+    @SequenceGenerator(name = "messages_seq", sequenceName = "messages_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "message_id", nullable = false, unique = true)
@@ -65,13 +93,21 @@ public class Message {
     @Column(name = "parent_message_id")
     private Long parentMessageId;
 
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "metadata", columnDefinition = "jsonb")
-    private String metadata; // Store tool calls, function calls, etc.
+    private JsonNode metadata; // Store tool calls, function calls, etc.
 
-    @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private Instant createdAt;
 
     @Column(name = "processed_at")
     private Instant processedAt;
+
+    // Unlike @CreationTimestamp this keeps an assigned value, so restored archive rows retain their original time
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package semsem.chatbot.model.enums;
+
+public enum CursorDirection {
+    NEXT,
+    PREV
+}
@@ -0,0 +1,33 @@
+package semsem.chatbot.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import semsem.chatbot.model.entity.ConversationArchive;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationArchiveRepository extends JpaRepository<ConversationArchive, String> {
+
+    /**
+     * Archive timestamp of a conversation that is still ARCHIVED; a soft-deleted conversation's archive
+     * waits for the purge job but is no longer readable.
+     */
+    @Query("SELECT a.archivedAt FROM ConversationArchive a, Conversation c " +
+            "WHERE a.conversationId = :conversationId AND c.conversationId = a.conversationId " +
+            "AND c.status = semsem.chatbot.model.enums.ConversationStatus.ARCHIVED")
+    Optional<Instant> findArchivedAtByConversationId(@Param("conversationId") String conversationId);
+
+    @Query("SELECT a.conversationId FROM ConversationArchive a WHERE a.conversationId IN :conversationIds")
+    List<String> findArchivedIdsIn(@Param("conversationIds") Collection<String> conversationIds);
+
+    @Modifying
+    @Query("DELETE FROM ConversationArchive a WHERE a.conversationId = :conversationId")
+    int deleteByConversationId(@Param("conversationId") String conversationId);
+}
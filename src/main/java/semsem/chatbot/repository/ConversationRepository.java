@@ -7,55 +7,146 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import semsem.chatbot.model.dto.projection.ConversationInboxView;
+import semsem.chatbot.model.dto.projection.PendingPurgeView;
 import semsem.chatbot.model.entity.Conversation;
 import semsem.chatbot.model.enums.ConversationStatus;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
 
-    Optional<Conversation> findByConversationId(String conversationId);
+    /**
+     * Conversations marked DELETED stay invisible to every read until the purge job has removed them.
+     */
+    String LIVE = "c.status <> semsem.chatbot.model.enums.ConversationStatus.DELETED ";
+
+    /**
+     * Inbox projection: conversation fields, message count and last message in one statement. The count comes from
+     * conversation_stats, falling back to a live count for conversations the reconciler has not backfilled yet.
+     * The last message is the newest by (createdAt, id) so ties on createdAt stay deterministic.
+     */
+    String INBOX_SELECT = "SELECT new semsem.chatbot.model.dto.projection.ConversationInboxView(" +
+            "c.conversationId, c.title, c.status, c.summary, c.tokenCount, c.metadata, c.createdAt, c.updatedAt, " +
+            "COALESCE(s.messageCount, (SELECT COUNT(mc) FROM Message mc " +
+            "WHERE mc.conversation.conversationId = c.conversationId)), " +
+            "lm.messageId, lm.role, lm.content, lm.providerLlm, lm.modelUsed, lm.promptTokens, lm.completionTokens, " +
+            "lm.totalTokens, lm.latencyMs, lm.parentMessageId, lm.metadata, lm.createdAt, lm.processedAt) " +
+            "FROM Conversation c " +
+            "LEFT JOIN ConversationStats s ON s.conversationId = c.conversationId " +
+            "LEFT JOIN Message lm ON lm.conversation.conversationId = c.conversationId AND lm.id = (" +
+            "SELECT MAX(ml.id) FROM Message ml WHERE ml.conversation.conversationId = c.conversationId " +
+            "AND ml.createdAt = (SELECT MAX(mt.createdAt) FROM Message mt " +
+            "WHERE mt.conversation.conversationId = c.conversationId)) ";
+
+    @Query("SELECT c FROM Conversation c WHERE c.conversationId = :conversationId AND " + LIVE)
+    Optional<Conversation> findByConversationId(@Param("conversationId") String conversationId);
+
+    @Query("SELECT COUNT(c) > 0 FROM Conversation c WHERE c.conversationId = :conversationId AND " + LIVE)
+    boolean existsByConversationId(@Param("conversationId") String conversationId);
+
+    @Query("SELECT c.createdAt FROM Conversation c WHERE c.conversationId = :conversationId AND " + LIVE)
+    Optional<Instant> findCreatedAtByConversationId(@Param("conversationId") String conversationId);
+
+    @Query("SELECT c.status FROM Conversation c WHERE c.conversationId = :conversationId AND " + LIVE)
+    Optional<ConversationStatus> findStatusByConversationId(@Param("conversationId") String conversationId);
+
+    @Query("SELECT c.conversationId FROM Conversation c WHERE c.conversationId > :after AND " + LIVE +
+            "ORDER BY c.conversationId ASC")
+    List<String> findConversationIdsAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Conversations in {@code status} untouched since {@code before} that have no cold-storage archive yet.
+     */
+    @Query("SELECT c.conversationId FROM Conversation c WHERE c.status = :status AND c.updatedAt < :before " +
+            "AND c.conversationId > :after " +
+            "AND NOT EXISTS (SELECT 1 FROM ConversationArchive a WHERE a.conversationId = c.conversationId) " +
+            "ORDER BY c.conversationId ASC")
+    List<String> findArchiveCandidates(
+            @Param("status") ConversationStatus status,
+            @Param("before") Instant before,
+            @Param("after") String after,
+            Pageable pageable
+    );
 
-    boolean existsByConversationId(String conversationId);
+    @Query("SELECT c FROM Conversation c WHERE c.conversationId IN :conversationIds")
+    List<Conversation> findAllByConversationIdIn(@Param("conversationIds") Collection<String> conversationIds);
+
+    /**
+     * A user's conversations whose metadata contains the {@code filter} document, newest first;
+     * uses the jsonb_path_ops GIN index idx_conversations_metadata. PostgreSQL only.
+     */
+    @Query(value = "SELECT c.* FROM conversations c " +
+            "WHERE c.user_id = :userId AND c.status <> 'DELETED' AND c.metadata @> CAST(:filter AS jsonb) " +
+            "ORDER BY c.updated_at DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Conversation> findByUserIdAndMetadataContaining(
+            @Param("userId") Long userId,
+            @Param("filter") String filter,
+            @Param("limit") int limit
+    );
 
-    @Query("SELECT c FROM Conversation c WHERE c.appUser.userId = :userId ORDER BY c.updatedAt DESC")
+    @Query("SELECT c FROM Conversation c WHERE c.appUser.userId = :userId AND " + LIVE + "ORDER BY c.updatedAt DESC")
     Page<Conversation> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT c FROM Conversation c WHERE c.appUser.userId = :userId AND c.status = :status ORDER BY c.updatedAt DESC")
+    @Query("SELECT c FROM Conversation c WHERE c.appUser.userId = :userId AND c.status = :status AND " + LIVE +
+            "ORDER BY c.updatedAt DESC")
     Page<Conversation> findByUserIdAndStatus(
             @Param("userId") Long userId,
             @Param("status") ConversationStatus status,
             Pageable pageable
     );
 
-    @Query("SELECT c FROM Conversation c WHERE c.appUser.userId = :userId AND c.status = :status")
+    @Query("SELECT c FROM Conversation c WHERE c.appUser.userId = :userId AND c.status = :status AND " + LIVE)
     List<Conversation> findAllByUserIdAndStatus(
             @Param("userId") Long userId,
             @Param("status") ConversationStatus status
     );
 
-    @Query("SELECT c FROM Conversation c WHERE c.appUser.email = :email ORDER BY c.updatedAt DESC")
+    @Query("SELECT c FROM Conversation c WHERE c.appUser.email = :email AND " + LIVE + "ORDER BY c.updatedAt DESC")
     Page<Conversation> findByUserEmail(@Param("email") String email, Pageable pageable);
 
-    @Query("SELECT c FROM Conversation c WHERE c.appUser.email = :email AND c.conversationId = :conversationId")
+    @Query(value = INBOX_SELECT + "WHERE c.appUser.email = :email AND " + LIVE + "ORDER BY c.updatedAt DESC",
+            countQuery = "SELECT COUNT(c) FROM Conversation c WHERE c.appUser.email = :email AND " + LIVE)
+    Page<ConversationInboxView> findInboxByUserEmail(@Param("email") String email, Pageable pageable);
+
+    @Query(value = INBOX_SELECT + "WHERE c.appUser.userId = :userId AND c.status = :status AND " + LIVE +
+            "ORDER BY c.updatedAt DESC",
+            countQuery = "SELECT COUNT(c) FROM Conversation c WHERE c.appUser.userId = :userId AND c.status = :status " +
+                    "AND " + LIVE)
+    Page<ConversationInboxView> findInboxByUserIdAndStatus(
+            @Param("userId") Long userId,
+            @Param("status") ConversationStatus status,
+            Pageable pageable
+    );
+
+    @Query(INBOX_SELECT + "WHERE c.title LIKE %:keyword% AND c.appUser.userId = :userId AND " + LIVE +
+            "ORDER BY c.updatedAt DESC")
+    List<ConversationInboxView> searchInboxByTitleAndUserId(
+            @Param("keyword") String keyword,
+            @Param("userId") Long userId
+    );
+
+    @Query("SELECT c FROM Conversation c WHERE c.appUser.email = :email AND c.conversationId = :conversationId AND " + LIVE)
     Optional<Conversation> findByUserEmailAndConversationId(
             @Param("email") String email,
             @Param("conversationId") String conversationId
     );
 
-    @Query("SELECT c FROM Conversation c WHERE c.title LIKE %:keyword% AND c.appUser.userId = :userId")
+    @Query("SELECT c FROM Conversation c WHERE c.title LIKE %:keyword% AND c.appUser.userId = :userId AND " + LIVE)
     List<Conversation> searchByTitleAndUserId(
             @Param("keyword") String keyword,
             @Param("userId") Long userId
     );
 
-    @Query("SELECT COUNT(c) FROM Conversation c WHERE c.appUser.userId = :userId")
+    @Query("SELECT COUNT(c) FROM Conversation c WHERE c.appUser.userId = :userId AND " + LIVE)
     long countByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT COUNT(c) FROM Conversation c WHERE c.appUser.userId = :userId AND c.status = :status")
+    @Query("SELECT COUNT(c) FROM Conversation c WHERE c.appUser.userId = :userId AND c.status = :status AND " + LIVE)
     long countByUserIdAndStatus(@Param("userId") Long userId, @Param("status") ConversationStatus status);
 
     @Modifying
@@ -83,6 +174,39 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     );
 
     @Modifying
-    @Query("DELETE FROM Conversation c WHERE c.appUser.userId = :userId AND c.status = :status")
-    int deleteByUserIdAndStatus(@Param("userId") Long userId, @Param("status") ConversationStatus status);
+    @Query("UPDATE Conversation c SET c.tokenCount = COALESCE(c.tokenCount, 0) + :tokens, c.updatedAt = :updatedAt " +
+            "WHERE c.conversationId = :conversationId")
+    int incrementTokenCount(
+            @Param("conversationId") String conversationId,
+            @Param("tokens") int tokens,
+            @Param("updatedAt") Instant updatedAt
+    );
+
+    /**
+     * Soft-deletes all of a user's conversations in {@code status}; rows and messages are removed later by the purge job.
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET c.status = semsem.chatbot.model.enums.ConversationStatus.DELETED, " +
+            "c.updatedAt = :deletedAt WHERE c.appUser.userId = :userId AND c.status = :status")
+    int markDeletedByUserIdAndStatus(
+            @Param("userId") Long userId,
+            @Param("status") ConversationStatus status,
+            @Param("deletedAt") Instant deletedAt
+    );
+
+    /**
+     * Purge queue: soft-deleted conversations in id order, with the creation time used to prune message partitions.
+     */
+    @Query("SELECT new semsem.chatbot.model.dto.projection.PendingPurgeView(c.conversationId, c.createdAt) " +
+            "FROM Conversation c WHERE c.status = semsem.chatbot.model.enums.ConversationStatus.DELETED " +
+            "AND c.conversationId > :after ORDER BY c.conversationId ASC")
+    List<PendingPurgeView> findPendingPurge(@Param("after") String after, Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Conversation c WHERE c.status = semsem.chatbot.model.enums.ConversationStatus.DELETED")
+    long countPendingPurge();
+
+    @Modifying
+    @Query("DELETE FROM Conversation c WHERE c.conversationId = :conversationId " +
+            "AND c.status = semsem.chatbot.model.enums.ConversationStatus.DELETED")
+    int deletePurged(@Param("conversationId") String conversationId);
 }
@@ -0,0 +1,102 @@
+package semsem.chatbot.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import semsem.chatbot.model.entity.ConversationStats;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ConversationStatsRepository extends JpaRepository<ConversationStats, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ConversationStats s WHERE s.conversationId IN :conversationIds")
+    List<ConversationStats> lockAllByConversationIdIn(@Param("conversationIds") Collection<String> conversationIds);
+
+    /**
+     * Creates an empty row unless one exists. Unlike a read-then-save, two callers racing on a missing row
+     * cannot both insert: the loser's statement is a no-op and both go on to lock the same row.
+     */
+    @Modifying
+    @NativeQuery("INSERT INTO conversation_stats (conversation_id, message_count, user_messages, assistant_messages, " +
+            "system_messages, tool_messages, function_messages, total_tokens, latency_sum_ms, latency_count, updated_at) " +
+            "VALUES (:conversationId, 0, 0, 0, 0, 0, 0, 0, 0, 0, :updatedAt) ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("conversationId") String conversationId, @Param("updatedAt") Instant updatedAt);
+
+    @Modifying
+    @Query("UPDATE ConversationStats s SET " +
+            "s.messageCount = s.messageCount + :messages, " +
+            "s.userMessages = s.userMessages + :userMessages, " +
+            "s.assistantMessages = s.assistantMessages + :assistantMessages, " +
+            "s.systemMessages = s.systemMessages + :systemMessages, " +
+            "s.toolMessages = s.toolMessages + :toolMessages, " +
+            "s.functionMessages = s.functionMessages + :functionMessages, " +
+            "s.totalTokens = s.totalTokens + :tokens, " +
+            "s.updatedAt = :updatedAt " +
+            "WHERE s.conversationId = :conversationId")
+    int incrementCounts(
+            @Param("conversationId") String conversationId,
+            @Param("messages") long messages,
+            @Param("userMessages") long userMessages,
+            @Param("assistantMessages") long assistantMessages,
+            @Param("systemMessages") long systemMessages,
+            @Param("toolMessages") long toolMessages,
+            @Param("functionMessages") long functionMessages,
+            @Param("tokens") long tokens,
+            @Param("updatedAt") Instant updatedAt
+    );
+
+    @Modifying
+    @Query("UPDATE ConversationStats s SET " +
+            "s.messageCount = s.messageCount + :messages, " +
+            "s.userMessages = s.userMessages + :userMessages, " +
+            "s.assistantMessages = s.assistantMessages + :assistantMessages, " +
+            "s.systemMessages = s.systemMessages + :systemMessages, " +
+            "s.toolMessages = s.toolMessages + :toolMessages, " +
+            "s.functionMessages = s.functionMessages + :functionMessages, " +
+            "s.totalTokens = s.totalTokens + :tokens, " +
+            "s.latencySumMs = s.latencySumMs + :latencySum, " +
+            "s.latencyCount = s.latencyCount + :latencyCount, " +
+            "s.latencyMinMs = CASE WHEN s.latencyMinMs IS NULL OR s.latencyMinMs > :latencyMin " +
+            "THEN :latencyMin ELSE s.latencyMinMs END, " +
+            "s.latencyMaxMs = CASE WHEN s.latencyMaxMs IS NULL OR s.latencyMaxMs < :latencyMax " +
+            "THEN :latencyMax ELSE s.latencyMaxMs END, " +
+            "s.updatedAt = :updatedAt " +
+            "WHERE s.conversationId = :conversationId")
+    int incrementCountsAndLatency(
+            @Param("conversationId") String conversationId,
+            @Param("messages") long messages,
+            @Param("userMessages") long userMessages,
+            @Param("assistantMessages") long assistantMessages,
+            @Param("systemMessages") long systemMessages,
+            @Param("toolMessages") long toolMessages,
+            @Param("functionMessages") long functionMessages,
+            @Param("tokens") long tokens,
+            @Param("latencySum") long latencySum,
+            @Param("latencyCount") long latencyCount,
+            @Param("latencyMin") long latencyMin,
+            @Param("latencyMax") long latencyMax,
+            @Param("updatedAt") Instant updatedAt
+    );
+
+    @Modifying
+    @Query("UPDATE ConversationStats s SET s.totalTokens = s.totalTokens + :tokens, s.updatedAt = :updatedAt " +
+            "WHERE s.conversationId = :conversationId")
+    int addTokens(
+            @Param("conversationId") String conversationId,
+            @Param("tokens") long tokens,
+            @Param("updatedAt") Instant updatedAt
+    );
+
+    @Modifying
+    @Query("DELETE FROM ConversationStats s WHERE s.conversationId = :conversationId")
+    int deleteByConversationId(@Param("conversationId") String conversationId);
+}
@@ -1,43 +1,131 @@
 package semsem.chatbot.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import semsem.chatbot.model.dto.projection.MessageAggregateView;
+import semsem.chatbot.model.dto.projection.MessageSearchHit;
+import semsem.chatbot.model.dto.projection.MessageView;
 import semsem.chatbot.model.entity.Message;
 import semsem.chatbot.model.enums.MessageRole;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
-    Optional<Message> findByMessageId(String messageId);
+    /**
+     * List reads select {@link MessageView} rows instead of entities: no managed instances, no snapshots,
+     * nothing for the flush to dirty-check. Writes still load the entity by id/messageId.
+     */
+    String VIEW_SELECT = "SELECT new semsem.chatbot.model.dto.projection.MessageView(" +
+            "m.id, m.messageId, m.conversation.conversationId, m.role, m.content, m.providerLlm, m.modelUsed, " +
+            "m.promptTokens, m.completionTokens, m.totalTokens, m.latencyMs, m.parentMessageId, m.metadata, " +
+            "m.createdAt, m.processedAt) FROM Message m ";
+
+    /**
+     * For reads that skip the conversation lookup: a soft-deleted conversation's messages must vanish at once,
+     * not when the purge job gets to them.
+     */
+    String LIVE_CONVERSATION = "AND m.conversation.status <> semsem.chatbot.model.enums.ConversationStatus.DELETED ";
+
+    /**
+     * For conversation-scoped reads that skip the status lookup: a compacted conversation reads as empty, so only
+     * an empty result sends the caller to the archive. The subquery is uncorrelated and runs once per statement.
+     */
+    String NOT_COMPACTED = "AND NOT EXISTS (SELECT 1 FROM ConversationArchive a WHERE a.conversationId = :conversationId) ";
+
+    String NOT_COMPACTED_SQL = "AND NOT EXISTS (SELECT 1 FROM conversation_archives a WHERE a.conversation_id = :conversationId) ";
+
+    @Query("SELECT m FROM Message m WHERE m.messageId = :messageId " + LIVE_CONVERSATION)
+    Optional<Message> findByMessageId(@Param("messageId") String messageId);
 
     boolean existsByMessageId(String messageId);
 
-    @Query("SELECT m FROM Message m WHERE m.conversation.conversationId = :conversationId ORDER BY m.createdAt ASC")
-    List<Message> findByConversationId(@Param("conversationId") String conversationId);
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId ORDER BY m.createdAt ASC")
+    List<MessageView> findByConversationId(@Param("conversationId") String conversationId);
+
+    /**
+     * Forward-only cursor over a conversation for streaming exports. Must be consumed inside a
+     * transaction (PostgreSQL only honours the fetch size with autocommit off) and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId ORDER BY m.createdAt ASC, m.id ASC")
+    Stream<MessageView> streamByConversationId(@Param("conversationId") String conversationId);
+
+    @Query(value = VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId ORDER BY m.createdAt ASC",
+            countQuery = "SELECT COUNT(m) FROM Message m WHERE m.conversation.conversationId = :conversationId")
+    Page<MessageView> findByConversationIdPaged(@Param("conversationId") String conversationId, Pageable pageable);
+
+    // Keyset pages: the redundant createdAt >= / <= bound lets the (conversation_id, created_at) index seek directly.
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId " +
+            LIVE_CONVERSATION + NOT_COMPACTED + "ORDER BY m.createdAt ASC, m.id ASC")
+    List<MessageView> findFirstPage(@Param("conversationId") String conversationId, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId " +
+            LIVE_CONVERSATION + NOT_COMPACTED + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageView> findLastPage(@Param("conversationId") String conversationId, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId " +
+            "AND m.createdAt >= :createdAt AND (m.createdAt > :createdAt OR m.id > :id) " +
+            LIVE_CONVERSATION + NOT_COMPACTED + "ORDER BY m.createdAt ASC, m.id ASC")
+    List<MessageView> findPageAfter(
+            @Param("conversationId") String conversationId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
 
-    @Query("SELECT m FROM Message m WHERE m.conversation.conversationId = :conversationId ORDER BY m.createdAt ASC")
-    Page<Message> findByConversationIdPaged(@Param("conversationId") String conversationId, Pageable pageable);
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId " +
+            "AND m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR m.id < :id) " +
+            LIVE_CONVERSATION + NOT_COMPACTED + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageView> findPageBefore(
+            @Param("conversationId") String conversationId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
 
-    @Query("SELECT m FROM Message m WHERE m.conversation.conversationId = :conversationId AND m.role = :role ORDER BY m.createdAt ASC")
-    List<Message> findByConversationIdAndRole(
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId AND m.role = :role ORDER BY m.createdAt ASC")
+    List<MessageView> findByConversationIdAndRole(
             @Param("conversationId") String conversationId,
             @Param("role") MessageRole role
     );
 
-    @Query("SELECT m FROM Message m WHERE m.conversation.conversationId = :conversationId ORDER BY m.createdAt DESC")
-    List<Message> findRecentMessages(@Param("conversationId") String conversationId, Pageable pageable);
+    /*
+     * The messages table may be range-partitioned by created_at (see db/chat/messages_partitioning_postgresql.sql).
+     * Queries below take a lower createdAt bound so PostgreSQL only visits partitions at or after it.
+     */
 
-    @Query("SELECT m FROM Message m WHERE m.conversation.conversationId = :conversationId ORDER BY m.createdAt DESC LIMIT 1")
-    Optional<Message> findLastMessageByConversationId(@Param("conversationId") String conversationId);
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId " +
+            "AND m.createdAt >= :from " + NOT_COMPACTED + "ORDER BY m.createdAt DESC")
+    List<MessageView> findRecentMessages(
+            @Param("conversationId") String conversationId,
+            @Param("from") Instant from,
+            Pageable pageable
+    );
+
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId " +
+            "AND m.createdAt >= :from ORDER BY m.createdAt DESC LIMIT 1")
+    Optional<MessageView> findLastMessageByConversationId(
+            @Param("conversationId") String conversationId,
+            @Param("from") Instant from
+    );
 
     @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.conversationId = :conversationId")
     long countByConversationId(@Param("conversationId") String conversationId);
@@ -54,22 +142,179 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT AVG(m.latencyMs) FROM Message m WHERE m.conversation.conversationId = :conversationId AND m.role = 'ASSISTANT'")
     Double avgLatencyByConversationId(@Param("conversationId") String conversationId);
 
+    /**
+     * Recomputes the {@code conversation_stats} counters from scratch; only used for backfill and reconciliation.
+     */
+    @Query("SELECT new semsem.chatbot.model.dto.projection.MessageAggregateView(" +
+            "m.conversation.conversationId, COUNT(m), " +
+            "SUM(CASE WHEN m.role = semsem.chatbot.model.enums.MessageRole.USER THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN m.role = semsem.chatbot.model.enums.MessageRole.ASSISTANT THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN m.role = semsem.chatbot.model.enums.MessageRole.SYSTEM THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN m.role = semsem.chatbot.model.enums.MessageRole.TOOL THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN m.role = semsem.chatbot.model.enums.MessageRole.FUNCTION THEN 1 ELSE 0 END), " +
+            "SUM(COALESCE(m.totalTokens, 0)), " +
+            "SUM(CASE WHEN m.role = semsem.chatbot.model.enums.MessageRole.ASSISTANT AND m.latencyMs IS NOT NULL " +
+            "THEN m.latencyMs ELSE 0 END), " +
+            "SUM(CASE WHEN m.role = semsem.chatbot.model.enums.MessageRole.ASSISTANT AND m.latencyMs IS NOT NULL " +
+            "THEN 1 ELSE 0 END), " +
+            "MIN(CASE WHEN m.role = semsem.chatbot.model.enums.MessageRole.ASSISTANT THEN m.latencyMs END), " +
+            "MAX(CASE WHEN m.role = semsem.chatbot.model.enums.MessageRole.ASSISTANT THEN m.latencyMs END)) " +
+            "FROM Message m WHERE m.conversation.conversationId IN :conversationIds " +
+            "GROUP BY m.conversation.conversationId")
+    List<MessageAggregateView> aggregateByConversationIds(@Param("conversationIds") Collection<String> conversationIds);
+
+    /**
+     * Ranked full-text search over all of a user's conversations (or one, when {@code conversationId} is
+     * non-empty), served by the GIN index on the generated {@code content_tsv} column. Keyset-paginated on
+     * (rank DESC, id DESC); ts_headline only runs for the rows of the returned page. PostgreSQL only.
+     */
+    @Query(value = "WITH q AS (SELECT websearch_to_tsquery('english', :query) AS tsq) " +
+            "SELECT h.id AS id, h.rank AS rank, " +
+            "ts_headline('english', h.content, q.tsq, " +
+            "'StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=10, MaxFragments=2') AS snippet " +
+            "FROM (SELECT m.id, m.content, ts_rank_cd(m.content_tsv, q.tsq) AS rank " +
+            "      FROM messages m " +
+            "      JOIN conversations c ON c.conversation_id = m.conversation_id " +
+            "      CROSS JOIN q " +
+            "      WHERE c.user_id = :userId AND c.status <> 'DELETED' AND m.content_tsv @@ q.tsq " +
+            "        AND (:conversationId = '' OR m.conversation_id = :conversationId) " +
+            "        AND (ts_rank_cd(m.content_tsv, q.tsq) < :afterRank " +
+            "             OR (ts_rank_cd(m.content_tsv, q.tsq) = :afterRank AND m.id < :afterId)) " +
+            "      ORDER BY rank DESC, m.id DESC " +
+            "      LIMIT :limit) h " +
+            "CROSS JOIN q " +
+            "ORDER BY h.rank DESC, h.id DESC",
+            nativeQuery = true)
+    List<MessageSearchHit> searchFullText(
+            @Param("userId") Long userId,
+            @Param("query") String query,
+            @Param("conversationId") String conversationId,
+            @Param("afterRank") float afterRank,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit
+    );
+
+    @NativeQuery(value = "SELECT m.* FROM messages m " +
+            "WHERE m.conversation_id = :conversationId " +
+            "AND m.content_tsv @@ websearch_to_tsquery('english', :query) " +
+            "ORDER BY ts_rank_cd(m.content_tsv, websearch_to_tsquery('english', :query)) DESC, m.id DESC",
+            sqlResultSetMapping = Message.VIEW_MAPPING)
+    List<MessageView> searchFullTextInConversation(
+            @Param("query") String query,
+            @Param("conversationId") String conversationId
+    );
+
+    /**
+     * Messages of one conversation whose metadata contains the {@code filter} document (jsonb {@code @>}),
+     * served by the jsonb_path_ops GIN index idx_messages_metadata; an empty {@code role} matches every role.
+     * PostgreSQL only.
+     */
+    @NativeQuery(value = "SELECT m.* FROM messages m " +
+            "WHERE m.conversation_id = :conversationId AND m.created_at >= :from " +
+            "AND m.metadata @> CAST(:filter AS jsonb) " +
+            "AND (:role = '' OR m.role = :role) " +
+            "ORDER BY m.created_at ASC, m.id ASC LIMIT :limit",
+            sqlResultSetMapping = Message.VIEW_MAPPING)
+    List<MessageView> findByMetadataContaining(
+            @Param("conversationId") String conversationId,
+            @Param("filter") String filter,
+            @Param("role") String role,
+            @Param("from") Instant from,
+            @Param("limit") int limit
+    );
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.conversation WHERE m.id IN :ids")
+    List<Message> findAllWithConversationByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT m FROM Message m WHERE m.content LIKE %:keyword% AND m.conversation.conversationId = :conversationId")
     List<Message> searchByContentInConversation(
             @Param("keyword") String keyword,
             @Param("conversationId") String conversationId
     );
 
-    @Query("SELECT m FROM Message m WHERE m.conversation.conversationId = :conversationId AND m.createdAt > :since ORDER BY m.createdAt ASC")
-    List<Message> findMessagesSince(
+    @Query(VIEW_SELECT + "WHERE m.conversation.conversationId = :conversationId AND m.createdAt > :since " +
+            NOT_COMPACTED + "ORDER BY m.createdAt ASC")
+    List<MessageView> findMessagesSince(
             @Param("conversationId") String conversationId,
             @Param("since") Instant since
     );
 
     @Modifying
-    @Query("DELETE FROM Message m WHERE m.conversation.conversationId = :conversationId")
-    int deleteByConversationId(@Param("conversationId") String conversationId);
+    @Query("DELETE FROM Message m WHERE m.conversation.conversationId = :conversationId AND m.createdAt >= :from")
+    int deleteByConversationId(@Param("conversationId") String conversationId, @Param("from") Instant from);
+
+    /**
+     * Next purge batch: ids of up to {@code limit} messages of the conversation, oldest first.
+     */
+    @Query("SELECT m.id FROM Message m WHERE m.conversation.conversationId = :conversationId AND m.createdAt >= :from " +
+            "ORDER BY m.createdAt ASC, m.id ASC")
+    List<Long> findIdsByConversationId(
+            @Param("conversationId") String conversationId,
+            @Param("from") Instant from,
+            Pageable limit
+    );
+
+    @Modifying
+    @Query("UPDATE Message m SET m.parentMessageId = :parentMessageId WHERE m.id = :id")
+    int updateParentMessageId(@Param("id") Long id, @Param("parentMessageId") Long parentMessageId);
+
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.conversation.conversationId = :conversationId AND m.createdAt >= :from " +
+            "AND m.id IN :ids")
+    int deleteByConversationIdAndIdIn(
+            @Param("conversationId") String conversationId,
+            @Param("ids") Collection<Long> ids,
+            @Param("from") Instant from
+    );
+
+    @Query(VIEW_SELECT + "WHERE m.parentMessageId = :parentMessageId " + LIVE_CONVERSATION + "ORDER BY m.createdAt ASC")
+    List<MessageView> findByParentMessageId(@Param("parentMessageId") Long parentMessageId);
 
-    @Query("SELECT m FROM Message m WHERE m.parentMessageId = :parentMessageId ORDER BY m.createdAt ASC")
-    List<Message> findByParentMessageId(@Param("parentMessageId") Long parentMessageId);
+    /**
+     * Whole subtree under a message, depth-first with parents before children and siblings by id,
+     * in one recursive query walking idx_messages_parent. Returns nothing if the message is not in the conversation.
+     * The CTE carries created_at so the final join hits one partition per row instead of probing all of them.
+     */
+    @NativeQuery(value = "WITH RECURSIVE thread (id, created_at, depth, path) AS ( " +
+            "  SELECT m.id, m.created_at, 0, CAST(LPAD(CAST(m.id AS VARCHAR), 19, '0') AS VARCHAR(4000)) " +
+            "  FROM messages m " +
+            "  WHERE m.message_id = :messageId AND m.conversation_id = :conversationId AND m.created_at >= :from " +
+            "  " + NOT_COMPACTED_SQL +
+            "  UNION ALL " +
+            "  SELECT c.id, c.created_at, t.depth + 1, CAST(t.path || '/' || LPAD(CAST(c.id AS VARCHAR), 19, '0') AS VARCHAR(4000)) " +
+            "  FROM messages c JOIN thread t ON c.parent_message_id = t.id " +
+            "  WHERE t.depth < :maxDepth AND c.conversation_id = :conversationId AND c.created_at >= :from " +
+            ") " +
+            "SELECT m.* FROM messages m JOIN thread t ON t.id = m.id AND t.created_at = m.created_at " +
+            "WHERE m.conversation_id = :conversationId AND m.created_at >= :from ORDER BY t.path",
+            sqlResultSetMapping = Message.VIEW_MAPPING)
+    List<MessageView> findSubtree(
+            @Param("conversationId") String conversationId,
+            @Param("messageId") String messageId,
+            @Param("maxDepth") int maxDepth,
+            @Param("from") Instant from
+    );
+
+    /**
+     * Path from a message up to its root (at most {@code maxDepth} hops), returned root first.
+     */
+    @NativeQuery(value = "WITH RECURSIVE ancestors (id, created_at, parent_id, depth) AS ( " +
+            "  SELECT m.id, m.created_at, m.parent_message_id, 0 " +
+            "  FROM messages m " +
+            "  WHERE m.message_id = :messageId AND m.conversation_id = :conversationId AND m.created_at >= :from " +
+            "  " + NOT_COMPACTED_SQL +
+            "  UNION ALL " +
+            "  SELECT p.id, p.created_at, p.parent_message_id, a.depth + 1 " +
+            "  FROM messages p JOIN ancestors a ON p.id = a.parent_id " +
+            "  WHERE a.depth < :maxDepth AND p.conversation_id = :conversationId AND p.created_at >= :from " +
+            ") " +
+            "SELECT m.* FROM messages m JOIN ancestors a ON a.id = m.id AND a.created_at = m.created_at " +
+            "WHERE m.conversation_id = :conversationId AND m.created_at >= :from ORDER BY a.depth DESC",
+            sqlResultSetMapping = Message.VIEW_MAPPING)
+    List<MessageView> findAncestors(
+            @Param("conversationId") String conversationId,
+            @Param("messageId") String messageId,
+            @Param("maxDepth") int maxDepth,
+            @Param("from") Instant from
+    );
 }
@@ -1,9 +1,14 @@
 package semsem.chatbot.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import semsem.chatbot.model.dto.projection.UserAccountView;
 import semsem.chatbot.model.entity.AppUser;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,21 @@ public interface UserRepository extends JpaRepository<AppUser, Long> {
     Optional<AppUser> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT new semsem.chatbot.model.dto.projection.UserAccountView(" +
+            "u.email, u.enabled, u.accountNonExpired, u.accountNonLocked, u.credentialsNonExpired) " +
+            "FROM AppUser u WHERE u.email = :email")
+    Optional<UserAccountView> findAccountByEmail(@Param("email") String email);
+
+    @Query("SELECT u.userId FROM AppUser u WHERE u.email = :email")
+    Optional<Long> findUserIdByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("UPDATE AppUser u SET u.lastLoginAt = :loginAt " +
+            "WHERE u.userId = :userId AND (u.lastLoginAt IS NULL OR u.lastLoginAt < :loginAt)")
+    int updateLastLoginAt(@Param("userId") Long userId, @Param("loginAt") Instant loginAt);
+
+    @Modifying
+    @Query("UPDATE AppUser u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
 }
@@ -0,0 +1,73 @@
+package semsem.chatbot.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded map whose entries expire at a deadline on the given clock. When full, expired entries are swept
+ * first and, if that frees nothing, an arbitrary entry is dropped; callers only use it to skip repeat work, so
+ * losing an entry is harmless. A max size of 0 disables it.
+ */
+final class ExpiringCache<K, V> {
+
+    private final int maxSize;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    ExpiringCache(int maxSize, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /** The live value, or null if absent or expired (an expired entry is removed). */
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (expired(entry, clock.getAsLong())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    void put(K key, V value, long expiresAt) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            long now = clock.getAsLong();
+            entries.values().removeIf(cached -> expired(cached, now));
+
+            Iterator<K> keys = entries.keySet().iterator();
+            while (entries.size() >= maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    long now() {
+        return clock.getAsLong();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Difference rather than comparison, so System.nanoTime() deadlines survive overflow
+    private static boolean expired(Entry<?> entry, long now) {
+        return now - entry.expiresAt() >= 0;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
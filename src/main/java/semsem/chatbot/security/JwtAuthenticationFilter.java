@@ -1,33 +1,62 @@
 package semsem.chatbot.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import semsem.chatbot.config.metrics.LatencyHistogram;
+import semsem.chatbot.config.metrics.MetricsRegistry;
+import semsem.chatbot.model.dto.projection.UserAccountView;
 
 import java.io.IOException;
+import java.util.List;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ROLES_CLAIM = "roles";
+
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final UserAccountCache userAccountCache;
+    private final PrincipalMode principalMode;
+    private final LatencyHistogram anonymousTimer;
+    private final LatencyHistogram authenticatedTimer;
+    private final LatencyHistogram rejectedTimer;
 
-    private static final String AUTHORIZATION_HEADER = "Authorization";
-    private static final String BEARER_PREFIX = "Bearer ";
+    public JwtAuthenticationFilter(
+            JwtTokenProvider jwtTokenProvider,
+            UserDetailsService userDetailsService,
+            UserAccountCache userAccountCache,
+            @Value("${jwt.principal.mode:CLAIMS}") PrincipalMode principalMode,
+            MetricsRegistry metricsRegistry
+    ) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.userAccountCache = userAccountCache;
+        this.principalMode = principalMode;
+        this.anonymousTimer = timer(metricsRegistry, "anonymous");
+        this.authenticatedTimer = timer(metricsRegistry, "authenticated");
+        this.rejectedTimer = timer(metricsRegistry, "rejected");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -35,30 +64,73 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
+        long start = System.nanoTime();
+        LatencyHistogram outcome = anonymousTimer;
         try {
             String jwt = extractJwtFromRequest(request);
+            if (StringUtils.hasText(jwt)) {
+                outcome = rejectedTimer;
+            }
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // One verification per request: parseClaims both validates and yields the subject
+            Claims claims = StringUtils.hasText(jwt) ? jwtTokenProvider.parseClaims(jwt).orElse(null) : null;
+            if (claims != null) {
+                UserDetails userDetails = principalMode == PrincipalMode.CLAIMS
+                        ? principalFromClaims(claims)
+                        : userDetailsService.loadUserByUsername(claims.getSubject());
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities()
+                            );
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    outcome = authenticatedTimer;
+                }
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context: {}", ex.getMessage());
         }
+        outcome.record(System.nanoTime() - start);
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the principal from the verified token: roles come from the {@code roles} claim (so a role change
+     * takes effect with the next token), account flags from the TTL-bounded account cache.
+     *
+     * @return null if the user no longer exists or the account is disabled, locked or expired
+     */
+    private UserDetails principalFromClaims(Claims claims) {
+        String email = claims.getSubject();
+        UserAccountView account = userAccountCache.get(email).orElse(null);
+        if (account == null || !account.isUsable()) {
+            log.debug("Rejecting token for unknown or unusable account {}", email);
+            return null;
+        }
+
+        String roles = claims.get(ROLES_CLAIM, String.class);
+        List<GrantedAuthority> authorities = StringUtils.hasText(roles)
+                ? AuthorityUtils.commaSeparatedStringToAuthorityList(roles)
+                : List.of();
+
+        return User.withUsername(email)
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
+
+    private static LatencyHistogram timer(MetricsRegistry metricsRegistry, String outcome) {
+        return metricsRegistry.histogram("chat_jwt_filter_seconds",
+                "Token verification and principal loading time, excluding the rest of the chain",
+                "outcome", outcome);
+    }
+
     private String extractJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
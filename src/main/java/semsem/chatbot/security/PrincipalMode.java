@@ -0,0 +1,8 @@
+package semsem.chatbot.security;
+
+public enum PrincipalMode {
+    /** Principal built from verified token claims; account flags come from {@link UserAccountCache}. */
+    CLAIMS,
+    /** Principal loaded through {@code UserDetailsService} on every request. */
+    DATABASE
+}
@@ -0,0 +1,61 @@
+package semsem.chatbot.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import semsem.chatbot.model.dto.projection.UserAccountView;
+import semsem.chatbot.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * TTL-bounded cache of account flags (enabled, locked, expired) by email, so claims-based authentication
+ * needs no database call for a recently seen user. Local changes evict the entry after commit via
+ * {@link UserAccountChangedEvent}; changes made on another instance are picked up within the TTL.
+ * Unknown emails are cached as well, so a token for a deleted user cannot force a query per request.
+ */
+@Slf4j
+@Component
+public class UserAccountCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final ExpiringCache<String, Optional<UserAccountView>> entries;
+
+    public UserAccountCache(
+            UserRepository userRepository,
+            @Value("${jwt.principal.account-cache-ttl:PT1M}") Duration ttl,
+            @Value("${jwt.principal.account-cache-size:10000}") int maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new ExpiringCache<>(ttlNanos > 0 ? maxSize : 0, System::nanoTime);
+    }
+
+    public Optional<UserAccountView> get(String email) {
+        Optional<UserAccountView> account = entries.get(email);
+        if (account == null) {
+            long loadedAt = entries.now();
+            account = userRepository.findAccountByEmail(email);
+            entries.put(email, account, loadedAt + ttlNanos);
+        }
+        return account;
+    }
+
+    public void invalidate(String email) {
+        entries.invalidate(email);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountChanged(UserAccountChangedEvent event) {
+        invalidate(event.email());
+        log.debug("Evicted cached account state for {}", event.email());
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
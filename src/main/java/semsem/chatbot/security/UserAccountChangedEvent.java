@@ -0,0 +1,7 @@
+package semsem.chatbot.security;
+
+/**
+ * Published whenever a user's account row changes, so cached account state is dropped after commit.
+ */
+public record UserAccountChangedEvent(String email) {
+}
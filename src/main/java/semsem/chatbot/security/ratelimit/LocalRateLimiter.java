@@ -0,0 +1,78 @@
+package semsem.chatbot.security.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process token buckets in GCRA form: each bucket is a single {@link AtomicLong} holding the theoretical
+ * arrival time of the next request, advanced with CAS, so there are no locks and one long per caller and rule.
+ * A bucket whose arrival time has passed is full and equivalent to no bucket at all, which is what makes
+ * eviction safe once {@code maxBuckets} is reached.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+
+    public LocalRateLimiter(int maxBuckets) {
+        this(maxBuckets, System::nanoTime);
+    }
+
+    LocalRateLimiter(int maxBuckets, LongSupplier nanoClock) {
+        this.maxBuckets = maxBuckets;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitProperties.Rule rule) {
+        long now = nanoClock.getAsLong();
+        long interval = Math.max(rule.getRefillPeriod().toNanos() / rule.getCapacity(), 1);
+        long tolerance = interval * rule.getCapacity();
+
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + interval;
+            long backlog = next - now;
+            if (backlog > tolerance) {
+                return new RateLimitDecision(false, rule.getCapacity(), 0, backlog - tolerance);
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return new RateLimitDecision(true, rule.getCapacity(), (int) ((tolerance - backlog) / interval), 0);
+            }
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Drops full buckets; if callers are so many that every bucket is in use, trims to 90% arbitrarily.
+     * A dropped bucket starts over full, so eviction can only make the limiter more lenient.
+     */
+    private synchronized void evict(long now) {
+        if (buckets.size() < maxBuckets) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+
+        int target = maxBuckets - maxBuckets / 10;
+        Iterator<String> keys = buckets.keySet().iterator();
+        while (buckets.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package semsem.chatbot.security.ratelimit;
+
+/**
+ * Outcome of charging one token. {@code retryAfterNanos} is zero when allowed.
+ */
+public record RateLimitDecision(boolean allowed, int limit, int remaining, long retryAfterNanos) {
+}
@@ -0,0 +1,148 @@
+package semsem.chatbot.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import semsem.chatbot.model.dto.response.MyApiResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Admission control in the security filter chain, after JWT authentication so buckets are keyed by user
+ * (anonymous callers by client address). Rejections get 429 with {@code Retry-After}; every response that
+ * went through a rule carries {@code X-RateLimit-Limit}/{@code X-RateLimit-Remaining} for the tightest one.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<CompiledRule> rules;
+
+    public RateLimitFilter(
+            RateLimiter rateLimiter,
+            RateLimitMetrics metrics,
+            ObjectMapper objectMapper,
+            RateLimitProperties properties
+    ) {
+        this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+        this.rules = properties.getRules().stream()
+                .map(CompiledRule::of)
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (!enabled || rules.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        String caller = null;
+        RateLimitDecision tightest = null;
+
+        for (CompiledRule rule : rules) {
+            if (!rule.matches(request.getMethod(), path)) {
+                continue;
+            }
+            if (caller == null) {
+                caller = callerKey(request);
+            }
+
+            RateLimitDecision decision = rateLimiter.tryAcquire(rule.name() + '|' + caller, rule.rule());
+            metrics.record(rule.name(), decision.allowed());
+            if (!decision.allowed()) {
+                reject(response, rule.name(), decision);
+                return;
+            }
+            if (tightest == null || decision.remaining() < tightest.remaining()) {
+                tightest = decision;
+            }
+        }
+
+        if (tightest != null) {
+            response.setHeader(LIMIT_HEADER, String.valueOf(tightest.limit()));
+            response.setHeader(REMAINING_HEADER, String.valueOf(tightest.remaining()));
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, String rule, RateLimitDecision decision) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999L));
+        log.debug("Rate limit {} exceeded; retry after {}s", rule, retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        MyApiResponse<Void> apiResponse = MyApiResponse.error(
+                "Too many requests",
+                "RATE_LIMITED",
+                "Rate limit '" + rule + "' exceeded; retry after " + retryAfterSeconds + " seconds"
+        );
+        objectMapper.writeValue(response.getOutputStream(), apiResponse);
+    }
+
+    private static String callerKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record CompiledRule(String name, RateLimitProperties.Rule rule, PathPattern pattern, Set<String> methods) {
+
+        static CompiledRule of(RateLimitProperties.Rule rule) {
+            if (rule.getCapacity() < 1 || rule.getRefillPeriod().isZero() || rule.getRefillPeriod().isNegative()) {
+                throw new IllegalStateException("Rate limit rule '" + rule.getName()
+                        + "' needs a positive capacity and refill-period");
+            }
+            Set<String> methods = rule.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            return new CompiledRule(rule.getName(), rule, PathPatternParser.defaultInstance.parse(rule.getPattern()), methods);
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package semsem.chatbot.security.ratelimit;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Allowed/rejected request counts per rule since startup.
+ */
+@Component
+public class RateLimitMetrics {
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public void record(String rule, boolean allowed) {
+        Counters ruleCounters = counters.computeIfAbsent(rule, r -> new Counters());
+        (allowed ? ruleCounters.allowed : ruleCounters.rejected).increment();
+    }
+
+    public Map<String, Map<String, Long>> snapshot() {
+        Map<String, Map<String, Long>> snapshot = new TreeMap<>();
+        counters.forEach((rule, ruleCounters) -> snapshot.put(rule, Map.of(
+                "allowed", ruleCounters.allowed.sum(),
+                "rejected", ruleCounters.rejected.sum())));
+        return snapshot;
+    }
+
+    private static final class Counters {
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+    }
+}
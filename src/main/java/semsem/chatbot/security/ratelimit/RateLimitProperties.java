@@ -0,0 +1,52 @@
+package semsem.chatbot.security.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admission control settings ({@code chat.rate-limit.*}). Every rule whose pattern and method match a request
+ * charges one token from that caller's bucket for the rule; the request is rejected if any bucket is empty.
+ */
+@Data
+@ConfigurationProperties(prefix = "chat.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on live buckets held in memory; full (idle) buckets are dropped first when it is reached.
+     */
+    private int maxBuckets = 100_000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        private String name;
+
+        /**
+         * Spring path pattern, e.g. {@code /api/v1/auth/**}.
+         */
+        private String pattern;
+
+        /**
+         * HTTP methods the rule applies to; empty means all.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * Burst size: requests a caller with a full bucket may send at once.
+         */
+        private int capacity;
+
+        /**
+         * Time to refill an empty bucket; the sustained rate is capacity / refill-period.
+         */
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
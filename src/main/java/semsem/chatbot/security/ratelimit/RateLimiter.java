@@ -0,0 +1,10 @@
+package semsem.chatbot.security.ratelimit;
+
+/**
+ * Token-bucket backend. The default is in-process ({@link LocalRateLimiter}); a shared backend can replace it
+ * by declaring its own {@code RateLimiter} bean.
+ */
+public interface RateLimiter {
+
+    RateLimitDecision tryAcquire(String key, RateLimitProperties.Rule rule);
+}
@@ -1,7 +1,9 @@
 package semsem.chatbot.service.auth;
 
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -18,6 +20,7 @@ import semsem.chatbot.model.entity.AppUser;
 import semsem.chatbot.model.enums.UserRole;
 import semsem.chatbot.repository.UserRepository;
 import semsem.chatbot.security.JwtTokenProvider;
+import semsem.chatbot.security.UserAccountChangedEvent;
 
 import java.time.Instant;
 import java.util.Set;
@@ -31,6 +34,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LastLoginRecorder lastLoginRecorder;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -53,6 +58,8 @@ public class AuthService {
                 .build();
 
         AppUser savedUser = userRepository.save(user);
+        // Drops a cached "unknown user" entry left by requests that arrived before registration
+        eventPublisher.publishEvent(new UserAccountChangedEvent(savedUser.getEmail()));
         log.info("User registered successfully: {}", savedUser.getEmail());
 
         return generateAuthResponse(savedUser);
@@ -67,8 +74,8 @@ public class AuthService {
         );
 
         AppUser user = (AppUser) authentication.getPrincipal();
-        user.setLastLoginAt(Instant.now());
-        userRepository.save(user);
+        lastLoginRecorder.record(user.getUserId(), Instant.now());
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getEmail()));
 
         log.info("User logged in: {}", user.getEmail());
         return generateAuthResponse(user);
@@ -77,11 +84,9 @@ public class AuthService {
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         String refreshToken = request.getRefreshToken();
 
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            throw new UnauthorizedException("Invalid or expired refresh token");
-        }
-
-        String email = jwtTokenProvider.getUsernameFromToken(refreshToken);
+        String email = jwtTokenProvider.parseClaims(refreshToken)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
         AppUser user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UnauthorizedException("User not found"));
 
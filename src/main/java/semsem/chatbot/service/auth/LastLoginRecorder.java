@@ -0,0 +1,86 @@
+package semsem.chatbot.service.auth;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import semsem.chatbot.repository.UserRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind for {@code users.last_login_at}. Logins only record the timestamp in memory; repeated
+ * logins by the same user coalesce to the latest one, and the scheduled flush writes each user once
+ * in a single transaction. A crash loses at most one flush interval of timestamps.
+ */
+@Slf4j
+@Service
+public class LastLoginRecorder {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Instant> pending = new ConcurrentHashMap<>();
+
+    public LastLoginRecorder(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(Long userId, Instant loginAt) {
+        pending.merge(userId, loginAt, LastLoginRecorder::latest);
+    }
+
+    public int pendingUsers() {
+        return pending.size();
+    }
+
+    /**
+     * Drains the coalesced timestamps into the database. Failed writes are re-queued; the update never
+     * moves a user's last login backwards, so a late retry is harmless.
+     */
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<Long, Instant>> drained = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            Instant loginAt = pending.remove(userId);
+            if (loginAt != null) {
+                drained.add(Map.entry(userId, loginAt));
+            }
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> drained.forEach(entry ->
+                    userRepository.updateLastLoginAt(entry.getKey(), entry.getValue())));
+        } catch (RuntimeException ex) {
+            log.warn("Last-login flush failed for {} users, re-queueing: {}", drained.size(), ex.getMessage());
+            drained.forEach(entry -> record(entry.getKey(), entry.getValue()));
+            return 0;
+        }
+
+        log.debug("Flushed last-login timestamps for {} users", drained.size());
+        return drained.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,48 @@
+package semsem.chatbot.service.chat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import semsem.chatbot.model.dto.projection.MessageView;
+import semsem.chatbot.model.enums.MessageRole;
+
+import java.time.Instant;
+
+/**
+ * One line of a conversation archive. Keeps the surrogate ids so parent links can be remapped on restore.
+ */
+record ArchivedMessage(
+        Long id,
+        String messageId,
+        MessageRole role,
+        String content,
+        String providerLlm,
+        String modelUsed,
+        Integer promptTokens,
+        Integer completionTokens,
+        Integer totalTokens,
+        Long latencyMs,
+        Long parentMessageId,
+        JsonNode metadata,
+        Instant createdAt,
+        Instant processedAt
+) {
+
+    ArchivedMessage {
+        // Jackson reads a JSON null into a JsonNode property as NullNode; keep SQL NULL semantics
+        if (metadata != null && metadata.isNull()) {
+            metadata = null;
+        }
+    }
+
+    static ArchivedMessage of(MessageView view) {
+        return new ArchivedMessage(view.getId(), view.getMessageId(), view.getRole(), view.getContent(),
+                view.getProviderLlm(), view.getModelUsed(), view.getPromptTokens(), view.getCompletionTokens(),
+                view.getTotalTokens(), view.getLatencyMs(), view.getParentMessageId(), view.getMetadata(),
+                view.getCreatedAt(), view.getProcessedAt());
+    }
+
+    MessageView toView(String conversationId) {
+        return new MessageView(id, messageId, conversationId, role, content, providerLlm, modelUsed,
+                promptTokens, completionTokens, totalTokens, latencyMs, parentMessageId, metadata,
+                createdAt, processedAt);
+    }
+}
@@ -0,0 +1,196 @@
+package semsem.chatbot.service.chat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import semsem.chatbot.model.dto.projection.MessageView;
+import semsem.chatbot.model.enums.MessageRole;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory counterparts of the {@link semsem.chatbot.repository.MessageRepository} reads, used for compacted
+ * conversations whose messages only exist in {@link ConversationArchiveService#findMessages merged} form.
+ * Every method takes that merged list in chronological order and returns rows in the same order (and with the
+ * same limits) as the query it stands in for.
+ */
+final class ArchivedMessageQueries {
+
+    private ArchivedMessageQueries() {
+    }
+
+    static Page<MessageView> page(List<MessageView> messages, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), messages.size());
+        int to = Math.min(from + pageable.getPageSize(), messages.size());
+        return new PageImpl<>(messages.subList(from, to), pageable, messages.size());
+    }
+
+    /** Oldest first, strictly after (createdAt, id); a null createdAt starts at the oldest message. */
+    static List<MessageView> after(List<MessageView> messages, Instant createdAt, Long id, int limit) {
+        List<MessageView> page = new ArrayList<>(Math.min(limit, messages.size()));
+        for (MessageView message : messages) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (createdAt == null || compare(message, createdAt, id) > 0) {
+                page.add(message);
+            }
+        }
+        return page;
+    }
+
+    /** Newest first, strictly before (createdAt, id); a null createdAt starts at the newest message. */
+    static List<MessageView> before(List<MessageView> messages, Instant createdAt, Long id, int limit) {
+        List<MessageView> page = new ArrayList<>(Math.min(limit, messages.size()));
+        for (int i = messages.size() - 1; i >= 0 && page.size() < limit; i--) {
+            MessageView message = messages.get(i);
+            if (createdAt == null || compare(message, createdAt, id) < 0) {
+                page.add(message);
+            }
+        }
+        return page;
+    }
+
+    static List<MessageView> since(List<MessageView> messages, Instant since) {
+        return messages.stream()
+                .filter(message -> message.getCreatedAt().isAfter(since))
+                .toList();
+    }
+
+    static List<MessageView> withRole(List<MessageView> messages, MessageRole role) {
+        return messages.stream()
+                .filter(message -> message.getRole() == role)
+                .toList();
+    }
+
+    /**
+     * Plain stand-in for the tsvector match: every whitespace-separated term of {@code query} must occur in the
+     * content, ignoring case. Results keep chronological order since there is no rank to sort by.
+     */
+    static List<MessageView> matching(List<MessageView> messages, String query) {
+        String[] terms = query.toLowerCase(Locale.ROOT).trim().split("\\s+");
+        return messages.stream()
+                .filter(message -> {
+                    String content = message.getContent() != null ? message.getContent().toLowerCase(Locale.ROOT) : "";
+                    for (String term : terms) {
+                        if (!content.contains(term)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .toList();
+    }
+
+    /** jsonb {@code @>} semantics, so results match what the GIN-indexed query returns for hot rows. */
+    static List<MessageView> withMetadata(List<MessageView> messages, JsonNode filter, MessageRole role, int limit) {
+        return messages.stream()
+                .filter(message -> role == null || message.getRole() == role)
+                .filter(message -> message.getMetadata() != null && contains(message.getMetadata(), filter))
+                .limit(limit)
+                .toList();
+    }
+
+    /** Depth-first with parents before children and siblings by id, down to {@code maxDepth} levels. */
+    static List<MessageView> subtree(List<MessageView> messages, String messageId, int maxDepth) {
+        Optional<MessageView> root = find(messages, messageId);
+        if (root.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<MessageView>> children = new HashMap<>();
+        for (MessageView message : messages) {
+            if (message.getParentMessageId() != null) {
+                children.computeIfAbsent(message.getParentMessageId(), parent -> new ArrayList<>()).add(message);
+            }
+        }
+        children.values().forEach(siblings -> siblings.sort(Comparator.comparing(MessageView::getId)));
+
+        List<MessageView> subtree = new ArrayList<>();
+        Deque<Map.Entry<MessageView, Integer>> stack = new ArrayDeque<>();
+        stack.push(Map.entry(root.get(), 0));
+        while (!stack.isEmpty()) {
+            Map.Entry<MessageView, Integer> next = stack.pop();
+            subtree.add(next.getKey());
+            if (next.getValue() < maxDepth) {
+                List<MessageView> below = children.getOrDefault(next.getKey().getId(), List.of());
+                for (int i = below.size() - 1; i >= 0; i--) {
+                    stack.push(Map.entry(below.get(i), next.getValue() + 1));
+                }
+            }
+        }
+        return subtree;
+    }
+
+    /** Path from the message up to its root (at most {@code maxDepth} hops), root first. */
+    static List<MessageView> ancestors(List<MessageView> messages, String messageId, int maxDepth) {
+        Map<Long, MessageView> byId = new HashMap<>();
+        messages.forEach(message -> byId.put(message.getId(), message));
+
+        List<MessageView> path = new ArrayList<>();
+        MessageView current = find(messages, messageId).orElse(null);
+        for (int depth = 0; current != null && depth <= maxDepth; depth++) {
+            path.add(0, current);
+            current = current.getParentMessageId() != null ? byId.get(current.getParentMessageId()) : null;
+        }
+        return path;
+    }
+
+    static boolean contains(JsonNode document, JsonNode filter) {
+        if (filter.isObject()) {
+            if (!document.isObject()) {
+                return false;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = filter.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = document.get(field.getKey());
+                if (value == null || !contains(value, field.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (filter.isArray()) {
+            if (!document.isArray()) {
+                return false;
+            }
+            for (JsonNode wanted : filter) {
+                boolean found = false;
+                for (JsonNode element : document) {
+                    if (contains(element, wanted)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return filter.equals(document);
+    }
+
+    private static Optional<MessageView> find(List<MessageView> messages, String messageId) {
+        return messages.stream()
+                .filter(message -> message.getMessageId().equals(messageId))
+                .findFirst();
+    }
+
+    private static int compare(MessageView message, Instant createdAt, Long id) {
+        int byTime = message.getCreatedAt().compareTo(createdAt);
+        return byTime != 0 ? byTime : message.getId().compareTo(id);
+    }
+}
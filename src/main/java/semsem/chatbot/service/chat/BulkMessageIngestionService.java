@@ -0,0 +1,144 @@
+package semsem.chatbot.service.chat;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import semsem.chatbot.exception.BadRequestException;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.model.dto.request.BulkCreateMessagesRequest;
+import semsem.chatbot.model.dto.request.CreateMessageRequest;
+import semsem.chatbot.model.dto.response.BulkIngestionResponse;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.repository.ConversationRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Backfill path for transcripts imported from other channels. Conversations are resolved with one
+ * query, messages are persisted and flushed in JDBC batches of {@code hibernate.jdbc.batch_size},
+ * and each conversation's token/updatedAt and stats deltas are applied once per batch instead of once per message.
+ */
+@Slf4j
+@Service
+public class BulkMessageIngestionService {
+
+    public static final int MAX_MESSAGES_PER_REQUEST = 10_000;
+
+    private final ConversationRepository conversationRepository;
+    private final TokenAccountingService tokenAccountingService;
+    private final ConversationStatsService conversationStatsService;
+    private final MessageMapper messageMapper;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public BulkMessageIngestionService(
+            ConversationRepository conversationRepository,
+            TokenAccountingService tokenAccountingService,
+            ConversationStatsService conversationStatsService,
+            MessageMapper messageMapper,
+            EntityManager entityManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize
+    ) {
+        this.conversationRepository = conversationRepository;
+        this.tokenAccountingService = tokenAccountingService;
+        this.conversationStatsService = conversationStatsService;
+        this.messageMapper = messageMapper;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public BulkIngestionResponse ingest(BulkCreateMessagesRequest request) {
+        long started = System.nanoTime();
+        List<BulkCreateMessagesRequest.ConversationMessages> groups = request.getConversations();
+
+        int total = groups.stream().mapToInt(group -> group.getMessages().size()).sum();
+        if (total > MAX_MESSAGES_PER_REQUEST) {
+            throw new BadRequestException(
+                    String.format("A bulk request may contain at most %d messages, got %d", MAX_MESSAGES_PER_REQUEST, total),
+                    "BULK_LIMIT_EXCEEDED"
+            );
+        }
+
+        Map<String, Conversation> conversations = resolveConversations(groups);
+        Map<String, Integer> pendingTokens = new LinkedHashMap<>();
+        Map<String, MessageStatsDelta> pendingStats = new LinkedHashMap<>();
+        int pending = 0;
+        int batches = 0;
+
+        for (BulkCreateMessagesRequest.ConversationMessages group : groups) {
+            Conversation conversation = conversations.get(group.getConversationId());
+            for (CreateMessageRequest messageRequest : group.getMessages()) {
+                Message message = messageMapper.toEntity(messageRequest, conversation);
+                entityManager.persist(message);
+
+                int tokens = messageRequest.getTotalTokens() != null ? messageRequest.getTotalTokens() : 0;
+                pendingTokens.merge(conversation.getConversationId(), tokens, Integer::sum);
+                pendingStats.computeIfAbsent(conversation.getConversationId(), id -> new MessageStatsDelta()).add(message);
+
+                if (++pending == batchSize) {
+                    flushBatch(pendingTokens, pendingStats);
+                    pending = 0;
+                    batches++;
+                }
+            }
+        }
+        if (pending > 0) {
+            flushBatch(pendingTokens, pendingStats);
+            batches++;
+        }
+
+        conversations.keySet().forEach(id -> eventPublisher.publishEvent(new MessageCreatedEvent(id)));
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Bulk ingested {} messages into {} conversations in {} batches ({} ms)",
+                total, conversations.size(), batches, elapsedMs);
+
+        return BulkIngestionResponse.builder()
+                .conversations(conversations.size())
+                .messagesCreated(total)
+                .batches(batches)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    private Map<String, Conversation> resolveConversations(List<BulkCreateMessagesRequest.ConversationMessages> groups) {
+        Set<String> conversationIds = groups.stream()
+                .map(BulkCreateMessagesRequest.ConversationMessages::getConversationId)
+                .collect(Collectors.toSet());
+
+        Map<String, Conversation> conversations = conversationRepository.findAllByConversationIdIn(conversationIds).stream()
+                .collect(Collectors.toMap(Conversation::getConversationId, Function.identity()));
+
+        conversationIds.stream()
+                .filter(id -> !conversations.containsKey(id))
+                .findFirst()
+                .ifPresent(missing -> {
+                    throw new ResourceNotFoundException("Conversation", "conversationId", missing);
+                });
+        return conversations;
+    }
+
+    private void flushBatch(Map<String, Integer> pendingTokens, Map<String, MessageStatsDelta> pendingStats) {
+        entityManager.flush();
+        entityManager.clear();
+
+        pendingTokens.forEach(tokenAccountingService::addTokens);
+        pendingTokens.clear();
+        pendingStats.forEach(conversationStatsService::record);
+        pendingStats.clear();
+    }
+}
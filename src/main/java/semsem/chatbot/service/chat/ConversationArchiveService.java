@@ -0,0 +1,347 @@
+package semsem.chatbot.service.chat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.model.dto.projection.MessageView;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.ConversationArchive;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.repository.ConversationArchiveRepository;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.MessageRepository;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for archived conversations. A scheduled job compacts the messages of conversations that have
+ * been ARCHIVED for a while into one gzip-compressed NDJSON row in {@code conversation_archives} and deletes
+ * the hot rows, keeping only the newest message so inbox listings still show a last message. Every read scoped
+ * to one conversation (list, paged, cursor, sync, export, thread, search, role, recent, metadata) consults
+ * {@link #findMessages} for ARCHIVED conversations only, or, where the read has no status at hand, only when its
+ * hot query (which skips compacted conversations) comes back empty. A compacted conversation is answered from
+ * the archive merged with whatever is still hot via {@link ArchivedMessageQueries}; decoded archives are held in
+ * a small LRU cache keyed by archive timestamp. Writing to or unarchiving a conversation restores its archive. Ranked search across conversations
+ * and child lookups by surrogate id only see the hot table.
+ */
+@Slf4j
+@Service
+public class ConversationArchiveService {
+
+    static final String CODEC = "gzip";
+
+    private static final int CANDIDATE_PAGE_SIZE = 100;
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    private static final Comparator<MessageView> CHRONOLOGICAL =
+            Comparator.comparing(MessageView::getCreatedAt).thenComparing(MessageView::getId);
+
+    private final ConversationArchiveRepository archiveRepository;
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final ConversationStatsService conversationStatsService;
+    private final MessageTimeBounds messageTimeBounds;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final Map<String, CachedArchive> cache;
+
+    public ConversationArchiveService(
+            ConversationArchiveRepository archiveRepository,
+            ConversationRepository conversationRepository,
+            MessageRepository messageRepository,
+            ConversationStatsService conversationStatsService,
+            MessageTimeBounds messageTimeBounds,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${chat.archive.enabled:false}") boolean enabled,
+            @Value("${chat.archive.min-age:P7D}") Duration minAge,
+            @Value("${chat.archive.cache-size:256}") int cacheSize
+    ) {
+        this.archiveRepository = archiveRepository;
+        this.conversationRepository = conversationRepository;
+        this.messageRepository = messageRepository;
+        this.conversationStatsService = conversationStatsService;
+        this.messageTimeBounds = messageTimeBounds;
+        this.writer = objectMapper.writerFor(ArchivedMessage.class);
+        this.reader = objectMapper.readerFor(ArchivedMessage.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedArchive> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Archives every conversation that has been ARCHIVED for at least {@code chat.archive.min-age},
+     * one transaction per conversation so a failure only skips that conversation until the next run.
+     *
+     * @return number of conversations moved to cold storage
+     */
+    @Scheduled(cron = "${chat.archive.cron:0 45 3 * * *}")
+    public int archiveDue() {
+        if (!enabled) {
+            return 0;
+        }
+
+        Instant cutoff = Instant.now().minus(minAge);
+        int archived = 0;
+        String after = "";
+
+        while (true) {
+            List<String> conversationIds = conversationRepository.findArchiveCandidates(
+                    ConversationStatus.ARCHIVED, cutoff, after, PageRequest.of(0, CANDIDATE_PAGE_SIZE));
+            if (conversationIds.isEmpty()) {
+                break;
+            }
+
+            for (String conversationId : conversationIds) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> archive(conversationId)))) {
+                        archived++;
+                    }
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to archive conversation {}", conversationId, ex);
+                }
+            }
+            after = conversationIds.get(conversationIds.size() - 1);
+        }
+
+        if (archived > 0) {
+            log.info("Moved {} archived conversations to cold storage", archived);
+        }
+        return archived;
+    }
+
+    /**
+     * Compacts one ARCHIVED conversation. Stats are rebuilt first so the persisted counters keep covering the
+     * messages that leave the hot table; only the rows that were encoded are deleted, so a message written
+     * concurrently simply stays hot and is merged on read.
+     *
+     * @return false if the conversation is not ARCHIVED or already has an archive
+     */
+    @Transactional
+    public boolean archive(String conversationId) {
+        Conversation conversation = conversationRepository.findByConversationId(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
+        if (conversation.getStatus() != ConversationStatus.ARCHIVED || archiveRepository.existsById(conversationId)) {
+            return false;
+        }
+
+        conversationStatsService.rebuild(conversationId);
+
+        List<MessageView> messages = new ArrayList<>(messageRepository.findByConversationId(conversationId));
+        messages.sort(CHRONOLOGICAL);
+
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        byte[] payload = encode(messages, raw);
+        archiveRepository.save(ConversationArchive.builder()
+                .conversationId(conversationId)
+                .codec(CODEC)
+                .messageCount(messages.size())
+                .payload(payload)
+                .rawBytes(raw.size())
+                .archivedAt(Instant.now())
+                .build());
+
+        // The newest message stays hot for the inbox's last-message join
+        List<Long> coldIds = messages.stream()
+                .limit(Math.max(messages.size() - 1, 0))
+                .map(MessageView::getId)
+                .toList();
+        Instant floor = messageTimeBounds.floor(conversation.getCreatedAt());
+        for (int from = 0; from < coldIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = coldIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, coldIds.size()));
+            messageRepository.deleteByConversationIdAndIdIn(conversationId, chunk, floor);
+        }
+        cache.remove(conversationId);
+
+        log.info("Archived conversation {}: {} messages, {} -> {} bytes",
+                conversationId, messages.size(), raw.size(), payload.length);
+        return true;
+    }
+
+    /**
+     * All messages of an archived conversation in chronological order, or empty if it has no archive (or is no
+     * longer ARCHIVED). Costs one primary-key lookup for a conversation that was never compacted.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<MessageView>> findMessages(String conversationId) {
+        Optional<Instant> archivedAt = archiveRepository.findArchivedAtByConversationId(conversationId);
+        if (archivedAt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        CachedArchive cached = cache.get(conversationId);
+        if (cached == null || !cached.archivedAt().equals(archivedAt.get())) {
+            ConversationArchive archive = archiveRepository.findById(conversationId).orElse(null);
+            if (archive == null) {
+                return Optional.empty();
+            }
+            cached = new CachedArchive(archive.getArchivedAt(), decode(archive).stream()
+                    .map(message -> message.toView(conversationId))
+                    .toList());
+            cache.put(conversationId, cached);
+        }
+
+        Set<String> archivedMessageIds = new HashSet<>();
+        cached.messages().forEach(message -> archivedMessageIds.add(message.getMessageId()));
+
+        List<MessageView> messages = new ArrayList<>(cached.messages());
+        for (MessageView hot : messageRepository.findByConversationId(conversationId)) {
+            if (!archivedMessageIds.contains(hot.getMessageId())) {
+                messages.add(hot);
+            }
+        }
+        messages.sort(CHRONOLOGICAL);
+        return Optional.of(messages);
+    }
+
+    /**
+     * Moves an archive back into the messages table with fresh ids (parent links remapped) and original
+     * timestamps, skipping messages that are still hot. Stats already count these messages and stay as they are.
+     *
+     * @return number of messages re-inserted
+     */
+    @Transactional
+    public int restore(String conversationId) {
+        ConversationArchive archive = archiveRepository.findById(conversationId).orElse(null);
+        if (archive == null) {
+            return 0;
+        }
+
+        Conversation conversation = conversationRepository.findByConversationId(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
+
+        List<MessageView> hot = messageRepository.findByConversationId(conversationId);
+        Map<String, Long> hotIds = new HashMap<>();
+        hot.forEach(message -> hotIds.put(message.getMessageId(), message.getId()));
+
+        Map<Long, Long> idMap = new HashMap<>();
+        int restored = 0;
+        for (ArchivedMessage archived : decode(archive)) {
+            Long hotId = hotIds.get(archived.messageId());
+            if (hotId != null) {
+                idMap.put(archived.id(), hotId);
+                continue;
+            }
+
+            Long parentId = archived.parentMessageId();
+            Message message = messageRepository.save(Message.builder()
+                    .messageId(archived.messageId())
+                    .conversation(conversation)
+                    .role(archived.role())
+                    .content(archived.content())
+                    .providerLlm(archived.providerLlm())
+                    .modelUsed(archived.modelUsed())
+                    .promptTokens(archived.promptTokens())
+                    .completionTokens(archived.completionTokens())
+                    .totalTokens(archived.totalTokens())
+                    .latencyMs(archived.latencyMs())
+                    .parentMessageId(parentId != null ? idMap.getOrDefault(parentId, parentId) : null)
+                    .metadata(archived.metadata())
+                    .createdAt(archived.createdAt())
+                    .processedAt(archived.processedAt())
+                    .build());
+            idMap.put(archived.id(), message.getId());
+            restored++;
+        }
+
+        // Hot replies (the message kept at archive time, later writes) still point at the archived ids
+        for (MessageView message : hot) {
+            Long parentId = message.getParentMessageId();
+            Long remapped = parentId != null ? idMap.get(parentId) : null;
+            if (remapped != null && !remapped.equals(parentId)) {
+                messageRepository.updateParentMessageId(message.getId(), remapped);
+            }
+        }
+
+        archiveRepository.delete(archive);
+        cache.remove(conversationId);
+
+        log.info("Restored {} messages of conversation {} from cold storage", restored, conversationId);
+        return restored;
+    }
+
+    @Transactional
+    public void delete(String conversationId) {
+        archiveRepository.deleteByConversationId(conversationId);
+        cache.remove(conversationId);
+    }
+
+    private byte[] encode(List<MessageView> messages, ByteArrayOutputStream raw) {
+        try {
+            for (MessageView message : messages) {
+                writer.writeValue(raw, ArchivedMessage.of(message));
+                raw.write('\n');
+            }
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.size() / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                raw.writeTo(gzip);
+            }
+            return compressed.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private List<ArchivedMessage> decode(ConversationArchive archive) {
+        if (!CODEC.equals(archive.getCodec())) {
+            throw new IllegalStateException("Unsupported archive codec " + archive.getCodec()
+                    + " for conversation " + archive.getConversationId());
+        }
+
+        List<ArchivedMessage> messages = new ArrayList<>(archive.getMessageCount());
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(archive.getPayload())), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    messages.add(reader.readValue(line));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return messages;
+    }
+
+    private record CachedArchive(Instant archivedAt, List<MessageView> messages) {
+    }
+}
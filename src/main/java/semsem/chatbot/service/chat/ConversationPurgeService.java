@@ -0,0 +1,199 @@
+package semsem.chatbot.service.chat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import semsem.chatbot.model.dto.projection.PendingPurgeView;
+import semsem.chatbot.model.dto.response.PurgeStatusResponse;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.MessageRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes soft-deleted conversations in the background. Deleting a conversation only flips its status to
+ * DELETED (hidden from every read); this job then deletes its messages in small batches, one short
+ * transaction each with a pause in between, so row locks and WAL volume stay flat next to live chat traffic.
+ * The queue is the DELETED rows themselves, so a restart simply resumes where the last run stopped.
+ */
+@Slf4j
+@Service
+public class ConversationPurgeService {
+
+    private static final int QUEUE_PAGE_SIZE = 50;
+
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final ConversationStatsService conversationStatsService;
+    private final ConversationArchiveService conversationArchiveService;
+    private final MessageTimeBounds messageTimeBounds;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration maxRunTime;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong conversationsPurged = new AtomicLong();
+    private final AtomicLong messagesPurged = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile String currentConversationId;
+    private volatile Instant lastRunStartedAt;
+    private volatile Instant lastRunFinishedAt;
+
+    public ConversationPurgeService(
+            ConversationRepository conversationRepository,
+            MessageRepository messageRepository,
+            ConversationStatsService conversationStatsService,
+            ConversationArchiveService conversationArchiveService,
+            MessageTimeBounds messageTimeBounds,
+            PlatformTransactionManager transactionManager,
+            @Value("${chat.purge.enabled:true}") boolean enabled,
+            @Value("${chat.purge.batch-size:500}") int batchSize,
+            @Value("${chat.purge.batch-pause:PT0.2S}") Duration batchPause,
+            @Value("${chat.purge.max-run-time:PT10S}") Duration maxRunTime
+    ) {
+        this.conversationRepository = conversationRepository;
+        this.messageRepository = messageRepository;
+        this.conversationStatsService = conversationStatsService;
+        this.conversationArchiveService = conversationArchiveService;
+        this.messageTimeBounds = messageTimeBounds;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.maxRunTime = maxRunTime;
+    }
+
+    /**
+     * Works through the DELETED queue until it is empty or {@code chat.purge.max-run-time} is used up.
+     * A conversation that fails is counted, logged and retried on the next run.
+     *
+     * @return number of conversations fully removed
+     */
+    @Scheduled(fixedDelayString = "${chat.purge.interval-ms:5000}")
+    public int purgePending() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        Instant started = Instant.now();
+        Instant deadline = started.plus(maxRunTime);
+        lastRunStartedAt = started;
+        long messagesBefore = messagesPurged.get();
+        int purged = 0;
+        String after = "";
+
+        try {
+            while (Instant.now().isBefore(deadline)) {
+                List<PendingPurgeView> pending = conversationRepository.findPendingPurge(
+                        after, PageRequest.of(0, QUEUE_PAGE_SIZE));
+                if (pending.isEmpty()) {
+                    break;
+                }
+
+                for (PendingPurgeView conversation : pending) {
+                    if (!Instant.now().isBefore(deadline)) {
+                        break;
+                    }
+                    try {
+                        if (purge(conversation, deadline)) {
+                            purged++;
+                        }
+                    } catch (RuntimeException ex) {
+                        failures.incrementAndGet();
+                        log.warn("Failed to purge conversation {}", conversation.getConversationId(), ex);
+                    }
+                }
+                after = pending.get(pending.size() - 1).getConversationId();
+            }
+        } finally {
+            currentConversationId = null;
+            lastRunFinishedAt = Instant.now();
+            running.set(false);
+        }
+
+        long messages = messagesPurged.get() - messagesBefore;
+        if (purged > 0 || messages > 0) {
+            log.info("Purge run removed {} conversations and {} messages in {} ms", purged, messages,
+                    Duration.between(started, lastRunFinishedAt).toMillis());
+        }
+        return purged;
+    }
+
+    public PurgeStatusResponse getStatus() {
+        return PurgeStatusResponse.builder()
+                .enabled(enabled)
+                .running(running.get())
+                .pendingConversations(conversationRepository.countPendingPurge())
+                .currentConversationId(currentConversationId)
+                .conversationsPurged(conversationsPurged.get())
+                .messagesPurged(messagesPurged.get())
+                .batches(batches.get())
+                .failures(failures.get())
+                .lastRunStartedAt(lastRunStartedAt)
+                .lastRunFinishedAt(lastRunFinishedAt)
+                .build();
+    }
+
+    /**
+     * Deletes one conversation's messages batch by batch, then the conversation with its stats and archive.
+     *
+     * @return false if the deadline hit first; the remaining rows are picked up by the next run
+     */
+    private boolean purge(PendingPurgeView conversation, Instant deadline) {
+        String conversationId = conversation.getConversationId();
+        Instant floor = messageTimeBounds.floor(conversation.getCreatedAt());
+        currentConversationId = conversationId;
+
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = messageRepository.findIdsByConversationId(
+                        conversationId, floor, PageRequest.of(0, batchSize));
+                return ids.isEmpty() ? 0 : messageRepository.deleteByConversationIdAndIdIn(conversationId, ids, floor);
+            });
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+
+            messagesPurged.addAndGet(deleted);
+            long total = batches.incrementAndGet();
+            log.debug("Purged {} messages of conversation {} (batch {})", deleted, conversationId, total);
+
+            if (!Instant.now().isBefore(deadline) || !pause()) {
+                return false;
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            conversationArchiveService.delete(conversationId);
+            conversationStatsService.delete(conversationId);
+            conversationRepository.deletePurged(conversationId);
+        });
+        conversationsPurged.incrementAndGet();
+        log.info("Purged conversation {}", conversationId);
+        return true;
+    }
+
+    private boolean pause() {
+        if (batchPause.isZero() || batchPause.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
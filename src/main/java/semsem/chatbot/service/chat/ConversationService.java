@@ -6,14 +6,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import semsem.chatbot.exception.BadRequestException;
 import semsem.chatbot.exception.ResourceNotFoundException;
 import semsem.chatbot.mapper.ConversationMapper;
+import semsem.chatbot.model.dto.projection.MessageView;
 import semsem.chatbot.model.dto.request.CreateConversationRequest;
 import semsem.chatbot.model.dto.request.UpdateConversationRequest;
 import semsem.chatbot.model.dto.response.ConversationResponse;
 import semsem.chatbot.model.entity.AppUser;
 import semsem.chatbot.model.entity.Conversation;
-import semsem.chatbot.model.entity.Message;
 import semsem.chatbot.model.enums.ConversationStatus;
 import semsem.chatbot.repository.ConversationRepository;
 import semsem.chatbot.repository.MessageRepository;
@@ -32,6 +33,10 @@ public class ConversationService {
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
     private final ConversationMapper conversationMapper;
+    private final TokenAccountingService tokenAccountingService;
+    private final ConversationStatsService conversationStatsService;
+    private final MessageTimeBounds messageTimeBounds;
+    private final ConversationArchiveService conversationArchiveService;
 
     @Transactional
     public ConversationResponse createConversation(String userEmail, CreateConversationRequest request) {
@@ -40,6 +45,7 @@ public class ConversationService {
 
         Conversation conversation = conversationMapper.toEntity(request, user);
         Conversation savedConversation = conversationRepository.save(conversation);
+        conversationStatsService.initialize(savedConversation.getConversationId());
 
         log.info("Created conversation {} for user {}", savedConversation.getConversationId(), userEmail);
 
@@ -51,26 +57,26 @@ public class ConversationService {
         Conversation conversation = conversationRepository.findByUserEmailAndConversationId(userEmail, conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
 
-        int messageCount = (int) messageRepository.countByConversationId(conversationId);
+        int messageCount = (int) conversationStatsService.getStats(conversationId).getMessageCount();
 
         if (includeMessages) {
-            List<Message> messages = messageRepository.findByConversationId(conversationId);
-            Message lastMessage = messages.isEmpty() ? null : messages.get(messages.size() - 1);
+            List<MessageView> messages = conversation.getStatus() == ConversationStatus.ARCHIVED
+                    ? conversationArchiveService.findMessages(conversationId)
+                            .orElseGet(() -> messageRepository.findByConversationId(conversationId))
+                    : messageRepository.findByConversationId(conversationId);
+            MessageView lastMessage = messages.isEmpty() ? null : messages.get(messages.size() - 1);
             return conversationMapper.toResponseWithDetails(conversation, messages, lastMessage, messageCount);
         }
 
-        Message lastMessage = messageRepository.findLastMessageByConversationId(conversationId).orElse(null);
+        MessageView lastMessage = messageRepository.findLastMessageByConversationId(
+                conversationId, messageTimeBounds.floor(conversation.getCreatedAt())).orElse(null);
         return conversationMapper.toResponseWithLastMessage(conversation, lastMessage, messageCount);
     }
 
     @Transactional(readOnly = true)
     public Page<ConversationResponse> getUserConversations(String userEmail, Pageable pageable) {
-        Page<Conversation> conversations = conversationRepository.findByUserEmail(userEmail, pageable);
-        return conversations.map(conv -> {
-            int messageCount = (int) messageRepository.countByConversationId(conv.getConversationId());
-            Message lastMessage = messageRepository.findLastMessageByConversationId(conv.getConversationId()).orElse(null);
-            return conversationMapper.toResponseWithLastMessage(conv, lastMessage, messageCount);
-        });
+        return conversationRepository.findInboxByUserEmail(userEmail, pageable)
+                .map(conversationMapper::toResponseWithLastMessage);
     }
 
     @Transactional(readOnly = true)
@@ -79,12 +85,9 @@ public class ConversationService {
             ConversationStatus status,
             Pageable pageable
     ) {
-        Page<Conversation> conversations = conversationRepository.findByUserIdAndStatus(userId, status, pageable);
-        return conversations.map(conv -> {
-            int messageCount = (int) messageRepository.countByConversationId(conv.getConversationId());
-            Message lastMessage = messageRepository.findLastMessageByConversationId(conv.getConversationId()).orElse(null);
-            return conversationMapper.toResponseWithLastMessage(conv, lastMessage, messageCount);
-        });
+        requireListableStatus(status);
+        return conversationRepository.findInboxByUserIdAndStatus(userId, status, pageable)
+                .map(conversationMapper::toResponseWithLastMessage);
     }
 
     @Transactional
@@ -96,12 +99,17 @@ public class ConversationService {
         Conversation conversation = conversationRepository.findByUserEmailAndConversationId(userEmail, conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
 
+        boolean wasArchived = conversation.getStatus() == ConversationStatus.ARCHIVED;
         conversationMapper.updateEntity(conversation, request);
         Conversation updated = conversationRepository.save(conversation);
 
+        if (wasArchived && updated.getStatus() != ConversationStatus.ARCHIVED) {
+            conversationArchiveService.restore(conversationId);
+        }
+
         log.info("Updated conversation {}", conversationId);
 
-        int messageCount = (int) messageRepository.countByConversationId(conversationId);
+        int messageCount = (int) conversationStatsService.getStats(conversationId).getMessageCount();
         return conversationMapper.toResponseWithMessageCount(updated, messageCount);
     }
 
@@ -117,28 +125,41 @@ public class ConversationService {
         log.info("Archived conversation {}", conversationId);
     }
 
+    /**
+     * Soft delete: the conversation disappears from every read at once and {@link ConversationPurgeService}
+     * removes its rows in the background.
+     */
     @Transactional
     public void deleteConversation(String userEmail, String conversationId) {
         Conversation conversation = conversationRepository.findByUserEmailAndConversationId(userEmail, conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
 
-        messageRepository.deleteByConversationId(conversationId);
-        conversationRepository.delete(conversation);
+        conversation.setStatus(ConversationStatus.DELETED);
+        conversation.setUpdatedAt(Instant.now());
+        conversationRepository.save(conversation);
+
+        log.info("Marked conversation {} for deletion", conversationId);
+    }
+
+    @Transactional
+    public int deleteConversationsByStatus(String userEmail, ConversationStatus status) {
+        requireListableStatus(status);
+        Long userId = userRepository.findUserIdByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
 
-        log.info("Deleted conversation {}", conversationId);
+        int marked = conversationRepository.markDeletedByUserIdAndStatus(userId, status, Instant.now());
+        log.info("Marked {} {} conversations of user {} for deletion", marked, status, userEmail);
+        return marked;
     }
 
     @Transactional(readOnly = true)
     public List<ConversationResponse> searchConversations(String userEmail, String keyword) {
-        AppUser user = userRepository.findByEmail(userEmail)
+        // Only the id is needed; loading the user entity would also fetch its roles
+        Long userId = userRepository.findUserIdByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
 
-        List<Conversation> conversations = conversationRepository.searchByTitleAndUserId(keyword, user.getUserId());
-        return conversations.stream()
-                .map(conv -> {
-                    int messageCount = (int) messageRepository.countByConversationId(conv.getConversationId());
-                    return conversationMapper.toResponseWithMessageCount(conv, messageCount);
-                })
+        return conversationRepository.searchInboxByTitleAndUserId(keyword, userId).stream()
+                .map(conversationMapper::toResponseWithLastMessage)
                 .collect(Collectors.toList());
     }
 
@@ -150,13 +171,11 @@ public class ConversationService {
 
     @Transactional
     public void updateTokenCount(String conversationId, int additionalTokens) {
-        Conversation conversation = conversationRepository.findByConversationId(conversationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
+        if (!conversationRepository.existsByConversationId(conversationId)) {
+            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
+        }
 
-        int newCount = (conversation.getTokenCount() != null ? conversation.getTokenCount() : 0) + additionalTokens;
-        conversation.setTokenCount(newCount);
-        conversation.setUpdatedAt(Instant.now());
-        conversationRepository.save(conversation);
+        tokenAccountingService.addTokens(conversationId, additionalTokens);
     }
 
     @Transactional(readOnly = true)
@@ -166,6 +185,7 @@ public class ConversationService {
 
     @Transactional(readOnly = true)
     public long getConversationCountByStatus(Long userId, ConversationStatus status) {
+        requireListableStatus(status);
         return conversationRepository.countByUserIdAndStatus(userId, status);
     }
 
@@ -174,4 +194,10 @@ public class ConversationService {
         return conversationRepository.findByConversationId(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
     }
+
+    private static void requireListableStatus(ConversationStatus status) {
+        if (status == ConversationStatus.DELETED) {
+            throw new BadRequestException("Deleted conversations cannot be listed", "INVALID_STATUS");
+        }
+    }
 }
@@ -0,0 +1,250 @@
+package semsem.chatbot.service.chat;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import semsem.chatbot.model.dto.projection.MessageAggregateView;
+import semsem.chatbot.model.entity.ConversationStats;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.repository.ConversationArchiveRepository;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.ConversationStatsRepository;
+import semsem.chatbot.repository.MessageRepository;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@code conversation_stats} read model. Every message write applies its delta with a
+ * single atomic UPDATE in the caller's transaction; changes that cannot be expressed as a delta
+ * (latency edits, removing a message that carried latency) rebuild the row from the messages table.
+ * A nightly reconciliation pass repairs any drift and backfills rows for older conversations.
+ */
+@Slf4j
+@Service
+public class ConversationStatsService {
+
+    private static final int RECONCILE_PAGE_SIZE = 500;
+
+    private final ConversationStatsRepository statsRepository;
+    private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final ConversationArchiveRepository archiveRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public ConversationStatsService(
+            ConversationStatsRepository statsRepository,
+            MessageRepository messageRepository,
+            ConversationRepository conversationRepository,
+            ConversationArchiveRepository archiveRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.statsRepository = statsRepository;
+        this.messageRepository = messageRepository;
+        this.conversationRepository = conversationRepository;
+        this.archiveRepository = archiveRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public void initialize(String conversationId) {
+        statsRepository.insertIfAbsent(conversationId, Instant.now());
+    }
+
+    @Transactional
+    public void record(String conversationId, MessageStatsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        int updated = delta.hasLatency()
+                ? statsRepository.incrementCountsAndLatency(conversationId, delta.getMessages(),
+                        delta.getUserMessages(), delta.getAssistantMessages(), delta.getSystemMessages(),
+                        delta.getToolMessages(), delta.getFunctionMessages(), delta.getTokens(),
+                        delta.getLatencySum(), delta.getLatencyCount(), delta.getLatencyMin(), delta.getLatencyMax(), now)
+                : statsRepository.incrementCounts(conversationId, delta.getMessages(),
+                        delta.getUserMessages(), delta.getAssistantMessages(), delta.getSystemMessages(),
+                        delta.getToolMessages(), delta.getFunctionMessages(), delta.getTokens(), now);
+
+        if (updated == 0) {
+            // Conversation predates the stats table and has not been reconciled yet
+            rebuild(conversationId);
+        } else {
+            evictCached(conversationId);
+        }
+    }
+
+    /**
+     * Applies an in-place message edit. Role never changes on update, so only tokens and latency can move.
+     */
+    @Transactional
+    public void onMessageUpdated(Message message, Integer previousTokens, Long previousLatencyMs) {
+        String conversationId = message.getConversation().getConversationId();
+
+        if (MessageStatsDelta.countsLatency(message) && !Objects.equals(previousLatencyMs, message.getLatencyMs())) {
+            rebuild(conversationId);
+            return;
+        }
+
+        long tokenDelta = valueOf(message.getTotalTokens()) - valueOf(previousTokens);
+        if (tokenDelta == 0) {
+            return;
+        }
+        if (statsRepository.addTokens(conversationId, tokenDelta, Instant.now()) == 0) {
+            rebuild(conversationId);
+        } else {
+            evictCached(conversationId);
+        }
+    }
+
+    @Transactional
+    public void onMessageDeleted(Message message) {
+        String conversationId = message.getConversation().getConversationId();
+        MessageStatsDelta removal = MessageStatsDelta.removalOf(message);
+
+        if (removal.hasLatency()) {
+            rebuild(conversationId);
+        } else {
+            record(conversationId, removal);
+        }
+    }
+
+    /**
+     * Zeroes the counters after all of a conversation's messages were removed.
+     */
+    @Transactional
+    public void reset(String conversationId) {
+        ConversationStats stats = lockOrCreate(conversationId);
+        stats.applyAggregate(MessageAggregateView.empty(conversationId));
+        stats.setUpdatedAt(Instant.now());
+        statsRepository.save(stats);
+    }
+
+    @Transactional
+    public void delete(String conversationId) {
+        statsRepository.deleteByConversationId(conversationId);
+        evictCached(conversationId);
+    }
+
+    /**
+     * Single-row lookup. Conversations without a row yet are aggregated on the fly (not persisted,
+     * since this may run in a read-only transaction); the reconciler creates the row later.
+     */
+    @Transactional(readOnly = true)
+    public ConversationStats getStats(String conversationId) {
+        return statsRepository.findById(conversationId)
+                .orElseGet(() -> {
+                    ConversationStats stats = ConversationStats.empty(conversationId);
+                    stats.applyAggregate(aggregate(conversationId));
+                    return stats;
+                });
+    }
+
+    @Transactional
+    public ConversationStats rebuild(String conversationId) {
+        ConversationStats stats = lockOrCreate(conversationId);
+        stats.applyAggregate(aggregate(conversationId));
+        stats.setUpdatedAt(Instant.now());
+        return statsRepository.save(stats);
+    }
+
+    /**
+     * Walks all conversations in id order, one transaction per page. Stats rows are locked before the
+     * messages are aggregated so concurrent increments either land before the snapshot or after the repair.
+     *
+     * @return number of rows created or repaired
+     */
+    @Scheduled(cron = "${chat.stats.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        int repaired = 0;
+        String after = "";
+
+        while (true) {
+            List<String> conversationIds = conversationRepository.findConversationIdsAfter(
+                    after, PageRequest.of(0, RECONCILE_PAGE_SIZE));
+            if (conversationIds.isEmpty()) {
+                break;
+            }
+
+            Integer fixed = transactionTemplate.execute(status -> reconcilePage(conversationIds));
+            repaired += fixed != null ? fixed : 0;
+            after = conversationIds.get(conversationIds.size() - 1);
+        }
+
+        if (repaired > 0) {
+            log.warn("Conversation stats reconciliation repaired {} rows", repaired);
+        } else {
+            log.debug("Conversation stats reconciliation found no drift");
+        }
+        return repaired;
+    }
+
+    /**
+     * Locks the row, creating it first if it is missing, so a rebuild never races a concurrent first write
+     * into a duplicate-key failure or a lost update.
+     */
+    private ConversationStats lockOrCreate(String conversationId) {
+        statsRepository.insertIfAbsent(conversationId, Instant.now());
+        return statsRepository.lockAllByConversationIdIn(List.of(conversationId)).get(0);
+    }
+
+    private int reconcilePage(List<String> conversationIds) {
+        // Archived conversations keep only their newest message hot; their counters were frozen at archive time
+        Set<String> archived = new HashSet<>(archiveRepository.findArchivedIdsIn(conversationIds));
+        Map<String, ConversationStats> existing = statsRepository.lockAllByConversationIdIn(conversationIds).stream()
+                .collect(Collectors.toMap(ConversationStats::getConversationId, Function.identity()));
+        Map<String, MessageAggregateView> aggregates = messageRepository.aggregateByConversationIds(conversationIds).stream()
+                .collect(Collectors.toMap(MessageAggregateView::getConversationId, Function.identity()));
+
+        int repaired = 0;
+        for (String conversationId : conversationIds) {
+            if (archived.contains(conversationId)) {
+                continue;
+            }
+            MessageAggregateView aggregate = aggregates.getOrDefault(conversationId, MessageAggregateView.empty(conversationId));
+            ConversationStats stats = existing.get(conversationId);
+
+            if (stats == null) {
+                lockOrCreate(conversationId).applyAggregate(aggregate);
+                repaired++;
+            } else if (stats.applyAggregate(aggregate)) {
+                log.debug("Repaired drifted stats for conversation {}", conversationId);
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * Bulk UPDATE/DELETE bypasses the persistence context; drop any managed copy of the row so a later
+     * read in the same transaction sees the new counters. getReference does not hit the database.
+     */
+    private void evictCached(String conversationId) {
+        entityManager.detach(entityManager.getReference(ConversationStats.class, conversationId));
+    }
+
+    private MessageAggregateView aggregate(String conversationId) {
+        return messageRepository.aggregateByConversationIds(List.of(conversationId)).stream()
+                .findFirst()
+                .orElseGet(() -> MessageAggregateView.empty(conversationId));
+    }
+
+    private static long valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+}
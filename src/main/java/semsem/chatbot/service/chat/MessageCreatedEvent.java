@@ -0,0 +1,7 @@
+package semsem.chatbot.service.chat;
+
+/**
+ * Published inside the writing transaction whenever messages are added to a conversation.
+ */
+public record MessageCreatedEvent(String conversationId) {
+}
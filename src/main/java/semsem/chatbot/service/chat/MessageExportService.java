@@ -0,0 +1,99 @@
+package semsem.chatbot.service.chat;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.model.dto.projection.MessageView;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.MessageRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a whole conversation as NDJSON (one {@link MessageResponse} per line) straight to an
+ * output stream. Messages are read through a database cursor as unmanaged {@link MessageView} rows,
+ * so nothing accumulates in the persistence context and heap usage stays flat no matter how long
+ * the conversation is. A compacted conversation is written from its cached, merged archive instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final MessageMapper messageMapper;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final ConversationArchiveService conversationArchiveService;
+
+    public void assertExportable(String conversationId) {
+        if (!conversationRepository.existsByConversationId(conversationId)) {
+            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
+        }
+    }
+
+    public long exportConversation(String conversationId, OutputStream out, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        ObjectWriter writer = objectMapper.writerFor(MessageResponse.class);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        long written;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated by the '\n' written after each value, not Jackson's default " " between roots
+            generator.setRootValueSeparator(null);
+            written = transaction.execute(status -> writeMessages(conversationId, writer, generator));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+        target.flush();
+
+        log.info("Exported {} messages from conversation {}", written, conversationId);
+        return written;
+    }
+
+    private long writeMessages(String conversationId, ObjectWriter writer, JsonGenerator generator) {
+        long written = 0;
+        Optional<List<MessageView>> archived = conversationArchiveService.findMessages(conversationId);
+        try (Stream<MessageView> messages = archived.map(List::stream)
+                .orElseGet(() -> messageRepository.streamByConversationId(conversationId))) {
+            Iterator<MessageView> iterator = messages.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, messageMapper.toResponse(iterator.next()));
+                generator.writeRaw('\n');
+
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return written;
+    }
+}
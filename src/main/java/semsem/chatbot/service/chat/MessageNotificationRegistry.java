@@ -0,0 +1,73 @@
+package semsem.chatbot.service.chat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process registry of clients waiting for new messages, keyed by conversation. Waiters are one-shot:
+ * a notification removes and runs every waiter of that conversation. Fed after commit by local message
+ * writes and, when enabled, by {@link PostgresMessageNotificationListener} for writes on other nodes.
+ */
+@Slf4j
+@Component
+public class MessageNotificationRegistry {
+
+    private final Map<String, Set<Runnable>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a one-shot callback; returns a handle that removes it again (e.g. on timeout).
+     */
+    public Runnable register(String conversationId, Runnable waiter) {
+        // compute (not computeIfAbsent + add) so a concurrent notify can never drop a set we are adding to
+        waiters.compute(conversationId, (id, set) -> {
+            Set<Runnable> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(waiter);
+            return target;
+        });
+        return () -> unregister(conversationId, waiter);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageCreated(MessageCreatedEvent event) {
+        notifyWaiters(event.conversationId());
+    }
+
+    public void notifyWaiters(String conversationId) {
+        Set<Runnable> current = waiters.remove(conversationId);
+        if (current == null) {
+            return;
+        }
+        for (Runnable waiter : current) {
+            try {
+                waiter.run();
+            } catch (RuntimeException ex) {
+                log.warn("Message waiter for conversation {} failed: {}", conversationId, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Wakes every waiter, e.g. after a gap in which notifications may have been missed. Waiters with
+     * nothing new simply re-register.
+     */
+    public void notifyAllWaiters() {
+        waiters.keySet().forEach(this::notifyWaiters);
+    }
+
+    public int waitingCount() {
+        return waiters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void unregister(String conversationId, Runnable waiter) {
+        waiters.computeIfPresent(conversationId, (id, set) -> {
+            set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package semsem.chatbot.service.chat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of the range-partitioned messages table in shape: creates the current
+ * month plus {@code premake-months} ahead, and detaches/drops partitions that ended more than
+ * {@code retention-months} ago (0 keeps everything). Only active once the table has been migrated with
+ * db/chat/messages_partitioning_postgresql.sql and {@code chat.messages.partitioning.enabled=true}.
+ * Dropped messages are removed from conversation_stats by the next stats reconciliation. Refuses to start when
+ * Hibernate manages the schema ({@code ddl-auto} update/create): it would re-add the message_id-only unique key.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "chat.messages.partitioning", name = "enabled", havingValue = "true")
+public class MessagePartitionManager {
+
+    static final String PARENT_TABLE = "messages";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("messages_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Set<String> SCHEMA_WRITING_DDL_AUTO = Set.of("update", "create", "create-drop", "create-only");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int premakeMonths;
+    private final int retentionMonths;
+
+    public MessagePartitionManager(
+            JdbcTemplate jdbcTemplate,
+            @Value("${chat.messages.partitioning.premake-months:3}") int premakeMonths,
+            @Value("${chat.messages.partitioning.retention-months:0}") int retentionMonths,
+            @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto
+    ) {
+        if (SCHEMA_WRITING_DDL_AUTO.contains(ddlAuto.trim().toLowerCase(Locale.ROOT))) {
+            throw new IllegalStateException("chat.messages.partitioning.enabled requires spring.jpa.hibernate.ddl-auto "
+                    + "validate or none, not " + ddlAuto);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${chat.messages.partitioning.maintenance-cron:0 15 2 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        ensurePartitions(current);
+        if (retentionMonths > 0) {
+            dropExpiredPartitions(current.minusMonths(retentionMonths));
+        }
+    }
+
+    void ensurePartitions(YearMonth current) {
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partitionName(month), PARENT_TABLE, lowerBound(month), lowerBound(month.plusMonths(1))
+            ));
+        }
+        log.debug("Ensured message partitions through {}", current.plusMonths(premakeMonths));
+    }
+
+    /**
+     * Detaches and drops every partition whose whole range lies before {@code oldestKept}.
+     * DETACH ... CONCURRENTLY cannot run inside a transaction, so this uses plain auto-commit statements.
+     */
+    List<String> dropExpiredPartitions(YearMonth oldestKept) {
+        List<String> dropped = new ArrayList<>();
+        for (String partition : attachedPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches() || !YearMonth.parse(matcher.group(1), SUFFIX).isBefore(oldestKept)) {
+                continue;
+            }
+            jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s CONCURRENTLY", PARENT_TABLE, partition));
+            jdbcTemplate.execute(String.format("DROP TABLE IF EXISTS %s", partition));
+            dropped.add(partition);
+            log.info("Dropped expired message partition {}", partition);
+        }
+        return dropped;
+    }
+
+    private List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = ? ORDER BY c.relname",
+                String.class,
+                PARENT_TABLE
+        );
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + month.format(SUFFIX);
+    }
+
+    private static String lowerBound(YearMonth month) {
+        return month.atDay(1) + " 00:00:00+00";
+    }
+}
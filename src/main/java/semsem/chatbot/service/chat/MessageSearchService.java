@@ -0,0 +1,100 @@
+package semsem.chatbot.service.chat;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import semsem.chatbot.exception.BadRequestException;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.model.dto.projection.MessageSearchHit;
+import semsem.chatbot.model.dto.response.CursorPageResponse;
+import semsem.chatbot.model.dto.response.MessageSearchResultResponse;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.repository.UserRepository;
+import semsem.chatbot.util.SearchCursor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked full-text search across a user's messages. One native query returns the page of ids, ranks and
+ * highlighted snippets from the tsvector GIN index; a second query loads those messages with their
+ * conversations. Pages are keyset-paginated on (rank, id), so deep pages cost the same as the first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final MessageRepository messageRepository;
+    private final UserRepository userRepository;
+    private final MessageMapper messageMapper;
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<MessageSearchResultResponse> search(
+            String userEmail,
+            String query,
+            String conversationId,
+            String cursor,
+            int size
+    ) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Long userId = userRepository.findUserIdByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        SearchCursor position = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : SearchCursor.START;
+
+        List<MessageSearchHit> fetched = messageRepository.searchFullText(
+                userId,
+                query.trim(),
+                conversationId != null ? conversationId : "",
+                position.rank(),
+                position.id(),
+                size + 1
+        );
+
+        boolean hasMore = fetched.size() > size;
+        List<MessageSearchHit> hits = hasMore ? fetched.subList(0, size) : fetched;
+
+        Map<Long, Message> messages = hits.isEmpty() ? Map.of() : messageRepository.findAllWithConversationByIdIn(
+                        hits.stream().map(MessageSearchHit::getId).toList()).stream()
+                .collect(Collectors.toMap(Message::getId, Function.identity()));
+
+        List<MessageSearchResultResponse> items = hits.stream()
+                .filter(hit -> messages.containsKey(hit.getId()))
+                .map(hit -> {
+                    Message message = messages.get(hit.getId());
+                    return MessageSearchResultResponse.builder()
+                            .message(messageMapper.toResponse(message))
+                            .conversationTitle(message.getConversation().getTitle())
+                            .rank(hit.getRank())
+                            .snippet(hit.getSnippet())
+                            .build();
+                })
+                .toList();
+
+        CursorPageResponse.CursorPageResponseBuilder<MessageSearchResultResponse> response =
+                CursorPageResponse.<MessageSearchResultResponse>builder()
+                        .items(items)
+                        .size(items.size())
+                        .hasNext(hasMore)
+                        .hasPrevious(position != SearchCursor.START);
+
+        if (hasMore) {
+            MessageSearchHit last = hits.get(hits.size() - 1);
+            response.nextCursor(new SearchCursor(last.getRank(), last.getId()).encode());
+        }
+        return response.build();
+    }
+}
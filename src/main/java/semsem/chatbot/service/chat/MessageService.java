@@ -2,49 +2,72 @@ package semsem.chatbot.service.chat;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import semsem.chatbot.exception.BadRequestException;
 import semsem.chatbot.exception.ResourceNotFoundException;
 import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.model.dto.projection.MessageView;
 import semsem.chatbot.model.dto.request.CreateMessageRequest;
+import semsem.chatbot.model.dto.response.CursorPageResponse;
 import semsem.chatbot.model.dto.response.MessageResponse;
 import semsem.chatbot.model.dto.response.MessageStatsResponse;
+import semsem.chatbot.model.dto.response.MessageSyncResponse;
+import semsem.chatbot.model.dto.response.MessageThreadResponse;
 import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.ConversationStats;
 import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.CursorDirection;
 import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.model.enums.ThreadDirection;
 import semsem.chatbot.repository.ConversationRepository;
 import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.util.MessageCursor;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MessageService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+    private static final int MAX_THREAD_DEPTH = 100;
+
     private final MessageRepository messageRepository;
     private final ConversationRepository conversationRepository;
     private final MessageMapper messageMapper;
+    private final TokenAccountingService tokenAccountingService;
+    private final ConversationStatsService conversationStatsService;
+    private final MessageTimeBounds messageTimeBounds;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConversationArchiveService conversationArchiveService;
 
     @Transactional
     public MessageResponse createMessage(String conversationId, CreateMessageRequest request) {
         Conversation conversation = conversationRepository.findByConversationId(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
 
+        thawIfArchived(conversation);
+
         Message message = messageMapper.toEntity(request, conversation);
         Message savedMessage = messageRepository.save(message);
 
-        // Update conversation's updatedAt and token count
-        conversation.setUpdatedAt(Instant.now());
-        if (request.getTotalTokens() != null) {
-            int currentTokens = conversation.getTokenCount() != null ? conversation.getTokenCount() : 0;
-            conversation.setTokenCount(currentTokens + request.getTotalTokens());
-        }
-        conversationRepository.save(conversation);
+        // Atomic increment of the conversation's token count and updatedAt (no entity read-modify-write)
+        tokenAccountingService.addTokens(conversationId, request.getTotalTokens());
+        conversationStatsService.record(conversationId, MessageStatsDelta.of(savedMessage));
+        eventPublisher.publishEvent(new MessageCreatedEvent(conversationId));
 
         log.info("Created message {} in conversation {}", savedMessage.getMessageId(), conversationId);
 
@@ -61,51 +84,126 @@ public class MessageService {
 
     @Transactional(readOnly = true)
     public List<MessageResponse> getConversationMessages(String conversationId) {
-        if (!conversationRepository.existsByConversationId(conversationId)) {
-            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
-        }
+        ConversationStatus status = conversationRepository.findStatusByConversationId(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
 
-        List<Message> messages = messageRepository.findByConversationId(conversationId);
+        List<MessageView> messages = compacted(conversationId, status)
+                .orElseGet(() -> messageRepository.findByConversationId(conversationId));
         return messageMapper.toResponseList(messages);
     }
 
     @Transactional(readOnly = true)
     public Page<MessageResponse> getConversationMessagesPaged(String conversationId, Pageable pageable) {
-        if (!conversationRepository.existsByConversationId(conversationId)) {
-            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
-        }
+        ConversationStatus status = conversationRepository.findStatusByConversationId(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
 
-        Page<Message> messages = messageRepository.findByConversationIdPaged(conversationId, pageable);
+        Page<MessageView> messages = compacted(conversationId, status)
+                .map(archived -> ArchivedMessageQueries.page(archived, pageable))
+                .orElseGet(() -> messageRepository.findByConversationIdPaged(conversationId, pageable));
         return messages.map(messageMapper::toResponse);
     }
 
+    /**
+     * Keyset pagination over (createdAt, id). Each page is a single index seek with no COUNT query;
+     * the archive lookup and the conversation existence check only run when a page comes back empty.
+     * Without a cursor, NEXT starts at the oldest message and PREV at the newest.
+     */
     @Transactional(readOnly = true)
-    public List<MessageResponse> getConversationMessagesByRole(String conversationId, MessageRole role) {
-        if (!conversationRepository.existsByConversationId(conversationId)) {
+    public CursorPageResponse<MessageResponse> getConversationMessagesByCursor(
+            String conversationId,
+            String cursor,
+            CursorDirection direction,
+            int size
+    ) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+
+        MessageCursor position = cursor != null && !cursor.isBlank() ? MessageCursor.decode(cursor) : null;
+        PageRequest limit = PageRequest.of(0, size + 1);
+        boolean forward = direction != CursorDirection.PREV;
+
+        List<MessageView> fetched;
+        if (forward) {
+            fetched = position == null
+                    ? messageRepository.findFirstPage(conversationId, limit)
+                    : messageRepository.findPageAfter(conversationId, position.createdAt(), position.id(), limit);
+        } else {
+            fetched = position == null
+                    ? messageRepository.findLastPage(conversationId, limit)
+                    : messageRepository.findPageBefore(conversationId, position.createdAt(), position.id(), limit);
+        }
+
+        Optional<List<MessageView>> archived = compactedIfEmpty(conversationId, fetched);
+        if (archived.isPresent()) {
+            Instant createdAt = position != null ? position.createdAt() : null;
+            Long id = position != null ? position.id() : null;
+            fetched = forward
+                    ? ArchivedMessageQueries.after(archived.get(), createdAt, id, size + 1)
+                    : ArchivedMessageQueries.before(archived.get(), createdAt, id, size + 1);
+        } else if (fetched.isEmpty() && !conversationRepository.existsByConversationId(conversationId)) {
             throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
         }
 
-        List<Message> messages = messageRepository.findByConversationIdAndRole(conversationId, role);
+        boolean hasMore = fetched.size() > size;
+        List<MessageView> page = hasMore ? fetched.subList(0, size) : fetched;
+        if (!forward) {
+            page = new ArrayList<>(page);
+            Collections.reverse(page);
+        }
+
+        CursorPageResponse.CursorPageResponseBuilder<MessageResponse> response = CursorPageResponse.<MessageResponse>builder()
+                .items(messageMapper.toResponseList(page))
+                .size(page.size())
+                .hasNext(forward ? hasMore : position != null)
+                .hasPrevious(forward ? position != null : hasMore);
+
+        if (!page.isEmpty()) {
+            MessageView first = page.get(0);
+            MessageView last = page.get(page.size() - 1);
+            response.prevCursor(new MessageCursor(first.getCreatedAt(), first.getId()).encode())
+                    .nextCursor(new MessageCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return response.build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<MessageResponse> getConversationMessagesByRole(String conversationId, MessageRole role) {
+        ConversationStatus status = conversationRepository.findStatusByConversationId(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
+
+        List<MessageView> messages = compacted(conversationId, status)
+                .map(archived -> ArchivedMessageQueries.withRole(archived, role))
+                .orElseGet(() -> messageRepository.findByConversationIdAndRole(conversationId, role));
         return messageMapper.toResponseList(messages);
     }
 
     @Transactional(readOnly = true)
     public List<MessageResponse> getRecentMessages(String conversationId, int limit) {
-        if (!conversationRepository.existsByConversationId(conversationId)) {
-            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
-        }
-
-        List<Message> messages = messageRepository.findRecentMessages(conversationId, PageRequest.of(0, limit));
+        Instant floor = messageTimeBounds.floor(conversationId);
+        Instant recentFloor = messageTimeBounds.recentFloor(floor);
+        PageRequest page = PageRequest.of(0, limit);
+
+        // Try the recent partitions first; only widen to the whole conversation if they hold too few rows
+        List<MessageView> recent = messageRepository.findRecentMessages(conversationId, recentFloor, page);
+        List<MessageView> hot = recent.size() < limit && recentFloor.isAfter(floor)
+                ? messageRepository.findRecentMessages(conversationId, floor, page)
+                : recent;
+        List<MessageView> messages = compactedIfEmpty(conversationId, hot)
+                .map(archived -> ArchivedMessageQueries.before(archived, null, null, limit))
+                .orElse(hot);
         return messageMapper.toResponseList(messages);
     }
 
     @Transactional(readOnly = true)
     public MessageResponse getLastMessage(String conversationId) {
-        if (!conversationRepository.existsByConversationId(conversationId)) {
-            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
-        }
+        Instant floor = messageTimeBounds.floor(conversationId);
+        Instant recentFloor = messageTimeBounds.recentFloor(floor);
 
-        Message message = messageRepository.findLastMessageByConversationId(conversationId)
+        MessageView message = messageRepository.findLastMessageByConversationId(conversationId, recentFloor)
+                .or(() -> recentFloor.isAfter(floor)
+                        ? messageRepository.findLastMessageByConversationId(conversationId, floor)
+                        : Optional.empty())
                 .orElse(null);
 
         return messageMapper.toResponse(message);
@@ -116,8 +214,14 @@ public class MessageService {
         Message message = messageRepository.findByMessageId(messageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Message", "messageId", messageId));
 
+        thawIfArchived(message.getConversation());
+
+        Integer previousTokens = message.getTotalTokens();
+        Long previousLatencyMs = message.getLatencyMs();
+
         messageMapper.updateEntity(message, request);
         Message updated = messageRepository.save(message);
+        conversationStatsService.onMessageUpdated(updated, previousTokens, previousLatencyMs);
 
         log.info("Updated message {}", messageId);
 
@@ -129,85 +233,231 @@ public class MessageService {
         Message message = messageRepository.findByMessageId(messageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Message", "messageId", messageId));
 
+        thawIfArchived(message.getConversation());
         messageRepository.delete(message);
+        conversationStatsService.onMessageDeleted(message);
 
         log.info("Deleted message {}", messageId);
     }
 
     @Transactional
     public void deleteConversationMessages(String conversationId) {
-        if (!conversationRepository.existsByConversationId(conversationId)) {
-            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
-        }
+        Instant floor = messageTimeBounds.floor(conversationId);
 
-        int deleted = messageRepository.deleteByConversationId(conversationId);
+        int deleted = messageRepository.deleteByConversationId(conversationId, floor);
+        conversationArchiveService.delete(conversationId);
+        conversationStatsService.reset(conversationId);
         log.info("Deleted {} messages from conversation {}", deleted, conversationId);
     }
 
     @Transactional(readOnly = true)
     public long getMessageCount(String conversationId) {
-        return messageRepository.countByConversationId(conversationId);
+        return conversationStatsService.getStats(conversationId).getMessageCount();
     }
 
     @Transactional(readOnly = true)
     public long getMessageCountByRole(String conversationId, MessageRole role) {
-        return messageRepository.countByConversationIdAndRole(conversationId, role);
+        ConversationStats stats = conversationStatsService.getStats(conversationId);
+        return switch (role) {
+            case USER -> stats.getUserMessages();
+            case ASSISTANT -> stats.getAssistantMessages();
+            case SYSTEM -> stats.getSystemMessages();
+            case TOOL -> stats.getToolMessages();
+            case FUNCTION -> stats.getFunctionMessages();
+        };
     }
 
     @Transactional(readOnly = true)
     public int getTotalTokens(String conversationId) {
-        return messageRepository.sumTotalTokensByConversationId(conversationId);
+        return Math.toIntExact(conversationStatsService.getStats(conversationId).getTotalTokens());
     }
 
     @Transactional(readOnly = true)
     public Double getAverageLatency(String conversationId) {
-        return messageRepository.avgLatencyByConversationId(conversationId);
+        ConversationStats stats = conversationStatsService.getStats(conversationId);
+        return stats.getLatencyCount() > 0 ? stats.getAverageLatencyMs() : null;
     }
 
     @Transactional(readOnly = true)
     public List<MessageResponse> searchMessages(String conversationId, String keyword) {
-        if (!conversationRepository.existsByConversationId(conversationId)) {
-            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
-        }
+        ConversationStatus status = conversationRepository.findStatusByConversationId(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId));
 
-        List<Message> messages = messageRepository.searchByContentInConversation(keyword, conversationId);
+        List<MessageView> messages = compacted(conversationId, status)
+                .map(archived -> ArchivedMessageQueries.matching(archived, keyword))
+                .orElseGet(() -> messageRepository.searchFullTextInConversation(keyword, conversationId));
         return messageMapper.toResponseList(messages);
     }
 
     @Transactional(readOnly = true)
     public List<MessageResponse> getMessagesSince(String conversationId, Instant since) {
-        if (!conversationRepository.existsByConversationId(conversationId)) {
-            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
-        }
+        Instant floor = messageTimeBounds.floor(conversationId);
 
-        List<Message> messages = messageRepository.findMessagesSince(conversationId, since);
+        // A "since" older than the conversation would otherwise scan every older partition
+        List<MessageView> hot = messageRepository.findMessagesSince(conversationId, since.isAfter(floor) ? since : floor);
+        List<MessageView> messages = compactedIfEmpty(conversationId, hot)
+                .map(archived -> ArchivedMessageQueries.since(archived, since))
+                .orElse(hot);
         return messageMapper.toResponseList(messages);
     }
 
+    /**
+     * Delta-sync read: messages strictly after {@code cursor} (or the latest {@code limit} messages when the
+     * client has no cursor yet), with the cursor to resume from. A missing or deleted conversation reads as empty.
+     */
+    @Transactional(readOnly = true)
+    public MessageSyncResponse getMessagesAfter(String conversationId, MessageCursor cursor, int limit) {
+        List<MessageView> messages;
+        if (cursor == null) {
+            messages = new ArrayList<>(messageRepository.findLastPage(conversationId, PageRequest.of(0, limit)));
+            Collections.reverse(messages);
+        } else {
+            messages = messageRepository.findPageAfter(
+                    conversationId, cursor.createdAt(), cursor.id(), PageRequest.of(0, limit));
+        }
+
+        Optional<List<MessageView>> archived = compactedIfEmpty(conversationId, messages);
+        if (archived.isPresent()) {
+            List<MessageView> all = archived.get();
+            messages = cursor == null
+                    ? all.subList(Math.max(all.size() - limit, 0), all.size())
+                    : ArchivedMessageQueries.after(all, cursor.createdAt(), cursor.id(), limit);
+        }
+
+        String next = cursor != null ? cursor.encode() : null;
+        if (!messages.isEmpty()) {
+            MessageView last = messages.get(messages.size() - 1);
+            next = new MessageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return MessageSyncResponse.builder()
+                .messages(messageMapper.toResponseList(messages))
+                .cursor(next)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public List<MessageResponse> getChildMessages(Long parentMessageId) {
-        List<Message> messages = messageRepository.findByParentMessageId(parentMessageId);
+        List<MessageView> messages = messageRepository.findByParentMessageId(parentMessageId);
         return messageMapper.toResponseList(messages);
     }
 
+    /**
+     * Subtree below a message, or the ancestor path above it, in a single recursive query. One level more
+     * than requested is fetched so the response can tell the client whether the tree was cut off.
+     */
+    @Transactional(readOnly = true)
+    public MessageThreadResponse getThread(
+            String conversationId,
+            String messageId,
+            ThreadDirection direction,
+            int maxDepth
+    ) {
+        if (maxDepth < 1 || maxDepth > MAX_THREAD_DEPTH) {
+            throw new BadRequestException("Thread depth must be between 1 and " + MAX_THREAD_DEPTH);
+        }
+
+        Instant floor = messageTimeBounds.floor(conversationId);
+        List<MessageView> hot = direction == ThreadDirection.ANCESTORS
+                ? messageRepository.findAncestors(conversationId, messageId, maxDepth + 1, floor)
+                : messageRepository.findSubtree(conversationId, messageId, maxDepth + 1, floor);
+        List<MessageView> messages = compactedIfEmpty(conversationId, hot)
+                .map(archived -> direction == ThreadDirection.ANCESTORS
+                        ? ArchivedMessageQueries.ancestors(archived, messageId, maxDepth + 1)
+                        : ArchivedMessageQueries.subtree(archived, messageId, maxDepth + 1))
+                .orElse(hot);
+
+        if (messages.isEmpty()) {
+            throw new ResourceNotFoundException("Message", "messageId", messageId);
+        }
+
+        List<MessageThreadResponse.Node> nodes = new ArrayList<>(messages.size());
+        boolean truncated;
+        if (direction == ThreadDirection.ANCESTORS) {
+            // Root first; a full extra hop means there are more ancestors above the first node
+            truncated = messages.size() > maxDepth + 1;
+            List<MessageView> path = truncated ? messages.subList(1, messages.size()) : messages;
+            for (int i = 0; i < path.size(); i++) {
+                nodes.add(threadNode(path.get(i), i));
+            }
+        } else {
+            Map<Long, Integer> depths = new HashMap<>();
+            truncated = false;
+            for (MessageView message : messages) {
+                Integer parentDepth = depths.get(message.getParentMessageId());
+                int depth = parentDepth == null ? 0 : parentDepth + 1;
+                depths.put(message.getId(), depth);
+                if (depth > maxDepth) {
+                    truncated = true;
+                } else {
+                    nodes.add(threadNode(message, depth));
+                }
+            }
+        }
+
+        return MessageThreadResponse.builder()
+                .messageId(messageId)
+                .direction(direction)
+                .maxDepth(maxDepth)
+                .truncated(truncated)
+                .nodes(nodes)
+                .build();
+    }
+
+    private MessageThreadResponse.Node threadNode(MessageView message, int depth) {
+        return MessageThreadResponse.Node.builder()
+                .id(message.getId())
+                .depth(depth)
+                .message(messageMapper.toResponse(message))
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public MessageStatsResponse getMessageStats(String conversationId) {
         if (!conversationRepository.existsByConversationId(conversationId)) {
             throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
         }
 
-        long totalCount = messageRepository.countByConversationId(conversationId);
-        long userCount = messageRepository.countByConversationIdAndRole(conversationId, MessageRole.USER);
-        long assistantCount = messageRepository.countByConversationIdAndRole(conversationId, MessageRole.ASSISTANT);
-        int totalTokens = messageRepository.sumTotalTokensByConversationId(conversationId);
-        Double avgLatency = messageRepository.avgLatencyByConversationId(conversationId);
+        ConversationStats stats = conversationStatsService.getStats(conversationId);
 
         return MessageStatsResponse.builder()
-                .totalMessages(totalCount)
-                .userMessages(userCount)
-                .assistantMessages(assistantCount)
-                .totalTokens(totalTokens)
-                .averageLatencyMs(avgLatency != null ? avgLatency : 0)
+                .totalMessages(stats.getMessageCount())
+                .userMessages(stats.getUserMessages())
+                .assistantMessages(stats.getAssistantMessages())
+                .systemMessages(stats.getSystemMessages())
+                .toolMessages(stats.getToolMessages())
+                .functionMessages(stats.getFunctionMessages())
+                .totalTokens(Math.toIntExact(stats.getTotalTokens()))
+                .averageLatencyMs(stats.getAverageLatencyMs())
+                .minLatencyMs(stats.getLatencyMinMs())
+                .maxLatencyMs(stats.getLatencyMaxMs())
                 .build();
     }
+
+    /**
+     * The archive merged with the hot rows if the conversation has been compacted. Only ARCHIVED conversations
+     * can have one, so reads that already know the status skip the archive lookup for everything else.
+     */
+    private Optional<List<MessageView>> compacted(String conversationId, ConversationStatus status) {
+        return status == ConversationStatus.ARCHIVED
+                ? conversationArchiveService.findMessages(conversationId)
+                : Optional.empty();
+    }
+
+    /**
+     * Same for reads without a status lookup: their hot queries skip compacted conversations, so only an empty
+     * result can mean the answer is in the archive, and a live conversation with messages never looks there.
+     */
+    private Optional<List<MessageView>> compactedIfEmpty(String conversationId, List<MessageView> hot) {
+        return hot.isEmpty() ? conversationArchiveService.findMessages(conversationId) : Optional.empty();
+    }
+
+    /**
+     * Writes go to the hot table only, and stats rebuilds aggregate it; a compacted conversation is restored
+     * first. The archive job picks it up again once it goes quiet.
+     */
+    private void thawIfArchived(Conversation conversation) {
+        if (conversation.getStatus() == ConversationStatus.ARCHIVED) {
+            conversationArchiveService.restore(conversation.getConversationId());
+        }
+    }
 }
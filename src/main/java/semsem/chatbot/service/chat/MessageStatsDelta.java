@@ -0,0 +1,82 @@
+package semsem.chatbot.service.chat;
+
+import lombok.Getter;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.MessageRole;
+
+/**
+ * Accumulates the change a set of message writes makes to a conversation's
+ * {@link semsem.chatbot.model.entity.ConversationStats} row, so it can be applied with one UPDATE.
+ */
+@Getter
+public class MessageStatsDelta {
+
+    private long messages;
+    private long userMessages;
+    private long assistantMessages;
+    private long systemMessages;
+    private long toolMessages;
+    private long functionMessages;
+    private long tokens;
+    private long latencySum;
+    private long latencyCount;
+    private long latencyMin = Long.MAX_VALUE;
+    private long latencyMax = Long.MIN_VALUE;
+
+    public static MessageStatsDelta of(Message message) {
+        return new MessageStatsDelta().add(message);
+    }
+
+    public MessageStatsDelta add(Message message) {
+        messages++;
+        switch (message.getRole()) {
+            case USER -> userMessages++;
+            case ASSISTANT -> assistantMessages++;
+            case SYSTEM -> systemMessages++;
+            case TOOL -> toolMessages++;
+            case FUNCTION -> functionMessages++;
+        }
+        if (message.getTotalTokens() != null) {
+            tokens += message.getTotalTokens();
+        }
+        if (countsLatency(message)) {
+            long latency = message.getLatencyMs();
+            latencySum += latency;
+            latencyCount++;
+            latencyMin = Math.min(latencyMin, latency);
+            latencyMax = Math.max(latencyMax, latency);
+        }
+        return this;
+    }
+
+    /**
+     * Negative delta for a removed message. Latency min/max cannot be decremented, so callers
+     * rebuild instead when {@link #hasLatency()} is true.
+     */
+    public static MessageStatsDelta removalOf(Message message) {
+        MessageStatsDelta added = of(message);
+        MessageStatsDelta removed = new MessageStatsDelta();
+        removed.messages = -added.messages;
+        removed.userMessages = -added.userMessages;
+        removed.assistantMessages = -added.assistantMessages;
+        removed.systemMessages = -added.systemMessages;
+        removed.toolMessages = -added.toolMessages;
+        removed.functionMessages = -added.functionMessages;
+        removed.tokens = -added.tokens;
+        removed.latencySum = -added.latencySum;
+        removed.latencyCount = -added.latencyCount;
+        return removed;
+    }
+
+    public boolean hasLatency() {
+        return latencyCount != 0;
+    }
+
+    public boolean isEmpty() {
+        return messages == 0 && tokens == 0 && latencyCount == 0;
+    }
+
+    static boolean countsLatency(Message message) {
+        return message.getRole() == MessageRole.ASSISTANT && message.getLatencyMs() != null;
+    }
+}
@@ -0,0 +1,121 @@
+package semsem.chatbot.service.chat;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import semsem.chatbot.exception.BadRequestException;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.model.dto.response.MessageSyncResponse;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.util.MessageCursor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-poll delta sync. A request with nothing new parks a future in the {@link MessageNotificationRegistry}
+ * instead of holding a servlet thread or re-querying; it is completed by the next message notification for
+ * the conversation, or with an empty {@code timedOut} result when the timeout expires.
+ * An idle wait therefore costs two queries (existence check and the initial read) however long it lasts.
+ */
+@Slf4j
+@Service
+public class MessageSyncService {
+
+    public static final long MAX_TIMEOUT_MS = 60_000;
+    private static final int MAX_BATCH = 200;
+
+    private final MessageService messageService;
+    private final ConversationRepository conversationRepository;
+    private final MessageNotificationRegistry notificationRegistry;
+    private final ExecutorService wakeupExecutor;
+
+    public MessageSyncService(
+            MessageService messageService,
+            ConversationRepository conversationRepository,
+            MessageNotificationRegistry notificationRegistry,
+            @Value("${chat.messages.sync.wakeup-threads:4}") int wakeupThreads
+    ) {
+        this.messageService = messageService;
+        this.conversationRepository = conversationRepository;
+        this.notificationRegistry = notificationRegistry;
+        AtomicInteger counter = new AtomicInteger();
+        this.wakeupExecutor = Executors.newFixedThreadPool(wakeupThreads, runnable -> {
+            Thread thread = new Thread(runnable, "message-sync-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<MessageSyncResponse> sync(String conversationId, String cursor, long timeoutMs) {
+        if (timeoutMs < 0 || timeoutMs > MAX_TIMEOUT_MS) {
+            throw new BadRequestException("Timeout must be between 0 and " + MAX_TIMEOUT_MS + " ms");
+        }
+        MessageCursor position = cursor != null && !cursor.isBlank() ? MessageCursor.decode(cursor) : null;
+
+        CompletableFuture<MessageSyncResponse> result = new CompletableFuture<>();
+
+        // Register before the first read so a message committed in between still wakes us up
+        register(result, conversationId, position);
+
+        MessageSyncResponse initial = messageService.getMessagesAfter(conversationId, position, MAX_BATCH);
+        // getMessagesAfter does not check the conversation; an empty read may mean it is unknown or deleted
+        if (initial.getMessages().isEmpty() && !conversationRepository.existsByConversationId(conversationId)) {
+            result.cancel(false);
+            throw new ResourceNotFoundException("Conversation", "conversationId", conversationId);
+        }
+        if (!initial.getMessages().isEmpty() || position == null || timeoutMs == 0) {
+            result.complete(initial);
+            return result;
+        }
+        return result.completeOnTimeout(timedOut(position), timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void register(CompletableFuture<MessageSyncResponse> result, String conversationId, MessageCursor position) {
+        Runnable cancel = notificationRegistry.register(conversationId, () -> wakeUp(result, conversationId, position));
+        result.whenComplete((response, ex) -> cancel.run());
+    }
+
+    private void wakeUp(CompletableFuture<MessageSyncResponse> result, String conversationId, MessageCursor position) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            wakeupExecutor.execute(() -> {
+                try {
+                    // Re-register before the read, as sync() does: the notification may have raced ahead of
+                    // visibility (e.g. a write on another node), and a message committed while we read must
+                    // still find a waiter. Completing the result removes every registration.
+                    register(result, conversationId, position);
+                    MessageSyncResponse delta = messageService.getMessagesAfter(conversationId, position, MAX_BATCH);
+                    if (!delta.getMessages().isEmpty()) {
+                        result.complete(delta);
+                    }
+                } catch (RuntimeException ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    private static MessageSyncResponse timedOut(MessageCursor position) {
+        return MessageSyncResponse.builder()
+                .messages(List.of())
+                .cursor(position.encode())
+                .timedOut(true)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        wakeupExecutor.shutdownNow();
+    }
+}
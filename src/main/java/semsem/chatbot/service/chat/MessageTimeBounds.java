@@ -0,0 +1,53 @@
+package semsem.chatbot.service.chat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.repository.ConversationRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Lower createdAt bounds for conversation-scoped message queries, so a time-partitioned messages table is
+ * pruned to the partitions that can hold the conversation's rows. No message predates its conversation;
+ * the slack absorbs clock skew between application nodes.
+ */
+@Component
+public class MessageTimeBounds {
+
+    private final ConversationRepository conversationRepository;
+    private final Duration slack;
+    private final Duration recentWindow;
+
+    public MessageTimeBounds(
+            ConversationRepository conversationRepository,
+            @Value("${chat.messages.partitioning.bound-slack:PT1H}") Duration slack,
+            @Value("${chat.messages.partitioning.recent-window:P30D}") Duration recentWindow
+    ) {
+        this.conversationRepository = conversationRepository;
+        this.slack = slack;
+        this.recentWindow = recentWindow;
+    }
+
+    /**
+     * Earliest possible createdAt of a message in the conversation; doubles as the existence check.
+     */
+    public Instant floor(String conversationId) {
+        return floor(conversationRepository.findCreatedAtByConversationId(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "conversationId", conversationId)));
+    }
+
+    public Instant floor(Instant conversationCreatedAt) {
+        return conversationCreatedAt != null ? conversationCreatedAt.minus(slack) : Instant.EPOCH;
+    }
+
+    /**
+     * Bound for "latest messages" lookups: only the recent partitions. Callers fall back to {@code floor}
+     * when the recent window does not hold enough rows.
+     */
+    public Instant recentFloor(Instant floor) {
+        Instant recent = Instant.now().minus(recentWindow);
+        return recent.isAfter(floor) ? recent : floor;
+    }
+}
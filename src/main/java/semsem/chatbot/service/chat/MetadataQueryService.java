@@ -0,0 +1,109 @@
+package semsem.chatbot.service.chat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import semsem.chatbot.exception.BadRequestException;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.mapper.ConversationMapper;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.model.dto.projection.MessageView;
+import semsem.chatbot.model.dto.response.ConversationResponse;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.repository.UserRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Filters messages and conversations on their JSONB metadata inside PostgreSQL. Every filter is a
+ * containment document ({@code metadata @> filter}), which the jsonb_path_ops GIN indexes answer without
+ * reading non-matching rows, instead of loading metadata into the application and parsing it there. Compacted
+ * conversations are the exception: their archived messages are only held in memory and filtered there.
+ */
+@Service
+@RequiredArgsConstructor
+public class MetadataQueryService {
+
+    /** Metadata key holding the tool calls of an assistant message: {@code [{"type": ..., "name": ...}]}. */
+    public static final String TOOL_CALLS = "tool_calls";
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final UserRepository userRepository;
+    private final MessageMapper messageMapper;
+    private final ConversationMapper conversationMapper;
+    private final MessageTimeBounds messageTimeBounds;
+    private final ConversationArchiveService conversationArchiveService;
+
+    @Transactional(readOnly = true)
+    public List<MessageResponse> findMessages(String conversationId, JsonNode contains, MessageRole role, Integer limit) {
+        String filter = toFilter(contains);
+        int resolvedLimit = resolveLimit(limit);
+
+        Optional<List<MessageView>> archived = conversationArchiveService.findMessages(conversationId);
+        if (archived.isPresent()) {
+            return messageMapper.toResponseList(
+                    ArchivedMessageQueries.withMetadata(archived.get(), contains, role, resolvedLimit));
+        }
+
+        Instant floor = messageTimeBounds.floor(conversationId);
+        List<MessageView> messages = messageRepository.findByMetadataContaining(
+                conversationId, filter, role != null ? role.name() : "", floor, resolvedLimit);
+        return messageMapper.toResponseList(messages);
+    }
+
+    /**
+     * Messages that made at least one tool call of {@code type}, i.e. whose metadata contains
+     * {@code {"tool_calls": [{"type": type}]}}.
+     */
+    @Transactional(readOnly = true)
+    public List<MessageResponse> findToolCalls(String conversationId, String type, Integer limit) {
+        if (type == null || type.isBlank()) {
+            throw new BadRequestException("Tool call type must not be empty");
+        }
+
+        ObjectNode contains = JsonNodeFactory.instance.objectNode();
+        contains.putArray(TOOL_CALLS).addObject().put("type", type);
+        return findMessages(conversationId, contains, null, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ConversationResponse> findConversations(String userEmail, JsonNode contains, Integer limit) {
+        String filter = toFilter(contains);
+        Long userId = userRepository.findUserIdByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+
+        return conversationRepository.findByUserIdAndMetadataContaining(userId, filter, resolveLimit(limit)).stream()
+                .map(conversationMapper::toResponse)
+                .toList();
+    }
+
+    static String toFilter(JsonNode contains) {
+        if (contains == null || !contains.isObject() || contains.isEmpty()) {
+            // {} or a scalar would match every row (or none) and defeat the index
+            throw new BadRequestException("Metadata filter must be a non-empty JSON object", "INVALID_METADATA_FILTER");
+        }
+        return contains.toString();
+    }
+
+    private static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,132 @@
+package semsem.chatbot.service.chat;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Cross-node fan-out for long-poll sync. Every message write issues {@code pg_notify} inside its transaction
+ * (PostgreSQL delivers it only on commit), and a single dedicated LISTEN connection per node forwards
+ * notifications to the {@link MessageNotificationRegistry}. The LISTEN connection is opened with the
+ * primary's credentials outside the pool so it never pins a pooled connection.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "chat.messages.sync.pg-notify", name = "enabled", havingValue = "true")
+public class PostgresMessageNotificationListener {
+
+    static final String CHANNEL = "chat_messages";
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MessageNotificationRegistry notificationRegistry;
+    private final DataSourceProperties dataSourceProperties;
+    private final int pollTimeoutMs;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listenerThread;
+
+    public PostgresMessageNotificationListener(
+            JdbcTemplate jdbcTemplate,
+            MessageNotificationRegistry notificationRegistry,
+            DataSourceProperties dataSourceProperties,
+            @Value("${chat.messages.sync.pg-notify.poll-timeout-ms:10000}") int pollTimeoutMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationRegistry = notificationRegistry;
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    @EventListener
+    public void onMessageCreated(MessageCreatedEvent event) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, event.conversationId());
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "message-notify-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        listenerThread.interrupt();
+        closeQuietly(connection);
+    }
+
+    private void listenLoop() {
+        long backoffMs = 1_000;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for message notifications on channel {}", CHANNEL);
+                backoffMs = 1_000;
+
+                // Notifications sent while we were disconnected are lost; let every waiter re-check instead
+                notificationRegistry.notifyAllWaiters();
+
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        notificationRegistry.notifyWaiters(notification.getParameter());
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Message notification listener lost its connection, retrying in {} ms: {}",
+                        backoffMs, ex.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+            // shutting down
+        }
+    }
+}
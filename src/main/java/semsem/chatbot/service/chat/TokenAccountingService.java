@@ -0,0 +1,137 @@
+package semsem.chatbot.service.chat;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import semsem.chatbot.repository.ConversationRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies conversation token increments without read-modify-write on the entity.
+ * <p>
+ * By default every increment is a single atomic {@code UPDATE ... SET token_count = token_count + ?}
+ * in the caller's transaction. With {@code chat.tokens.write-behind.enabled=true}, increments are
+ * coalesced per conversation in memory after the caller commits and flushed on a schedule and at
+ * shutdown, so hot conversations take one row lock per flush instead of one per message.
+ */
+@Slf4j
+@Service
+public class TokenAccountingService {
+
+    private final ConversationRepository conversationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean writeBehind;
+
+    // ConcurrentHashMap.merge locks a single bin, so updates to different conversations never contend.
+    private final Map<String, PendingDelta> pending = new ConcurrentHashMap<>();
+
+    public TokenAccountingService(
+            ConversationRepository conversationRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${chat.tokens.write-behind.enabled:false}") boolean writeBehind
+    ) {
+        this.conversationRepository = conversationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Records token usage (may be null) and bumps the conversation's updatedAt.
+     */
+    public void addTokens(String conversationId, Integer tokens) {
+        int delta = tokens != null ? tokens : 0;
+        Instant now = Instant.now();
+
+        if (!writeBehind) {
+            conversationRepository.incrementTokenCount(conversationId, delta, now);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(conversationId, delta, now);
+                }
+            });
+        } else {
+            enqueue(conversationId, delta, now);
+        }
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public int pendingConversations() {
+        return pending.size();
+    }
+
+    /**
+     * Drains all coalesced deltas into the database. Each key is removed atomically before it is
+     * applied; increments arriving meanwhile start a fresh delta, and failed writes are re-queued.
+     */
+    @Scheduled(fixedDelayString = "${chat.tokens.write-behind.flush-interval-ms:1000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<String, PendingDelta>> drained = new ArrayList<>();
+        for (String conversationId : pending.keySet()) {
+            PendingDelta delta = pending.remove(conversationId);
+            if (delta != null) {
+                drained.add(Map.entry(conversationId, delta));
+            }
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> drained.forEach(entry ->
+                    conversationRepository.incrementTokenCount(
+                            entry.getKey(),
+                            Math.toIntExact(entry.getValue().tokens()),
+                            entry.getValue().touchedAt()
+                    )));
+        } catch (RuntimeException ex) {
+            log.warn("Token flush failed for {} conversations, re-queueing: {}", drained.size(), ex.getMessage());
+            drained.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), PendingDelta::plus));
+            return 0;
+        }
+
+        log.debug("Flushed token deltas for {} conversations", drained.size());
+        return drained.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (writeBehind) {
+            flush();
+        }
+    }
+
+    private void enqueue(String conversationId, int tokens, Instant touchedAt) {
+        pending.merge(conversationId, new PendingDelta(tokens, touchedAt), PendingDelta::plus);
+    }
+
+    private record PendingDelta(long tokens, Instant touchedAt) {
+
+        PendingDelta plus(PendingDelta other) {
+            Instant latest = touchedAt.isAfter(other.touchedAt) ? touchedAt : other.touchedAt;
+            return new PendingDelta(tokens + other.tokens, latest);
+        }
+    }
+}
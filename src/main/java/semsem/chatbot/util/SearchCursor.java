@@ -0,0 +1,38 @@
+package semsem.chatbot.util;
+
+import semsem.chatbot.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position inside a ranked full-text result set: the (rank, id) pair of the last hit.
+ * The rank is carried as its raw float bits so the next page compares against exactly the value
+ * PostgreSQL returned.
+ */
+public record SearchCursor(float rank, long id) {
+
+    /** Position before the first hit; every real rank and id sorts below it. */
+    public static final SearchCursor START = new SearchCursor(Float.MAX_VALUE, Long.MAX_VALUE);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String raw = Integer.toHexString(Float.floatToRawIntBits(rank)) + ":" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static SearchCursor decode(String cursor) {
+        try {
+            String[] parts = new String(DECODER.decode(cursor), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Unexpected cursor layout");
+            }
+            float rank = Float.intBitsToFloat(Integer.parseUnsignedInt(parts[0], 16));
+            return new SearchCursor(rank, Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor, "INVALID_CURSOR");
+        }
+    }
+}
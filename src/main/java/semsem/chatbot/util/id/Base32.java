@@ -0,0 +1,21 @@
+package semsem.chatbot.util.id;
+
+/**
+ * Crockford base32 in lower case (no i, l, o, u). The alphabet is in ascending ASCII order, so
+ * fixed-width encodings sort the same way as the numbers they encode.
+ */
+final class Base32 {
+
+    private static final char[] ALPHABET = "0123456789abcdefghjkmnpqrstvwxyz".toCharArray();
+
+    private Base32() {
+    }
+
+    /** Writes the low {@code chars * 5} bits of {@code value} into {@code target}, most significant first. */
+    static void encode(long value, char[] target, int offset, int chars) {
+        for (int i = offset + chars - 1; i >= offset; i--) {
+            target[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package semsem.chatbot.util.id;
+
+/**
+ * Source of public identifiers ({@code messageId}, {@code conversationId}). Implementations must be
+ * thread-safe, never repeat a value, and produce fixed-width strings whose lexicographic order follows
+ * creation time, so new keys land at the right-hand edge of the unique B-tree indexes.
+ */
+public interface IdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,8 @@
+package semsem.chatbot.util.id;
+
+public enum IdStrategy {
+    /** 26-char monotonic ULID; needs no per-node configuration. */
+    ULID,
+    /** 13-char Snowflake id; every instance needs a distinct {@code chat.ids.worker-id}. */
+    SNOWFLAKE
+}
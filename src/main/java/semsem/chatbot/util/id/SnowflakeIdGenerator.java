@@ -0,0 +1,55 @@
+package semsem.chatbot.util.id;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake layout in a positive 63-bit long: 41 bits of milliseconds since {@link #EPOCH}, a 10-bit
+ * worker id and a 12-bit per-millisecond sequence, rendered as 13 base32 characters. Unique as long
+ * as every running instance has its own worker id. Lock-free: the (millis, sequence) pair lives in one
+ * {@link AtomicLong}. When the sequence is exhausted, or the clock steps backwards, the generator
+ * borrows the next millisecond instead of blocking; ids stay increasing and the clock catches up.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    public static final int MAX_WORKER_ID = (1 << 10) - 1;
+    public static final int LENGTH = 13;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_BITS = 10;
+
+    private final Clock clock;
+    private final long workerBits;
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(Clock clock, int workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + ", got " + workerId);
+        }
+        this.clock = clock;
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+    }
+
+    @Override
+    public String nextId() {
+        char[] chars = new char[LENGTH];
+        Base32.encode(nextLong(), chars, 0, LENGTH);
+        return new String(chars);
+    }
+
+    long nextLong() {
+        long now = clock.millis() - EPOCH.toEpochMilli();
+        while (true) {
+            long current = state.get();
+            long millis = current >>> SEQUENCE_BITS;
+            long next = now > millis ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                long elapsed = next >>> SEQUENCE_BITS;
+                return (elapsed << (WORKER_BITS + SEQUENCE_BITS)) | workerBits | sequence;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package semsem.chatbot.util.id;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Random;
+
+/**
+ * Monotonic ULID: 48-bit millisecond timestamp followed by 80 random bits, 26 base32 characters.
+ * Within one millisecond the random part is incremented instead of redrawn, so ids from this
+ * generator are strictly increasing even under bursts; different nodes need no coordination.
+ * If the clock steps backwards the last timestamp is kept until the clock catches up.
+ */
+public class UlidGenerator implements IdGenerator {
+
+    public static final int LENGTH = 26;
+
+    private final Clock clock;
+    private final Random random;
+
+    private long lastMillis = -1;
+    private long randomHigh;  // upper 16 of the 80 random bits
+    private long randomLow;   // lower 64 bits
+
+    public UlidGenerator(Clock clock) {
+        this(clock, new SecureRandom());
+    }
+
+    UlidGenerator(Clock clock, Random random) {
+        this.clock = clock;
+        this.random = random;
+    }
+
+    @Override
+    public String nextId() {
+        long millis;
+        long high;
+        long low;
+        synchronized (this) {
+            long now = clock.millis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                randomHigh = random.nextInt(1 << 16);
+                randomLow = random.nextLong();
+            } else if (++randomLow == 0 && ++randomHigh == 1 << 16) {
+                // 2^80 ids in one millisecond cannot happen in practice; move to the next millisecond anyway
+                lastMillis++;
+                randomHigh = 0;
+            }
+            millis = lastMillis;
+            high = randomHigh;
+            low = randomLow;
+        }
+
+        char[] chars = new char[LENGTH];
+        Base32.encode(millis, chars, 0, 10);
+        // 80 random bits: 16 high + 64 low, split 40/40 across two 8-char groups
+        Base32.encode((high << 24) | (low >>> 40), chars, 10, 8);
+        Base32.encode(low & 0xFF_FFFF_FFFFL, chars, 18, 8);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,90 @@
+-- ============================================
+-- ONE-TIME MIGRATION: RANGE-PARTITION messages BY created_at (PostgreSQL 14+)
+--
+-- Not part of spring.sql.init. Run once during a maintenance window, with the application stopped:
+--   psql -v ON_ERROR_STOP=1 -f messages_partitioning_postgresql.sql
+-- then start the application with CHAT_MESSAGES_PARTITIONING=true so MessagePartitionManager keeps
+-- future partitions created (and expired ones dropped, if a retention is configured), and with
+-- JPA_DDL_AUTO=validate: the entity still declares message_id unique on its own, which ddl-auto=update
+-- would try to add back and PostgreSQL refuses on a partitioned table. MessagePartitionManager refuses
+-- to start under update/create.
+--
+-- Notes:
+--  * Unique keys on a partitioned table must include the partition key, so the primary key becomes
+--    (id, created_at) and message_id uniqueness becomes (message_id, created_at). ids still come from
+--    messages_seq and message_id values are random, so both remain unique in practice.
+--  * The legacy conversation_messages join table references messages(message_id); that foreign key
+--    cannot exist on a partitioned table and is dropped.
+--  * No DEFAULT partition is created: it would prevent DETACH PARTITION CONCURRENTLY.
+--  * The old table is kept as messages_legacy; drop it once the row counts have been verified.
+-- ============================================
+
+SET TIME ZONE 'UTC';
+
+BEGIN;
+
+LOCK TABLE messages IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE IF EXISTS conversation_messages DROP CONSTRAINT IF EXISTS fk_conversation_message_conversation_id;
+
+ALTER TABLE messages RENAME TO messages_legacy;
+ALTER INDEX IF EXISTS idx_conversation_created RENAME TO idx_conversation_created_legacy;
+ALTER INDEX IF EXISTS idx_role_conversation RENAME TO idx_role_conversation_legacy;
+ALTER INDEX IF EXISTS idx_messages_content_tsv RENAME TO idx_messages_content_tsv_legacy;
+ALTER INDEX IF EXISTS idx_messages_parent RENAME TO idx_messages_parent_legacy;
+ALTER INDEX IF EXISTS idx_messages_metadata RENAME TO idx_messages_metadata_legacy;
+
+CREATE TABLE messages (LIKE messages_legacy INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING STORAGE)
+    PARTITION BY RANGE (created_at);
+
+ALTER TABLE messages ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE messages ADD CONSTRAINT messages_pkey_partitioned PRIMARY KEY (id, created_at);
+ALTER TABLE messages ADD CONSTRAINT uk_messages_message_id_created_at UNIQUE (message_id, created_at);
+ALTER TABLE messages ADD CONSTRAINT fk_messages_conversation_id_partitioned
+    FOREIGN KEY (conversation_id) REFERENCES conversations (conversation_id) ON DELETE CASCADE;
+
+CREATE INDEX idx_conversation_created ON messages (conversation_id, created_at);
+CREATE INDEX idx_role_conversation ON messages (role, conversation_id);
+CREATE INDEX idx_messages_content_tsv ON messages USING gin (content_tsv);
+CREATE INDEX idx_messages_parent ON messages (parent_message_id);
+CREATE INDEX idx_messages_metadata ON messages USING gin (metadata jsonb_path_ops);
+
+-- Monthly partitions from the oldest message up to three months ahead, filled month by month
+DO $$
+DECLARE
+    month_start timestamptz := date_trunc('month', coalesce((SELECT min(created_at) FROM messages_legacy), now()));
+    last_month  timestamptz := date_trunc('month', now()) + interval '3 months';
+    partition_name text;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        partition_name := 'messages_p' || to_char(month_start, 'YYYYMM');
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF messages FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, month_start, month_start + interval '1 month');
+
+        INSERT INTO messages (id, message_id, conversation_id, role, content, provider_llm, model_used,
+                              prompt_tokens, completion_tokens, total_tokens, latency_ms, parent_message_id,
+                              metadata, created_at, processed_at)
+        SELECT id, message_id, conversation_id, role, content, provider_llm, model_used,
+               prompt_tokens, completion_tokens, total_tokens, latency_ms, parent_message_id,
+               metadata, created_at, processed_at
+        FROM messages_legacy
+        WHERE created_at >= month_start AND created_at < month_start + interval '1 month';
+
+        month_start := month_start + interval '1 month';
+    END LOOP;
+END $$;
+
+-- Rows without created_at cannot be routed to a partition; fail rather than lose them silently
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM messages_legacy WHERE created_at IS NULL) THEN
+        RAISE EXCEPTION 'messages_legacy has rows with NULL created_at; backfill them before migrating';
+    END IF;
+END $$;
+
+COMMIT;
+
+ANALYZE messages;
+
+-- After verifying SELECT count(*) on both tables:
+-- DROP TABLE messages_legacy;
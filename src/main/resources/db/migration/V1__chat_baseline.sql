@@ -0,0 +1,123 @@
+-- ============================================
+-- CHAT SCHEMA BASELINE (PostgreSQL)
+-- The schema Hibernate maps, as of the first versioned migration. Databases created earlier by
+-- ddl-auto=update are baselined at this version instead of running it.
+-- ============================================
+
+create sequence conversations_seq start with 1 increment by 50;
+
+create sequence messages_seq start with 1 increment by 50;
+
+create sequence users_seq start with 1 increment by 50;
+
+create table conversation_archives (
+    message_count integer not null,
+    archived_at timestamp(6) with time zone not null,
+    raw_bytes bigint not null,
+    codec varchar(16) not null,
+    conversation_id varchar(255) not null,
+    payload bytea not null,
+    primary key (conversation_id)
+);
+
+create table conversation_messages (
+    conversation_id varchar(255) not null,
+    message_id varchar(255) not null
+);
+
+create table conversation_stats (
+    assistant_messages bigint not null,
+    function_messages bigint not null,
+    latency_count bigint not null,
+    latency_max_ms bigint,
+    latency_min_ms bigint,
+    latency_sum_ms bigint not null,
+    message_count bigint not null,
+    system_messages bigint not null,
+    tool_messages bigint not null,
+    total_tokens bigint not null,
+    updated_at timestamp(6) with time zone,
+    user_messages bigint not null,
+    conversation_id varchar(255) not null,
+    primary key (conversation_id)
+);
+
+create table conversations (
+    token_count integer,
+    archived_at timestamp(6),
+    created_at timestamp(6) with time zone,
+    id bigint not null,
+    updated_at timestamp(6) with time zone,
+    user_id bigint not null,
+    conversation_id varchar(255) not null unique,
+    status varchar(255) check (status in ('ACTIVE','ARCHIVED','DELETED')),
+    summary varchar(255),
+    title varchar(255),
+    metadata jsonb,
+    primary key (id)
+);
+
+create table messages (
+    completion_tokens integer,
+    prompt_tokens integer,
+    total_tokens integer,
+    created_at timestamp(6) with time zone,
+    id bigint not null,
+    latency_ms bigint,
+    parent_message_id bigint,
+    processed_at timestamp(6) with time zone,
+    content TEXT not null,
+    conversation_id varchar(255) not null,
+    message_id varchar(255) not null unique,
+    model_used varchar(255),
+    provider_llm varchar(255),
+    role varchar(255) not null check (role in ('USER','ASSISTANT','SYSTEM','TOOL','FUNCTION')),
+    metadata jsonb,
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role varchar(255) check (role in ('USER','ADMIN','MODERATOR'))
+);
+
+create table users (
+    account_non_expired boolean not null,
+    account_non_locked boolean not null,
+    credentials_non_expired boolean not null,
+    email_verified boolean,
+    enabled boolean not null,
+    created_at timestamp(6) with time zone not null,
+    last_login_at timestamp(6) with time zone,
+    user_id bigint not null,
+    email varchar(255) not null unique,
+    first_name varchar(255) not null,
+    last_name varchar(255),
+    password varchar(255),
+    phone_number varchar(255),
+    primary key (user_id)
+);
+
+create index idx_conversation_created
+   on messages (conversation_id, created_at);
+
+create index idx_role_conversation
+   on messages (role, conversation_id);
+
+create index idx_messages_parent
+   on messages (parent_message_id);
+
+alter table if exists conversations
+   add constraint FK_tokens_user_id
+   foreign key (user_id)
+   references users
+   on delete cascade;
+
+alter table if exists messages
+   add constraint FK_messages_conversation_id
+   foreign key (conversation_id)
+   references conversations (conversation_id)
+   on delete cascade;
+
+alter table if exists user_roles
+   add constraint FK_user_roles_user_id FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE;
@@ -0,0 +1,25 @@
+-- ============================================
+-- CHAT SEARCH INDEXES (PostgreSQL)
+-- Migration V2, applied once by chat.schema.migrate. Setups without the migrator can re-run it on every
+-- start with SQL_INIT_MODE=always, so every statement is idempotent.
+-- ============================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Full-text search over message content: generated tsvector kept in sync by PostgreSQL itself
+ALTER TABLE messages
+    ADD COLUMN IF NOT EXISTS content_tsv tsvector
+        GENERATED ALWAYS AS (to_tsvector('english', coalesce(content, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_messages_content_tsv ON messages USING gin (content_tsv);
+
+-- Substring (LIKE/ILIKE '%keyword%') search on conversation titles
+CREATE INDEX IF NOT EXISTS idx_conversations_title_trgm ON conversations USING gin (title gin_trgm_ops);
+
+-- Containment (@>) filters on JSONB metadata. jsonb_path_ops is smaller and faster than the default
+-- opclass but cannot serve key-existence (?) operators, which the metadata query API does not use
+CREATE INDEX IF NOT EXISTS idx_messages_metadata ON messages USING gin (metadata jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_conversations_metadata ON conversations USING gin (metadata jsonb_path_ops);
+
+-- Purge queue: soft-deleted conversations waiting for ConversationPurgeService
+CREATE INDEX IF NOT EXISTS idx_conversations_pending_purge ON conversations (conversation_id) WHERE status = 'DELETED';
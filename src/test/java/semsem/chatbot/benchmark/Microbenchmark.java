@@ -0,0 +1,80 @@
+package semsem.chatbot.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Minimal JMH-style runner for the {@code benchmark} test group: time-boxed warmup and measurement
+ * iterations on the calling thread, reporting the median ns/op and the bytes allocated per operation
+ * (JMH's {@code gc.alloc.rate.norm}), read from the thread's allocation counter. Results are written to
+ * a volatile sink so the JIT cannot drop the measured work. No fork: run it in the surefire JVM with
+ * nothing else in flight. Shared by every {@code benchmark}-tagged microbenchmark so timing and reporting
+ * live in one place.
+ */
+public final class Microbenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile Object sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final Duration iterationTime;
+
+    public Microbenchmark(int warmupIterations, int measurementIterations, Duration iterationTime) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationTime = iterationTime;
+    }
+
+    public Result run(String name, Supplier<?> operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(operation);
+        }
+
+        double[] nanosPerOp = new double[measurementIterations];
+        long operations = 0;
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < measurementIterations; i++) {
+            long start = System.nanoTime();
+            long ops = iteration(operation);
+            nanosPerOp[i] = (double) (System.nanoTime() - start) / ops;
+            operations += ops;
+        }
+        long bytesPerOp = (THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore) / operations;
+
+        Arrays.sort(nanosPerOp);
+        return new Result(name, nanosPerOp[measurementIterations / 2], bytesPerOp, operations);
+    }
+
+    /** Runs the operation in doubling batches until the iteration time is used up. */
+    private long iteration(Supplier<?> operation) {
+        long deadline = System.nanoTime() + iterationTime.toNanos();
+        long ops = 0;
+        int batch = 1;
+        do {
+            for (int i = 0; i < batch; i++) {
+                sink = operation.get();
+            }
+            ops += batch;
+            batch = Math.min(batch * 2, 1 << 16);
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+
+    /** Prints one line per result with its ns/op difference to the first, which is usually the baseline. */
+    public static void report(String title, Result... results) {
+        System.out.println(title);
+        System.out.printf("  %-36s %14s %14s %14s%n", "benchmark", "ns/op", "vs first ns", "B/op");
+        for (Result result : results) {
+            System.out.printf("  %-36s %,14.0f %,14.0f %,14d%n", result.name(), result.nanosPerOp(),
+                    result.nanosPerOp() - results[0].nanosPerOp(), result.bytesPerOp());
+        }
+    }
+
+    public record Result(String name, double nanosPerOp, long bytesPerOp, long operations) {
+    }
+}
@@ -0,0 +1,227 @@
+package semsem.chatbot.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+import semsem.chatbot.mapper.ConversationMapper;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.model.dto.projection.MessageView;
+import semsem.chatbot.model.dto.response.CursorPageResponse;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.dto.response.MyApiResponse;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.security.JwtTokenProvider;
+import semsem.chatbot.util.id.UlidGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request CPU work outside the database: JWT verification, entity/projection to DTO mapping and
+ * Jackson serialization of {@code MyApiResponse<CursorPageResponse<MessageResponse>>}, for pages of 10,
+ * 100 and 1000 messages with 2 KB of content each. Run with
+ * {@code mvn -Pbenchmark test -Dtest=RequestHotPathBenchmarkTest}.
+ * <p>
+ * Each result is compared with {@code benchmark/request-hot-path-baseline.properties}. Bytes allocated
+ * per operation depend on the code and JDK rather than the machine, so growth beyond
+ * {@code benchmark.maxAllocationGrowth} (default 10%) fails the run. Time is machine-dependent: it is
+ * printed next to the baseline and only enforced when {@code -Dbenchmark.maxSlowdown} is given.
+ * Re-record the baseline after an intended change with {@code -Dbenchmark.updateBaseline=true}.
+ */
+@Tag("benchmark")
+class RequestHotPathBenchmarkTest {
+
+    private static final String BASELINE = "benchmark/request-hot-path-baseline.properties";
+    private static final Path BASELINE_SOURCE = Paths.get("src/test/resources", BASELINE);
+    private static final String SECRET =
+            "dGhpc0lzQVNlY3VyZUtleUZvckpXVFRva2VuR2VuZXJhdGlvbkluUHJvZHVjdGlvblVzZUVudmlyb25tZW50VmFyaWFibGU=";
+    private static final int[] PAGE_SIZES = {10, 100, 1000};
+    private static final int CONTENT_BYTES = 2048;
+    private static final Instant NOW = Instant.parse("2026-01-15T10:00:00Z");
+
+    private static final double MAX_ALLOCATION_GROWTH =
+            Double.parseDouble(System.getProperty("benchmark.maxAllocationGrowth", "0.10"));
+    private static final String MAX_SLOWDOWN = System.getProperty("benchmark.maxSlowdown");
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("benchmark.updateBaseline");
+
+    private final Microbenchmark bench = new Microbenchmark(5, 5, Duration.ofMillis(300));
+    private final MessageMapper messageMapper = new MessageMapper(new UlidGenerator(Clock.systemUTC()));
+    private final ConversationMapper conversationMapper = new ConversationMapper(messageMapper, new UlidGenerator(Clock.systemUTC()));
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void requestHotPathStaysWithinBaseline() throws Exception {
+        List<Microbenchmark.Result> results = new ArrayList<>();
+
+        JwtTokenProvider verifying = jwtProvider(0);
+        JwtTokenProvider caching = jwtProvider(10_000);
+        String token = verifying.generateAccessToken(User.withUsername("bench@example.com").password("x").roles("USER").build());
+        results.add(bench.run("jwt.parseClaims.verify", () -> verifying.parseClaims(token).orElseThrow()));
+        results.add(bench.run("jwt.parseClaims.cached", () -> caching.parseClaims(token).orElseThrow()));
+
+        Conversation conversation = conversation();
+        Message entity = entity(conversation, 0);
+        results.add(bench.run("message.toResponse.entity", () -> messageMapper.toResponse(entity)));
+
+        for (int size : PAGE_SIZES) {
+            List<MessageView> views = views(size);
+            List<MessageResponse> page = messageMapper.toResponseList(views);
+            MyApiResponse<CursorPageResponse<MessageResponse>> body = MyApiResponse.success(CursorPageResponse.<MessageResponse>builder()
+                    .items(page)
+                    .size(page.size())
+                    .nextCursor("eyJpZCI6MTAwMCwiY3JlYXRlZEF0IjoiMjAyNi0wMS0xNVQxMDowMDowMFoifQ")
+                    .hasNext(true)
+                    .build());
+
+            results.add(bench.run("message.toResponseList." + size, () -> messageMapper.toResponseList(views)));
+            results.add(bench.run("conversation.toResponseWithDetails." + size, () ->
+                    conversationMapper.toResponseWithDetails(conversation, views, views.get(size - 1), size)));
+            results.add(bench.run("json.messagePage." + size, () -> {
+                try {
+                    return objectMapper.writeValueAsBytes(body);
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+        }
+
+        Properties baseline = loadBaseline();
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-40s %14s %14s %14s %14s%n", "benchmark", "ns/op", "baseline", "B/op", "baseline");
+        for (Microbenchmark.Result result : results) {
+            long baselineNanos = Long.parseLong(baseline.getProperty(result.name() + ".nanosPerOp", "0"));
+            long baselineBytes = Long.parseLong(baseline.getProperty(result.name() + ".bytesPerOp", "0"));
+            System.out.printf("%-40s %,14.0f %,14d %,14d %,14d%n",
+                    result.name(), result.nanosPerOp(), baselineNanos, result.bytesPerOp(), baselineBytes);
+
+            if (UPDATE_BASELINE) {
+                continue;
+            }
+            assertThat(baseline).as("baseline for " + result.name()).containsKey(result.name() + ".bytesPerOp");
+            if (result.bytesPerOp() > baselineBytes * (1 + MAX_ALLOCATION_GROWTH) + 64) {
+                regressions.add(result.name() + " allocates " + result.bytesPerOp() + " B/op, baseline " + baselineBytes);
+            }
+            if (MAX_SLOWDOWN != null && result.nanosPerOp() > baselineNanos * Double.parseDouble(MAX_SLOWDOWN)) {
+                regressions.add(result.name() + " takes " + Math.round(result.nanosPerOp()) + " ns/op, baseline " + baselineNanos);
+            }
+        }
+
+        if (UPDATE_BASELINE) {
+            writeBaseline(results);
+        }
+        assertThat(regressions).as("regressions against " + BASELINE).isEmpty();
+    }
+
+    private static JwtTokenProvider jwtProvider(int cacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "refreshExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", cacheMaxSize);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private static Conversation conversation() {
+        return Conversation.builder()
+                .conversationId("conv_01JHBENCH000000000000000")
+                .title("Two bedroom flats near the park")
+                .status(ConversationStatus.ACTIVE)
+                .tokenCount(125_000)
+                .summary("Looking for a two bedroom flat with parking under 2,000 per month")
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    private static Message entity(Conversation conversation, int i) {
+        return Message.builder()
+                .messageId("msg_01JHBENCH" + String.format("%016d", i))
+                .conversation(conversation)
+                .role(i % 2 == 0 ? MessageRole.USER : MessageRole.ASSISTANT)
+                .content(content(i))
+                .providerLlm("google")
+                .modelUsed("gemini-pro")
+                .promptTokens(420)
+                .completionTokens(380)
+                .totalTokens(800)
+                .latencyMs(950L)
+                .metadata(metadata(i))
+                .createdAt(NOW.plusSeconds(i))
+                .processedAt(NOW.plusSeconds(i + 1))
+                .build();
+    }
+
+    private static List<MessageView> views(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> new MessageView((long) i, "msg_01JHBENCH" + String.format("%016d", i),
+                        "conv_01JHBENCH000000000000000", i % 2 == 0 ? MessageRole.USER : MessageRole.ASSISTANT,
+                        content(i), "google", "gemini-pro", 420, 380, 800, 950L, i > 0 ? (long) i - 1 : null,
+                        metadata(i), NOW.plusSeconds(i), NOW.plusSeconds(i + 1)))
+                .toList();
+    }
+
+    /** 2 KB of listing-style text with some non-ASCII characters, as in real chat replies. */
+    private static String content(int i) {
+        StringBuilder content = new StringBuilder(CONTENT_BYTES);
+        content.append("Listing ").append(i).append(": ");
+        while (content.length() < CONTENT_BYTES) {
+            content.append("Two bedroom flat near the park, balcony, parking included, 1,850 € per month. \"Quiet street\". ");
+        }
+        content.setLength(CONTENT_BYTES);
+        return content.toString();
+    }
+
+    private static ObjectNode metadata(int i) {
+        ObjectNode metadata = JsonNodeFactory.instance.objectNode();
+        metadata.put("source", "chat");
+        metadata.put("listingId", 10_000 + i);
+        metadata.putArray("tags").add("parking").add("balcony");
+        return metadata;
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = RequestHotPathBenchmarkTest.class.getClassLoader().getResourceAsStream(BASELINE)) {
+            if (in != null) {
+                baseline.load(in);
+            }
+        }
+        return baseline;
+    }
+
+    private static void writeBaseline(List<Microbenchmark.Result> results) throws IOException {
+        Files.createDirectories(BASELINE_SOURCE.getParent());
+        try (Writer out = Files.newBufferedWriter(BASELINE_SOURCE)) {
+            out.write("# Baseline for RequestHotPathBenchmarkTest, recorded with -Dbenchmark.updateBaseline=true\n");
+            out.write("# JDK " + Runtime.version() + ", " + Runtime.getRuntime().availableProcessors() + " CPU(s), "
+                    + System.getProperty("os.name") + " " + System.getProperty("os.arch") + "\n");
+            out.write("# bytesPerOp is checked on every run; nanosPerOp only with -Dbenchmark.maxSlowdown=<factor>\n");
+            for (Microbenchmark.Result result : results) {
+                out.write(result.name() + ".nanosPerOp=" + Math.round(result.nanosPerOp()) + "\n");
+                out.write(result.name() + ".bytesPerOp=" + result.bytesPerOp() + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package semsem.chatbot.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import semsem.chatbot.config.DataSourceRoutingConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceRoutingConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(DataSourcePropertiesConfig.class, DataSourceRoutingConfig.class)
+            .withPropertyValues(
+                    "chat.datasource.routing.enabled=true",
+                    "spring.datasource.url=jdbc:h2:mem:routing_config",
+                    "spring.datasource.hikari.maximum-pool-size=7",
+                    "spring.datasource.hikari.connection-timeout=1500"
+            );
+
+    @Test
+    void primaryPoolIsBoundToHikariProperties() {
+        contextRunner.run(context -> {
+            HikariDataSource primary = context.getBean(HikariDataSource.class);
+
+            assertThat(primary.getMaximumPoolSize()).isEqualTo(7);
+            assertThat(primary.getConnectionTimeout()).isEqualTo(1500);
+            assertThat(primary.getPoolName()).isEqualTo("primary");
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfig {
+    }
+}
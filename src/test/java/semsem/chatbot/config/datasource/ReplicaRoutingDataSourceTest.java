@@ -0,0 +1,177 @@
+package semsem.chatbot.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies routing against an in-process pair of H2 databases standing in for primary and replica.
+ * Each database answers "SELECT name FROM node" with its own name; the replica's lag is a table value.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration PIN_WINDOW = Duration.ofSeconds(5);
+
+    private final MutableClock clock = new MutableClock();
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("routing_primary");
+        replica = h2("routing_replica");
+        new JdbcTemplate(primary).execute("CREATE TABLE node (name VARCHAR(20)); INSERT INTO node VALUES ('primary')");
+        new JdbcTemplate(replica).execute("CREATE TABLE node (name VARCHAR(20)); INSERT INTO node VALUES ('replica');"
+                + "CREATE TABLE replica_lag (lag_ms BIGINT); INSERT INTO replica_lag VALUES (0)");
+
+        routing = new ReplicaRoutingDataSource(
+                primary,
+                Map.of("r1", replica),
+                "SELECT lag_ms FROM replica_lag",
+                Duration.ofSeconds(1),
+                new ReadYourWritesRegistry(PIN_WINDOW, clock)
+        );
+        routing.afterPropertiesSet();
+        routing.refreshReplicaHealth();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        assertThat(readOnlyNode()).isEqualTo("replica");
+        assertThat(readWriteNode()).isEqualTo("primary");
+        assertThat(currentNode()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsStayOnPrimaryUntilTheFirstProbe() {
+        ReplicaRoutingDataSource unprobed = new ReplicaRoutingDataSource(primary, Map.of("r1", replica),
+                "SELECT lag_ms FROM replica_lag", Duration.ofSeconds(1), new ReadYourWritesRegistry(PIN_WINDOW, clock));
+        unprobed.afterPropertiesSet();
+
+        assertThat(unprobed.getHealthMonitor().isEligible("r1")).isFalse();
+        unprobed.refreshReplicaHealth();
+        assertThat(unprobed.getHealthMonitor().isEligible("r1")).isTrue();
+    }
+
+    @Test
+    void laggingOrFailingReplicaFallsBackToPrimary() {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET lag_ms = 5000");
+        routing.refreshReplicaHealth();
+        assertThat(readOnlyNode()).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET lag_ms = 10");
+        routing.refreshReplicaHealth();
+        assertThat(readOnlyNode()).isEqualTo("replica");
+
+        new JdbcTemplate(replica).execute("DROP TABLE replica_lag");
+        routing.refreshReplicaHealth();
+        assertThat(routing.getHealthMonitor().isEligible("r1")).isFalse();
+        assertThat(readOnlyNode()).isEqualTo("primary");
+    }
+
+    @Test
+    void userIsPinnedToPrimaryForAWindowAfterCommittingAWrite() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer@example.com", null, List.of()));
+
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO node VALUES ('written')"));
+        assertThat(readOnlyNode()).isEqualTo("primary");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("reader@example.com", null, List.of()));
+        assertThat(readOnlyNode()).isEqualTo("replica");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer@example.com", null, List.of()));
+        clock.advance(PIN_WINDOW.plusMillis(1));
+        assertThat(readOnlyNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPin() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer@example.com", null, List.of()));
+
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO node VALUES ('discarded')");
+            status.setRollbackOnly();
+        });
+        assertThat(readOnlyNode()).isEqualTo("replica");
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> currentNode());
+    }
+
+    private String readWriteNode() {
+        return readWrite.execute(status -> currentNode());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node ORDER BY name LIMIT 1", String.class);
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
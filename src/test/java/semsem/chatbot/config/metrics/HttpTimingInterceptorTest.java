@@ -0,0 +1,57 @@
+package semsem.chatbot.config.metrics;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpTimingInterceptorTest {
+
+    private static final String URI = "/api/v1/conversations/{conversationId}/messages/sync";
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final HttpTimingInterceptor interceptor = new HttpTimingInterceptor(registry);
+
+    @Test
+    void recordsOneSamplePerRequest() {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(histogram().count()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncRequestIsTimedOnceFromTheFirstDispatch() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        Thread.sleep(50);
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        LatencyHistogram histogram = histogram();
+        assertThat(histogram.count()).isEqualTo(1);
+        assertThat(histogram.max()).isGreaterThanOrEqualTo(0.05);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/conversations/conv_1/messages/sync");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+        return request;
+    }
+
+    private LatencyHistogram histogram() {
+        return registry.histogram(HttpTimingInterceptor.METRIC, "", "method", "GET", "uri", URI, "status", "200");
+    }
+}
@@ -0,0 +1,67 @@
+package semsem.chatbot.config.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import semsem.chatbot.config.IdGeneratorConfig;
+import semsem.chatbot.config.MetricsConfig;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.repository.MessageRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MetricsConfig.class, MessageMapper.class, IdGeneratorConfig.class})
+class MetricsConfigTest {
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Test
+    void repositoriesAndMappersAreTimed() {
+        messageRepository.findByConversationId("conv_missing");
+        messageMapper.toResponseList(List.of());
+
+        assertThat(AopUtils.isCglibProxy(messageMapper)).isTrue();
+        assertThat(metricsRegistry.scrape())
+                .contains("chat_repository_seconds_count{repository=\"MessageRepository\",method=\"findByConversationId\",size=\"0\"} 1")
+                .contains("chat_mapper_seconds_count{mapper=\"MessageMapper\",method=\"toResponseList\",size=\"0\"} 1");
+    }
+
+    @Test
+    void onlyMarkedSubclassableUnproxiedBeansAreWrapped() {
+        BeanPostProcessor postProcessor = MetricsConfig.timedComponentsPostProcessor(new MetricsRegistry());
+        Object unmarked = new Object();
+        FinalMapper finalMapper = new FinalMapper();
+        Object proxied = new ProxyFactory(new OpenMapper()).getProxy();
+
+        assertThat(postProcessor.postProcessAfterInitialization(unmarked, "unmarked")).isSameAs(unmarked);
+        assertThat(postProcessor.postProcessAfterInitialization(finalMapper, "finalMapper")).isSameAs(finalMapper);
+        assertThat(postProcessor.postProcessAfterInitialization(proxied, "proxied")).isSameAs(proxied);
+        assertThat(AopUtils.isCglibProxy(postProcessor.postProcessAfterInitialization(new OpenMapper(), "open"))).isTrue();
+    }
+
+    @TimedComponent("mapper")
+    static final class FinalMapper {
+    }
+
+    @TimedComponent("mapper")
+    static class OpenMapper {
+    }
+}
@@ -0,0 +1,71 @@
+package semsem.chatbot.config.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    interface Lookup {
+        List<String> find(int size);
+
+        String one();
+    }
+
+    @Test
+    void rendersCumulativeHistogramsInPrometheusFormat() {
+        LatencyHistogram histogram = registry.histogram("chat_test_seconds", "Test timer", "route", "/a\"b");
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(300));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.record(TimeUnit.SECONDS.toNanos(30));
+
+        String scrape = registry.scrape();
+
+        assertThat(scrape)
+                .contains("# TYPE chat_test_seconds histogram\n")
+                .contains("chat_test_seconds_bucket{route=\"/a\\\"b\",le=\"5.0E-4\"} 1\n")
+                .contains("chat_test_seconds_bucket{route=\"/a\\\"b\",le=\"0.005\"} 2\n")
+                .contains("chat_test_seconds_bucket{route=\"/a\\\"b\",le=\"10.0\"} 2\n")
+                .contains("chat_test_seconds_bucket{route=\"/a\\\"b\",le=\"+Inf\"} 3\n")
+                .contains("chat_test_seconds_count{route=\"/a\\\"b\"} 3\n")
+                .contains("chat_test_seconds_max{route=\"/a\\\"b\"} 30.0\n");
+        assertThat(registry.histogram("chat_test_seconds", "Test timer", "route", "/a\"b")).isSameAs(histogram);
+    }
+
+    @Test
+    void interceptorLabelsCollectionResultsBySize() {
+        Lookup target = new Lookup() {
+            @Override
+            public List<String> find(int size) {
+                return Collections.nCopies(size, "m");
+            }
+
+            @Override
+            public String one() {
+                return "m";
+            }
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(new TimedMethodInterceptor(registry, "chat_lookup_seconds", "Lookup time", "component", "Lookup"));
+        Lookup lookup = (Lookup) proxyFactory.getProxy();
+
+        lookup.find(5);
+        lookup.find(7);
+        lookup.find(500);
+        lookup.one();
+
+        assertThat(registry.histogram("chat_lookup_seconds", "", "component", "Lookup", "method", "find", "size", "1-10").count())
+                .isEqualTo(2);
+        assertThat(registry.histogram("chat_lookup_seconds", "", "component", "Lookup", "method", "find", "size", "101-1000").count())
+                .isEqualTo(1);
+        assertThat(registry.histogram("chat_lookup_seconds", "", "component", "Lookup", "method", "one").count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,76 @@
+package semsem.chatbot.config.metrics;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCountInterceptorTest {
+
+    private static final String URI = "/api/v1/conversations/{conversationId}";
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final StatementCountInterceptor interceptor = new StatementCountInterceptor(registry, 3);
+    private final StatementCounter inspector = new StatementCounter();
+
+    @Test
+    void countsStatementsPerRouteAndFlagsRepeatedShapes() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/conversations/conv_1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        inspector.inspect("select c.id from conversations c where c.conversation_id=?");
+        for (int i = 0; i < 4; i++) {
+            inspector.inspect("select m.id from messages m where m.conversation_id=?");
+        }
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Nothing is recorded once the request is over
+        inspector.inspect("select 1");
+
+        ValueSummary statements = registry.summary("chat_http_server_statements", "", "method", "GET", "uri", URI);
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.sum()).isEqualTo(5);
+
+        ValueSummary suspected = registry.summary("chat_n_plus_one_suspected", "", "method", "GET", "uri", URI);
+        assertThat(suspected.count()).isEqualTo(1);
+        assertThat(suspected.sum()).isEqualTo(4);
+    }
+
+    @Test
+    void asyncRequestIsCountedOnceUpToTheHandoff() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/conversations/conv_1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        inspector.inspect("select c.id from conversations c where c.conversation_id=?");
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, new Object());
+        inspector.inspect("select 1");
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        ValueSummary statements = registry.summary("chat_http_server_statements", "", "method", "GET", "uri", URI);
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.sum()).isEqualTo(1);
+    }
+
+    @Test
+    void nestedLogsSeeTheSameStatements() {
+        StatementLog outer = StatementCounter.start();
+        StatementLog inner = StatementCounter.start();
+        inspector.inspect("select 1");
+        StatementCounter.stop(inner);
+        inspector.inspect("select 2");
+        StatementCounter.stop(outer);
+
+        assertThat(inner.count()).isEqualTo(1);
+        assertThat(outer.count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,47 @@
+package semsem.chatbot.config.metrics;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test helper: runs a call with {@link StatementCounter} recording and fails if it prepared more SQL
+ * statements than allowed. Needs the statement inspector, which the test profile registers. Flush and
+ * clear the persistence context first, or writes pending from the test setup are counted too.
+ */
+public final class StatementCounts {
+
+    private StatementCounts() {
+    }
+
+    public static <T> T assertMaxStatements(int max, Supplier<T> call) {
+        StatementLog statements = StatementCounter.start();
+        T result;
+        try {
+            result = call.get();
+        } finally {
+            StatementCounter.stop(statements);
+        }
+        assertThat(statements.count())
+                .as("SQL statements executed; by shape: %s", statements.repeated(1))
+                .isLessThanOrEqualTo(max);
+        return result;
+    }
+
+    public static void assertMaxStatements(int max, Runnable call) {
+        assertMaxStatements(max, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public static StatementLog count(Runnable call) {
+        StatementLog statements = StatementCounter.start();
+        try {
+            call.run();
+        } finally {
+            StatementCounter.stop(statements);
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,45 @@
+package semsem.chatbot.config.metrics;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import semsem.chatbot.benchmark.Microbenchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost the repository/mapper timer adds to a call, against the same proxy without the timer.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class TimedMethodInterceptorBenchmarkTest {
+
+    private final Microbenchmark bench = new Microbenchmark(5, 5, Duration.ofMillis(300));
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void timerAddsWellUnderAMicrosecondPerCall() {
+        List<String> rows = List.of("a", "b", "c");
+        IntFunction<List<String>> target = i -> rows;
+
+        ProxyFactory plainFactory = new ProxyFactory(target);
+        plainFactory.addInterface(IntFunction.class);
+        IntFunction<List<String>> plain = (IntFunction<List<String>>) plainFactory.getProxy();
+
+        ProxyFactory timedFactory = new ProxyFactory(target);
+        timedFactory.addInterface(IntFunction.class);
+        timedFactory.addAdvice(new TimedMethodInterceptor(new MetricsRegistry(), "chat_bench_seconds", "Benchmark",
+                "repository", "Bench"));
+        IntFunction<List<String>> timed = (IntFunction<List<String>>) timedFactory.getProxy();
+
+        Microbenchmark.Result untimed = bench.run("proxy.untimed", () -> plain.apply(1));
+        Microbenchmark.Result withTimer = bench.run("proxy.timed", () -> timed.apply(1));
+
+        Microbenchmark.report("Timed proxy per call", untimed, withTimer);
+        assertThat(withTimer.nanosPerOp() - untimed.nanosPerOp()).isLessThan(1_000);
+    }
+}
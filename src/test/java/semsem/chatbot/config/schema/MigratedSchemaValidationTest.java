@@ -0,0 +1,55 @@
+package semsem.chatbot.config.schema;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import semsem.chatbot.config.SchemaMigrationConfig;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.repository.UserRepository;
+import semsem.chatbot.support.TestUsers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrations plus validation on every build: the V1 baseline runs through {@link SchemaMigrator} and Hibernate
+ * only validates it, so a mapping change without a matching migration fails here. V2 (tsvector/pg_trgm) is
+ * PostgreSQL-only and left out.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SchemaMigrationConfig.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrated_schema;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;INIT=CREATE DOMAIN IF NOT EXISTS JSONB AS JSON",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "chat.schema.migrate=true",
+        "chat.schema.locations=classpath*:db/migration/V1__*.sql"
+})
+class MigratedSchemaValidationTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void hibernateValidatesTheBaselineMigration() {
+        assertThat(jdbc.queryForList("SELECT version FROM " + SchemaMigrator.HISTORY_TABLE + " WHERE NOT baseline",
+                Integer.class)).containsExactly(1);
+    }
+
+    @Test
+    void entitiesRoundTripThroughTheMigratedTables() {
+        AppUser saved = userRepository.saveAndFlush(TestUsers.user("Migrated", "migrated@example.com"));
+
+        assertThat(userRepository.findByEmail("migrated@example.com"))
+                .hasValueSatisfying(user -> assertThat(user.getUserId()).isEqualTo(saved.getUserId()));
+    }
+}
@@ -0,0 +1,101 @@
+package semsem.chatbot.config.schema;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SchemaMigratorTest {
+
+    @TempDir
+    Path scripts;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void appliesScriptsInVersionOrderAndSkipsThemOnTheNextStart() throws Exception {
+        script("V2__add_title.sql", "ALTER TABLE conversations ADD COLUMN title VARCHAR(100);");
+        script("V10__seed.sql", "INSERT INTO conversations (id, title) VALUES (1, 'first');");
+        script("V1__baseline.sql", "CREATE TABLE conversations (id BIGINT PRIMARY KEY);");
+        script("notes.sql", "THIS IS NOT A MIGRATION;");
+
+        assertThat(migrator().migrate()).isEqualTo(3);
+        assertThat(migrator().migrate()).isZero();
+
+        assertThat(jdbc.queryForObject("SELECT title FROM conversations WHERE id = 1", String.class)).isEqualTo("first");
+        assertThat(jdbc.queryForList("SELECT version FROM schema_migrations ORDER BY version", Integer.class))
+                .containsExactly(1, 2, 10);
+    }
+
+    @Test
+    void failsWhenAnAppliedScriptWasEdited() throws Exception {
+        script("V1__baseline.sql", "CREATE TABLE conversations (id BIGINT PRIMARY KEY);");
+        migrator().migrate();
+
+        script("V1__baseline.sql", "CREATE TABLE conversations (id BIGINT PRIMARY KEY, title VARCHAR(100));");
+
+        assertThatThrownBy(() -> migrator().migrate())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("V1 was modified");
+    }
+
+    @Test
+    void baselinesAnExistingSchemaInsteadOfRecreatingIt() throws Exception {
+        jdbc.execute("CREATE TABLE conversations (id BIGINT PRIMARY KEY)");
+        script("V1__baseline.sql", "CREATE TABLE conversations (id BIGINT PRIMARY KEY);");
+        script("V2__add_title.sql", "ALTER TABLE conversations ADD COLUMN title VARCHAR(100);");
+
+        assertThat(migrator().migrate()).isEqualTo(1);
+
+        assertThat(jdbc.queryForList("SELECT baseline FROM schema_migrations ORDER BY version", Boolean.class))
+                .containsExactly(true, false);
+    }
+
+    @Test
+    void rollsBackAFailedScriptSoItRunsAgainOnceFixed() throws Exception {
+        script("V1__baseline.sql", "CREATE TABLE conversations (id BIGINT PRIMARY KEY);");
+        script("V2__broken.sql", "INSERT INTO conversations (id) VALUES (1); INSERT INTO missing_table VALUES (1);");
+
+        assertThatThrownBy(() -> migrator().migrate()).isInstanceOf(RuntimeException.class);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM conversations", Integer.class)).isZero();
+
+        script("V2__broken.sql", "INSERT INTO conversations (id) VALUES (1);");
+
+        assertThat(migrator().migrate()).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM conversations", Integer.class)).isOne();
+    }
+
+    @Test
+    void rejectsDuplicateVersions() throws Exception {
+        script("V1__baseline.sql", "CREATE TABLE conversations (id BIGINT PRIMARY KEY);");
+        script("V1__other.sql", "CREATE TABLE other (id BIGINT PRIMARY KEY);");
+
+        assertThatThrownBy(() -> migrator().migrate())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Duplicate migration version V1");
+    }
+
+    private SchemaMigrator migrator() {
+        return new SchemaMigrator(dataSource, scripts.toUri() + "V*__*.sql");
+    }
+
+    private void script(String name, String sql) throws Exception {
+        Files.writeString(scripts.resolve(name), sql);
+    }
+}
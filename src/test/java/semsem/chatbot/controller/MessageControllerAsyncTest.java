@@ -0,0 +1,204 @@
+package semsem.chatbot.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.repository.UserRepository;
+import semsem.chatbot.security.JwtTokenProvider;
+import semsem.chatbot.support.TestUsers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Async handlers through the real security filter chain: the response of a long-poll and the body of a
+ * streamed export are written on an ASYNC re-dispatch, which must not be re-authorized without the JWT
+ * filter's security context.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MessageControllerAsyncTest {
+
+    private static final String EMAIL = "async@example.com";
+    private static final String CONVERSATION_ID = "conv_async";
+    private static final String SYNC = "/api/v1/conversations/{conversationId}/messages/sync";
+    private static final String EXPORT = "/api/v1/conversations/{conversationId}/messages/export";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String bearer;
+
+    @BeforeEach
+    void seed() {
+        AppUser user = userRepository.findByEmail(EMAIL)
+                .orElseGet(() -> userRepository.save(TestUsers.user("Async", EMAIL)));
+        bearer = "Bearer " + jwtTokenProvider.generateAccessToken(user);
+
+        if (conversationRepository.existsByConversationId(CONVERSATION_ID)) {
+            return;
+        }
+        Conversation conversation = conversationRepository.save(Conversation.builder()
+                .conversationId(CONVERSATION_ID)
+                .title("Async")
+                .appUser(user)
+                .status(ConversationStatus.ACTIVE)
+                .tokenCount(0)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+        for (int i = 0; i < 3; i++) {
+            messageRepository.save(Message.builder()
+                    .messageId("msg_async_" + i)
+                    .conversation(conversation)
+                    .role(MessageRole.USER)
+                    .content("message " + i)
+                    .build());
+        }
+    }
+
+    @Test
+    void syncCompletesOnTheAsyncDispatch() throws Exception {
+        mockMvc.perform(asyncDispatch(startSync(null, 0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.messages.length()").value(3))
+                .andExpect(jsonPath("$.data.cursor").isNotEmpty());
+    }
+
+    @Test
+    void parkedSyncTimesOutOnTheAsyncDispatch() throws Exception {
+        String initial = mockMvc.perform(asyncDispatch(startSync(null, 0)))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(initial, "$.data.cursor");
+
+        mockMvc.perform(asyncDispatch(startSync(cursor, 50)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.timedOut").value(true))
+                .andExpect(jsonPath("$.data.messages.length()").value(0));
+    }
+
+    @Test
+    void syncWithoutTokenIsStillRejected() throws Exception {
+        mockMvc.perform(get(SYNC, CONVERSATION_ID).param("timeoutMs", "0"))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    @Test
+    void syncOfUnknownConversationIsNotFound() throws Exception {
+        mockMvc.perform(get(SYNC, "conv_missing")
+                        .param("timeoutMs", "0")
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void exportStreamsOneJsonObjectPerLine() throws Exception {
+        MvcResult started = mockMvc.perform(get(EXPORT, CONVERSATION_ID).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertExportLines(new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipExportDecompressesToTheSameLines() throws Exception {
+        MvcResult started = mockMvc.perform(get(EXPORT, CONVERSATION_ID)
+                        .param("gzip", "true")
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertExportLines(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void exportOfUnknownConversationIsNotFoundBeforeStreaming() throws Exception {
+        mockMvc.perform(get(EXPORT, "conv_missing").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNotFound())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    private void assertExportLines(String ndjson) throws Exception {
+        assertThat(ndjson).endsWith("\n");
+        List<String> lines = ndjson.lines().toList();
+        assertThat(lines).hasSize(3);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            assertThat(line).startsWith("{").endsWith("}");
+            MessageResponse message = objectMapper.readValue(line, MessageResponse.class);
+            assertThat(message.getMessageId()).isEqualTo("msg_async_" + i);
+            assertThat(message.getConversationId()).isEqualTo(CONVERSATION_ID);
+            assertThat(message.getContent()).isEqualTo("message " + i);
+        }
+    }
+
+    private MvcResult startSync(String cursor, long timeoutMs) throws Exception {
+        MockHttpServletRequestBuilder sync = get(SYNC, CONVERSATION_ID)
+                .param("timeoutMs", String.valueOf(timeoutMs))
+                .header(HttpHeaders.AUTHORIZATION, bearer);
+        if (cursor != null) {
+            sync.param("cursor", cursor);
+        }
+        return mockMvc.perform(sync)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,84 @@
+package semsem.chatbot.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.repository.UserRepository;
+import semsem.chatbot.security.JwtTokenProvider;
+import semsem.chatbot.support.TestUsers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Request handling of the cross-conversation search endpoint. The ranked query itself is PostgreSQL-only
+ * (tsvector), so these cases stop at the validation in front of it; {@code MessageSearchServiceTest} covers paging.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MessageSearchControllerTest {
+
+    private static final String EMAIL = "search-controller@example.com";
+    private static final String SEARCH = "/api/v1/messages/search";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String bearer;
+
+    @BeforeEach
+    void seed() {
+        AppUser user = userRepository.findByEmail(EMAIL)
+                .orElseGet(() -> userRepository.save(TestUsers.user("Search", EMAIL)));
+        bearer = "Bearer " + jwtTokenProvider.generateAccessToken(user);
+    }
+
+    @Test
+    void searchRequiresAToken() throws Exception {
+        mockMvc.perform(get(SEARCH).param("q", "villa"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void missingQueryIsABadRequest() throws Exception {
+        mockMvc.perform(get(SEARCH).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void blankQueryIsABadRequest() throws Exception {
+        mockMvc.perform(get(SEARCH).header(HttpHeaders.AUTHORIZATION, bearer).param("q", "   "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void outOfRangePageSizeIsABadRequest() throws Exception {
+        mockMvc.perform(get(SEARCH).header(HttpHeaders.AUTHORIZATION, bearer).param("q", "villa").param("size", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tamperedCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get(SEARCH).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .param("q", "villa")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("INVALID_CURSOR"));
+    }
+}
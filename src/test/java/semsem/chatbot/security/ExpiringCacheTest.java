@@ -0,0 +1,64 @@
+package semsem.chatbot.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(Long.MAX_VALUE - 5);
+
+    @Test
+    void entryIsServedUntilItsDeadlineEvenAcrossClockOverflow() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, clock::get);
+        cache.put("a", "alpha", clock.get() + 10);
+
+        clock.addAndGet(9);
+        assertThat(cache.get("a")).isEqualTo("alpha");
+
+        clock.incrementAndGet();
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void fullCacheSweepsExpiredEntriesBeforeDroppingLiveOnes() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2, clock::get);
+        cache.put("old", "o", clock.get() + 1);
+        cache.put("live", "l", clock.get() + 100);
+
+        clock.addAndGet(5);
+        cache.put("new", "n", clock.get() + 100);
+
+        assertThat(cache.get("live")).isEqualTo("l");
+        assertThat(cache.get("new")).isEqualTo("n");
+        assertThat(cache.get("old")).isNull();
+
+        cache.put("newer", "n2", clock.get() + 100);
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+        assertThat(cache.get("newer")).isEqualTo("n2");
+    }
+
+    @Test
+    void replacingAKeyInAFullCacheEvictsNothing() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2, clock::get);
+        cache.put("a", "1", clock.get() + 100);
+        cache.put("b", "2", clock.get() + 100);
+
+        cache.put("a", "3", clock.get() + 100);
+
+        assertThat(cache.get("a")).isEqualTo("3");
+        assertThat(cache.get("b")).isEqualTo("2");
+    }
+
+    @Test
+    void zeroSizeStoresNothing() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(0, clock::get);
+        cache.put("a", "alpha", clock.get() + 10);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,62 @@
+package semsem.chatbot.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import semsem.chatbot.benchmark.Microbenchmark;
+import semsem.chatbot.config.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request overhead of {@link JwtAuthenticationFilter} with a trivial user lookup, comparing the verified-token
+ * cache against full verification on every request. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JwtAuthenticationFilterBenchmarkTest {
+
+    private final Microbenchmark bench = new Microbenchmark(5, 5, Duration.ofMillis(300));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cachedVerificationCutsFilterOverhead() {
+        Microbenchmark.Result uncached = bench.run("jwt.filter.verify", request(JwtTokenProviderTest.provider(3_600_000, 0)));
+        Microbenchmark.Result cached = bench.run("jwt.filter.cached", request(JwtTokenProviderTest.provider(3_600_000, 10_000)));
+
+        Microbenchmark.report("JWT filter per request", uncached, cached);
+        assertThat(cached.nanosPerOp()).isLessThan(uncached.nanosPerOp());
+    }
+
+    private static Supplier<Object> request(JwtTokenProvider provider) {
+        UserDetails user = JwtTokenProviderTest.user("bench@example.com");
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(provider, username -> user, null, PrincipalMode.DATABASE,
+                new MetricsRegistry());
+        String header = "Bearer " + provider.generateAccessToken(user);
+
+        return () -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/conversations");
+            request.addHeader("Authorization", header);
+            try {
+                filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            Object authentication = SecurityContextHolder.getContext().getAuthentication();
+            assertThat(authentication).isNotNull();
+            SecurityContextHolder.clearContext();
+            return authentication;
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package semsem.chatbot.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import semsem.chatbot.config.metrics.MetricsRegistry;
+import semsem.chatbot.model.dto.projection.UserAccountView;
+import semsem.chatbot.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String EMAIL = "claims@example.com";
+
+    private final JwtTokenProvider tokenProvider = JwtTokenProviderTest.provider(60_000, 100);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private UserAccountCache accountCache;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        accountCache = new UserAccountCache(userRepository, Duration.ofMinutes(1), 100);
+        filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, accountCache, PrincipalMode.CLAIMS,
+                new MetricsRegistry());
+        token = tokenProvider.generateAccessToken(JwtTokenProviderTest.user(EMAIL));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void principalComesFromClaimsAndAccountStateIsCached() throws Exception {
+        when(userRepository.findAccountByEmail(EMAIL)).thenReturn(Optional.of(account(true)));
+
+        Authentication first = authenticate();
+        Authentication second = authenticate();
+
+        assertThat(first.getName()).isEqualTo(EMAIL);
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        assertThat(second.getName()).isEqualTo(EMAIL);
+        verify(userRepository, times(1)).findAccountByEmail(EMAIL);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void disabledOrUnknownAccountsAreNotAuthenticated() throws Exception {
+        when(userRepository.findAccountByEmail(anyString())).thenReturn(Optional.of(account(false)));
+        assertThat(authenticate()).isNull();
+
+        accountCache.invalidate(EMAIL);
+        when(userRepository.findAccountByEmail(anyString())).thenReturn(Optional.empty());
+        assertThat(authenticate()).isNull();
+    }
+
+    @Test
+    void accountChangeEvictsCachedState() throws Exception {
+        when(userRepository.findAccountByEmail(EMAIL)).thenReturn(Optional.of(account(true)));
+        assertThat(authenticate()).isNotNull();
+
+        when(userRepository.findAccountByEmail(EMAIL)).thenReturn(Optional.of(account(false)));
+        assertThat(authenticate()).isNotNull();
+
+        accountCache.onAccountChanged(new UserAccountChangedEvent(EMAIL));
+        assertThat(authenticate()).isNull();
+        verify(userRepository, times(2)).findAccountByEmail(EMAIL);
+    }
+
+    private Authentication authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/conversations");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static UserAccountView account(boolean enabled) {
+        return new UserAccountView(EMAIL, enabled, true, true, true);
+    }
+}
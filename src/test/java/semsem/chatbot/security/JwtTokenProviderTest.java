@@ -0,0 +1,80 @@
+package semsem.chatbot.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    static final String SECRET =
+            "dGhpc0lzQVNlY3VyZUtleUZvckpXVFRva2VuR2VuZXJhdGlvbkluUHJvZHVjdGlvblVzZUVudmlyb25tZW50VmFyaWFibGU=";
+
+    static JwtTokenProvider provider(long expirationMs, int cacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "refreshExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", cacheMaxSize);
+        provider.init();
+        return provider;
+    }
+
+    static UserDetails user(String email) {
+        return User.withUsername(email).password("secret").roles("USER").build();
+    }
+
+    @Test
+    void verifiedTokenIsServedFromCacheOnRepeatPresentation() {
+        JwtTokenProvider provider = provider(60_000, 100);
+        String token = provider.generateAccessToken(user("alice@example.com"));
+
+        Optional<Claims> first = provider.parseClaims(token);
+        Optional<Claims> second = provider.parseClaims(token);
+
+        assertThat(first).map(Claims::getSubject).contains("alice@example.com");
+        assertThat(second).containsSame(first.orElseThrow());
+        assertThat(provider.cachedTokenCount()).isEqualTo(1);
+        assertThat(provider.validateToken(token)).isTrue();
+        assertThat(provider.getUsernameFromToken(token)).isEqualTo("alice@example.com");
+    }
+
+    @Test
+    void invalidAndExpiredTokensAreRejectedAndNotCached() {
+        JwtTokenProvider provider = provider(60_000, 100);
+        String token = provider.generateAccessToken(user("bob@example.com"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String expired = provider(-1_000, 100).generateAccessToken(user("bob@example.com"));
+
+        assertThat(provider.parseClaims(tampered)).isEmpty();
+        assertThat(provider.parseClaims(expired)).isEmpty();
+        assertThat(provider.parseClaims("not-a-jwt")).isEmpty();
+        assertThat(provider.parseClaims("")).isEmpty();
+        assertThat(provider.cachedTokenCount()).isZero();
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        JwtTokenProvider provider = provider(60_000, 2);
+        for (int i = 0; i < 5; i++) {
+            String token = provider.generateAccessToken(user("user" + i + "@example.com"));
+            assertThat(provider.parseClaims(token)).isPresent();
+        }
+
+        assertThat(provider.cachedTokenCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void zeroSizeDisablesTheCache() {
+        JwtTokenProvider provider = provider(60_000, 0);
+        String token = provider.generateAccessToken(user("carol@example.com"));
+
+        assertThat(provider.parseClaims(token)).isPresent();
+        assertThat(provider.cachedTokenCount()).isZero();
+    }
+}
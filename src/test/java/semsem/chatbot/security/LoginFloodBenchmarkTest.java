@@ -0,0 +1,117 @@
+package semsem.chatbot.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import semsem.chatbot.exception.ApiException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chat-request latency on a shared, Tomcat-sized worker pool while a login flood keeps it saturated,
+ * with BCrypt on the workers versus on the bounded hashing pool. A chat request is a small JSON round
+ * trip; its latency includes the wait for a free worker, which is what a login storm inflates.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class LoginFloodBenchmarkTest {
+
+    private static final int WORKERS = 16;
+    private static final int LOGINS_IN_FLIGHT = WORKERS * 2;
+    private static final int CHAT_REQUESTS = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PasswordEncoder bcrypt = new BCryptPasswordEncoder(6);
+    private final String hash = bcrypt.encode("correct horse battery staple");
+
+    @Test
+    void boundedPoolKeepsChatLatencyFlat() throws Exception {
+        chatLatencies(null);
+        long[] idle = chatLatencies(null);
+        long[] unbounded = chatLatencies(bcrypt);
+
+        // threads + queue stays below the worker count, so logins can never hold every worker
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(bcrypt, 2, WORKERS / 4, Duration.ofSeconds(2));
+        long[] pooled;
+        try {
+            pooled = chatLatencies(bounded);
+            Map<String, Long> stats = bounded.snapshot();
+            System.out.printf("Bounded pool: %d logins rejected, %d timed out%n", stats.get("rejected"), stats.get("timedOut"));
+        } finally {
+            bounded.shutdown();
+        }
+
+        report("no flood", idle);
+        report("flood, BCrypt on request workers", unbounded);
+        report("flood, bounded hashing pool", pooled);
+        assertThat(p(pooled, 0.99)).isLessThan(p(unbounded, 0.99));
+    }
+
+    private long[] chatLatencies(PasswordEncoder floodEncoder) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        AtomicBoolean flooding = new AtomicBoolean(floodEncoder != null);
+        Thread flood = new Thread(() -> {
+            Semaphore inFlight = new Semaphore(LOGINS_IN_FLIGHT);
+            while (flooding.get()) {
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                workers.execute(() -> {
+                    try {
+                        floodEncoder.matches("correct horse battery staple", hash);
+                    } catch (ApiException rejected) {
+                        // 503: the worker is released immediately
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        });
+
+        try {
+            if (floodEncoder != null) {
+                flood.start();
+                Thread.sleep(200);
+            }
+            long[] latencies = new long[CHAT_REQUESTS];
+            for (int i = 0; i < CHAT_REQUESTS; i++) {
+                String conversationId = "conv_" + i;
+                long start = System.nanoTime();
+                workers.submit(() -> objectMapper.readTree(objectMapper.writeValueAsString(
+                        Map.of("conversationId", conversationId, "content", "Is the flat near the station?")))).get();
+                latencies[i] = System.nanoTime() - start;
+                Thread.sleep(1);
+            }
+            Arrays.sort(latencies);
+            return latencies;
+        } finally {
+            flooding.set(false);
+            flood.interrupt();
+            flood.join();
+            workers.shutdownNow();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void report(String scenario, long[] latencies) {
+        System.out.printf("Chat latency (%s): p50=%.2f ms, p99=%.2f ms%n",
+                scenario, p(latencies, 0.50) / 1e6, p(latencies, 0.99) / 1e6);
+    }
+
+    private static long p(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+}
@@ -0,0 +1,70 @@
+package semsem.chatbot.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    static RateLimitProperties.Rule rule(String name, int capacity, Duration refillPeriod) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName(name);
+        rule.setPattern("/api/**");
+        rule.setCapacity(capacity);
+        rule.setRefillPeriod(refillPeriod);
+        return rule;
+    }
+
+    @Test
+    void allowsBurstUpToCapacityThenReportsRetryAfter() {
+        LocalRateLimiter limiter = new LocalRateLimiter(100, clock::get);
+        RateLimitProperties.Rule rule = rule("api", 5, Duration.ofSeconds(10));
+
+        for (int i = 4; i >= 0; i--) {
+            RateLimitDecision decision = limiter.tryAcquire("alice", rule);
+            assertThat(decision.allowed()).isTrue();
+            assertThat(decision.remaining()).isEqualTo(i);
+        }
+
+        RateLimitDecision rejected = limiter.tryAcquire("alice", rule);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+
+        // Another caller has its own bucket
+        assertThat(limiter.tryAcquire("bob", rule).allowed()).isTrue();
+    }
+
+    @Test
+    void refillsAtCapacityPerRefillPeriod() {
+        LocalRateLimiter limiter = new LocalRateLimiter(100, clock::get);
+        RateLimitProperties.Rule rule = rule("api", 5, Duration.ofSeconds(10));
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("alice", rule);
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(limiter.tryAcquire("alice", rule).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("alice", rule).allowed()).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertThat(limiter.tryAcquire("alice", rule).remaining()).isEqualTo(4);
+    }
+
+    @Test
+    void bucketCountStaysBounded() {
+        LocalRateLimiter limiter = new LocalRateLimiter(50, clock::get);
+        RateLimitProperties.Rule rule = rule("api", 5, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire("caller-" + i, rule);
+        }
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(50);
+    }
+}
@@ -0,0 +1,61 @@
+package semsem.chatbot.security.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import semsem.chatbot.benchmark.Microbenchmark;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request cost of the rate-limit filter with the default rule set, against a pass-through baseline.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RateLimitFilterBenchmarkTest {
+
+    private static final int USERS = 1_000;
+
+    private final Microbenchmark bench = new Microbenchmark(5, 5, Duration.ofMillis(300));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filterAddsMicrosecondsPerRequest() {
+        RateLimitProperties.Rule api = LocalRateLimiterTest.rule("api", 1_000_000, Duration.ofSeconds(1));
+        RateLimitProperties.Rule writes = LocalRateLimiterTest.rule("message-writes", 1_000_000, Duration.ofSeconds(1));
+        writes.setPattern("/api/v1/conversations/*/messages/**");
+
+        Microbenchmark.Result baseline = bench.run("ratelimit.passThrough", request(RateLimitFilterTest.filter()));
+        Microbenchmark.Result limited = bench.run("ratelimit.defaultRules", request(RateLimitFilterTest.filter(api, writes)));
+
+        Microbenchmark.report("Rate-limit filter per request", baseline, limited);
+        assertThat((limited.nanosPerOp() - baseline.nanosPerOp()) / 1_000).isLessThan(50);
+    }
+
+    private static Supplier<Object> request(RateLimitFilter filter) {
+        int[] next = {0};
+        return () -> {
+            RateLimitFilterTest.authenticate("user" + (next[0]++ % USERS) + "@example.com");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/conversations/conv_1/messages"),
+                        response, new MockFilterChain());
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            assertThat(response.getStatus()).isEqualTo(200);
+            return response;
+        };
+    }
+}
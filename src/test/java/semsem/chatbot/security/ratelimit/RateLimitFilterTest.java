@@ -0,0 +1,76 @@
+package semsem.chatbot.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    static RateLimitFilter filter(RateLimitProperties.Rule... rules) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(rules));
+        return new RateLimitFilter(new LocalRateLimiter(1_000), new RateLimitMetrics(), OBJECT_MAPPER, properties);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsWith429AndRetryAfterOnceTheBucketIsEmpty() throws Exception {
+        RateLimitFilter filter = filter(LocalRateLimiterTest.rule("api", 2, Duration.ofMinutes(1)));
+        authenticate("alice@example.com");
+
+        assertThat(send(filter, "GET", "/api/v1/conversations").getHeader("X-RateLimit-Remaining")).isEqualTo("1");
+        assertThat(send(filter, "GET", "/api/v1/conversations").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send(filter, "GET", "/api/v1/conversations");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(rejected.getContentAsString()).contains("RATE_LIMITED");
+
+        // Buckets are per user
+        authenticate("bob@example.com");
+        assertThat(send(filter, "GET", "/api/v1/conversations").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void rulesApplyOnlyToMatchingPathsAndMethods() throws Exception {
+        RateLimitProperties.Rule writes = LocalRateLimiterTest.rule("message-writes", 1, Duration.ofMinutes(1));
+        writes.setPattern("/api/v1/conversations/*/messages/**");
+        writes.setMethods(List.of("post"));
+        RateLimitFilter filter = filter(writes);
+        authenticate("alice@example.com");
+
+        assertThat(send(filter, "POST", "/api/v1/conversations/conv_1/messages").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "POST", "/api/v1/conversations/conv_1/messages").getStatus()).isEqualTo(429);
+        assertThat(send(filter, "GET", "/api/v1/conversations/conv_1/messages").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "POST", "/api/v1/conversations").getStatus()).isEqualTo(200);
+    }
+
+    static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    static MockHttpServletResponse send(RateLimitFilter filter, String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,71 @@
+package semsem.chatbot.service.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.support.TestUsers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LastLoginRecorder.class)
+class LastLoginRecorderTest {
+
+    private static final Instant BASE = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private LastLoginRecorder recorder;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        recorder.flush();
+        userId = entityManager.persistAndFlush(TestUsers.builder("Login", "login@example.com")
+                .createdAt(BASE)
+                .build()).getUserId();
+    }
+
+    @Test
+    void coalescesLoginsToTheLatestTimestamp() {
+        recorder.record(userId, BASE.plusSeconds(5));
+        recorder.record(userId, BASE.plusSeconds(30));
+        recorder.record(userId, BASE.plusSeconds(10));
+        assertThat(recorder.pendingUsers()).isEqualTo(1);
+
+        assertThat(recorder.flush()).isEqualTo(1);
+
+        assertThat(recorder.pendingUsers()).isZero();
+        assertThat(lastLoginAt()).isEqualTo(BASE.plusSeconds(30));
+    }
+
+    @Test
+    void neverMovesLastLoginBackwards() {
+        recorder.record(userId, BASE.plusSeconds(60));
+        recorder.flush();
+
+        recorder.record(userId, BASE.plusSeconds(1));
+        recorder.flush();
+
+        assertThat(lastLoginAt()).isEqualTo(BASE.plusSeconds(60));
+    }
+
+    private Instant lastLoginAt() {
+        entityManager.clear();
+        return entityManager.find(AppUser.class, userId).getLastLoginAt();
+    }
+}
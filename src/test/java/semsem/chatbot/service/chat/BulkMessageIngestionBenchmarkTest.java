@@ -0,0 +1,130 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import semsem.chatbot.model.dto.request.BulkCreateMessagesRequest;
+import semsem.chatbot.model.dto.request.CreateMessageRequest;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.ConversationStats;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.ConversationStatsRepository;
+import semsem.chatbot.repository.UserRepository;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares per-message {@link MessageService#createMessage} calls (one transaction each, as the REST
+ * endpoint does) with {@link BulkMessageIngestionService#ingest}. Runs against the test profile's
+ * H2 database by default; point {@code spring.datasource.*} at PostgreSQL for representative numbers.
+ * Run with {@code mvn -Pbenchmark test -Dtest=BulkMessageIngestionBenchmarkTest}; batching correctness is
+ * covered by {@link BulkMessageIngestionServiceTest}.
+ */
+@Tag("benchmark")
+@ChatDataJpaTest
+@Import(BulkMessageIngestionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkMessageIngestionBenchmarkTest {
+
+    private static final int CONVERSATIONS = 10;
+    private static final int MESSAGES = 5_000;
+    private static final double MIN_SPEEDUP = Double.parseDouble(System.getProperty("bulk.minSpeedup", "10"));
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private BulkMessageIngestionService bulkMessageIngestionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private ConversationStatsRepository conversationStatsRepository;
+
+    @Test
+    void bulkIngestionOutperformsSingleInserts() {
+        List<String> conversationIds = seedConversations();
+
+        // warm up both paths so JIT and connection pool state do not skew the first measurement
+        runSingle(conversationIds, 500);
+        runBulk(conversationIds, 500);
+
+        double singleRate = runSingle(conversationIds, MESSAGES);
+        double bulkRate = runBulk(conversationIds, MESSAGES);
+        double speedup = bulkRate / singleRate;
+
+        System.out.printf("single inserts: %,.0f msg/s, bulk ingestion: %,.0f msg/s, speedup: %.1fx%n",
+                singleRate, bulkRate, speedup);
+
+        assertThat(speedup).isGreaterThanOrEqualTo(MIN_SPEEDUP);
+    }
+
+    private double runSingle(List<String> conversationIds, int messages) {
+        long started = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            messageService.createMessage(conversationIds.get(i % conversationIds.size()), message(i));
+        }
+        return messages / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private double runBulk(List<String> conversationIds, int messages) {
+        List<BulkCreateMessagesRequest.ConversationMessages> groups = new ArrayList<>();
+        int perConversation = messages / conversationIds.size();
+        for (String conversationId : conversationIds) {
+            groups.add(BulkCreateMessagesRequest.ConversationMessages.builder()
+                    .conversationId(conversationId)
+                    .messages(IntStream.range(0, perConversation).mapToObj(this::message).toList())
+                    .build());
+        }
+
+        long started = System.nanoTime();
+        bulkMessageIngestionService.ingest(new BulkCreateMessagesRequest(groups));
+        return messages / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private CreateMessageRequest message(int i) {
+        return CreateMessageRequest.builder()
+                .role(i % 2 == 0 ? MessageRole.USER : MessageRole.ASSISTANT)
+                .content("Transcript line " + i + " about a three bedroom apartment downtown")
+                .totalTokens(42)
+                .build();
+    }
+
+    private List<String> seedConversations() {
+        AppUser user = userRepository.save(TestUsers.user("Bench", "bench@example.com"));
+
+        Instant now = Instant.now();
+        List<String> conversationIds = new ArrayList<>();
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            Conversation conversation = conversationRepository.save(Conversation.builder()
+                    .conversationId("conv_bench_" + i)
+                    .title("Benchmark " + i)
+                    .appUser(user)
+                    .status(ConversationStatus.ACTIVE)
+                    .tokenCount(0)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+            conversationStatsRepository.save(ConversationStats.empty(conversation.getConversationId()));
+            conversationIds.add(conversation.getConversationId());
+        }
+        return conversationIds;
+    }
+}
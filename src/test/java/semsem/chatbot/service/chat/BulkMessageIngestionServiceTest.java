@@ -0,0 +1,164 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import semsem.chatbot.exception.BadRequestException;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.model.dto.projection.MessageView;
+import semsem.chatbot.model.dto.request.BulkCreateMessagesRequest;
+import semsem.chatbot.model.dto.request.CreateMessageRequest;
+import semsem.chatbot.model.dto.response.BulkIngestionResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.ConversationStats;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.ConversationStatsRepository;
+import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Batching correctness with a batch size small enough that one request spans several flushes; the speedup
+ * itself is measured by {@link BulkMessageIngestionBenchmarkTest}.
+ */
+@ChatDataJpaTest
+@Import(BulkMessageIngestionService.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=4")
+class BulkMessageIngestionServiceTest {
+
+    private static final String FIRST = "conv_bulk_first";
+    private static final String SECOND = "conv_bulk_second";
+
+    @Autowired
+    private BulkMessageIngestionService bulkMessageIngestionService;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private ConversationStatsRepository conversationStatsRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        AppUser user = entityManager.persist(TestUsers.user("Bulk", "bulk@example.com"));
+        for (String conversationId : List.of(FIRST, SECOND)) {
+            entityManager.persist(Conversation.builder()
+                    .conversationId(conversationId)
+                    .title(conversationId)
+                    .appUser(user)
+                    .status(ConversationStatus.ACTIVE)
+                    .tokenCount(5)
+                    .createdAt(Instant.now())
+                    .updatedAt(Instant.now())
+                    .build());
+            ConversationStats stats = ConversationStats.empty(conversationId);
+            stats.setMessageCount(1);
+            stats.setUserMessages(1);
+            stats.setTotalTokens(5);
+            entityManager.persist(stats);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ingestionAcrossSeveralBatchesKeepsOrderTokensAndStats() {
+        BulkIngestionResponse response = bulkMessageIngestionService.ingest(new BulkCreateMessagesRequest(List.of(
+                group(FIRST, 7),
+                group(SECOND, 4))));
+
+        assertThat(response.getMessagesCreated()).isEqualTo(11);
+        assertThat(response.getConversations()).isEqualTo(2);
+        assertThat(response.getBatches()).isEqualTo(3);
+
+        assertThat(messageRepository.findFirstPage(FIRST, PageRequest.of(0, 20)))
+                .extracting(MessageView::getContent)
+                .containsExactly("conv_bulk_first 0", "conv_bulk_first 1", "conv_bulk_first 2", "conv_bulk_first 3",
+                        "conv_bulk_first 4", "conv_bulk_first 5", "conv_bulk_first 6");
+        assertThat(messageRepository.countByConversationId(SECOND)).isEqualTo(4);
+
+        entityManager.clear();
+        // tokens are 10 per message on top of the seeded 5
+        assertThat(conversationRepository.findByConversationId(FIRST).orElseThrow().getTokenCount()).isEqualTo(75);
+        assertThat(conversationRepository.findByConversationId(SECOND).orElseThrow().getTokenCount()).isEqualTo(45);
+
+        // FIRST straddles the first two flushes, so its deltas arrive in two increments
+        ConversationStats first = conversationStatsRepository.findById(FIRST).orElseThrow();
+        assertThat(first.getMessageCount()).isEqualTo(8);
+        assertThat(first.getUserMessages()).isEqualTo(5);
+        assertThat(first.getAssistantMessages()).isEqualTo(3);
+        assertThat(first.getTotalTokens()).isEqualTo(75);
+        assertThat(first.getLatencyCount()).isEqualTo(3);
+        assertThat(first.getLatencySumMs()).isEqualTo(100 + 300 + 500);
+        assertThat(first.getLatencyMinMs()).isEqualTo(100);
+        assertThat(first.getLatencyMaxMs()).isEqualTo(500);
+
+        ConversationStats second = conversationStatsRepository.findById(SECOND).orElseThrow();
+        assertThat(second.getMessageCount()).isEqualTo(5);
+        assertThat(second.getAssistantMessages()).isEqualTo(2);
+        assertThat(second.getTotalTokens()).isEqualTo(45);
+    }
+
+    @Test
+    void unknownConversationFailsBeforeAnythingIsWritten() {
+        BulkCreateMessagesRequest request = new BulkCreateMessagesRequest(List.of(
+                group(FIRST, 2),
+                group("conv_bulk_missing", 1)));
+
+        assertThatThrownBy(() -> bulkMessageIngestionService.ingest(request))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("conv_bulk_missing");
+        assertThat(messageRepository.countByConversationId(FIRST)).isZero();
+    }
+
+    @Test
+    void requestOverTheMessageLimitIsRejected() {
+        BulkCreateMessagesRequest request = new BulkCreateMessagesRequest(List.of(
+                group(FIRST, BulkMessageIngestionService.MAX_MESSAGES_PER_REQUEST),
+                group(SECOND, 1)));
+
+        assertThatThrownBy(() -> bulkMessageIngestionService.ingest(request))
+                .isInstanceOf(BadRequestException.class)
+                .extracting("code").isEqualTo("BULK_LIMIT_EXCEEDED");
+        assertThat(messageRepository.count()).isZero();
+    }
+
+    private static BulkCreateMessagesRequest.ConversationMessages group(String conversationId, int messages) {
+        return BulkCreateMessagesRequest.ConversationMessages.builder()
+                .conversationId(conversationId)
+                .messages(IntStream.range(0, messages)
+                        .mapToObj(i -> message(conversationId + " " + i, i))
+                        .toList())
+                .build();
+    }
+
+    private static CreateMessageRequest message(String content, int i) {
+        boolean assistant = i % 2 == 1;
+        return CreateMessageRequest.builder()
+                .role(assistant ? MessageRole.ASSISTANT : MessageRole.USER)
+                .content(content)
+                .totalTokens(10)
+                .latencyMs(assistant ? 100L * i : null)
+                .build();
+    }
+}
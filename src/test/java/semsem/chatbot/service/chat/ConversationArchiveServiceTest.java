@@ -0,0 +1,302 @@
+package semsem.chatbot.service.chat;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import semsem.chatbot.model.dto.projection.MessageView;
+import semsem.chatbot.model.dto.request.CreateMessageRequest;
+import semsem.chatbot.model.dto.response.CursorPageResponse;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.dto.response.MessageThreadResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.ConversationArchive;
+import semsem.chatbot.model.entity.ConversationStats;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.CursorDirection;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.model.enums.ThreadDirection;
+import semsem.chatbot.repository.ConversationArchiveRepository;
+import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+import semsem.chatbot.util.MessageCursor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ChatDataJpaTest
+@TestPropertySource(properties = {"chat.archive.enabled=true", "chat.archive.min-age=P1D"})
+@Import({MessageExportService.class, MessageSyncService.class, MessageNotificationRegistry.class,
+        MetadataQueryService.class})
+class ConversationArchiveServiceTest {
+
+    private static final String CONVERSATION_ID = "conv_archive";
+    private static final int MESSAGES = 5;
+
+    @Autowired
+    private ConversationArchiveService archiveService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageExportService exportService;
+
+    @Autowired
+    private MessageSyncService syncService;
+
+    @Autowired
+    private MetadataQueryService metadataQueryService;
+
+    @Autowired
+    private ConversationStatsService conversationStatsService;
+
+    @Autowired
+    private ConversationArchiveRepository archiveRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final Instant start = Instant.parse("2025-03-01T10:00:00Z");
+
+    @BeforeEach
+    void seedArchivedConversation() {
+        AppUser user = entityManager.persist(TestUsers.user("Archive", "archive@example.com"));
+
+        Conversation conversation = entityManager.persist(Conversation.builder()
+                .conversationId(CONVERSATION_ID)
+                .title("Archived")
+                .appUser(user)
+                .status(ConversationStatus.ARCHIVED)
+                .tokenCount(0)
+                .createdAt(start)
+                .updatedAt(Instant.now().minus(Duration.ofDays(3)))
+                .build());
+
+        Long previous = null;
+        for (int i = 0; i < MESSAGES; i++) {
+            Message message = entityManager.persist(Message.builder()
+                    .messageId("msg_archive_" + i)
+                    .conversation(conversation)
+                    .role(i % 2 == 0 ? MessageRole.USER : MessageRole.ASSISTANT)
+                    .content("message " + i)
+                    .totalTokens(10)
+                    .parentMessageId(previous)
+                    .metadata(i == 1 ? JsonNodeFactory.instance.objectNode().put("tool_calls", 1) : null)
+                    .createdAt(start.plusSeconds(i))
+                    .build());
+            previous = message.getId();
+        }
+
+        entityManager.persist(ConversationStats.empty(CONVERSATION_ID));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void archiveKeepsOnlyTheNewestMessageHotAndReadsStayComplete() {
+        List<MessageResponse> before = messageService.getConversationMessages(CONVERSATION_ID);
+
+        assertThat(archiveService.archiveDue()).isEqualTo(1);
+        entityManager.clear();
+
+        ConversationArchive archive = archiveRepository.findById(CONVERSATION_ID).orElseThrow();
+        assertThat(archive.getCodec()).isEqualTo(ConversationArchiveService.CODEC);
+        assertThat(archive.getMessageCount()).isEqualTo(MESSAGES);
+        assertThat(archive.getPayload().length).isLessThan((int) archive.getRawBytes());
+        assertThat(messageRepository.findByConversationId(CONVERSATION_ID))
+                .extracting(MessageView::getMessageId)
+                .containsExactly("msg_archive_4");
+
+        List<MessageResponse> after = messageService.getConversationMessages(CONVERSATION_ID);
+        assertThat(after).usingRecursiveComparison().isEqualTo(before);
+        assertThat(after.get(1).getMetadata().get("tool_calls").asInt()).isEqualTo(1);
+        assertThat(after.get(0).getMetadata()).isNull();
+
+        // Counters were rebuilt before the rows left and reconciliation leaves them alone
+        conversationStatsService.reconcile();
+        assertThat(conversationStatsService.getStats(CONVERSATION_ID).getMessageCount()).isEqualTo(MESSAGES);
+        assertThat(conversationStatsService.getStats(CONVERSATION_ID).getTotalTokens()).isEqualTo(10L * MESSAGES);
+
+        assertThat(archiveService.archiveDue()).isZero();
+    }
+
+    @Test
+    void restoreReinsertsMessagesWithOriginalTimestampsAndRemappedParents() {
+        archiveService.archive(CONVERSATION_ID);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(archiveService.restore(CONVERSATION_ID)).isEqualTo(MESSAGES - 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(archiveRepository.existsById(CONVERSATION_ID)).isFalse();
+        List<MessageView> messages = messageRepository.findByConversationId(CONVERSATION_ID);
+        assertThat(messages).extracting(MessageView::getMessageId)
+                .containsExactly("msg_archive_0", "msg_archive_1", "msg_archive_2", "msg_archive_3", "msg_archive_4");
+        for (int i = 0; i < MESSAGES; i++) {
+            assertThat(messages.get(i).getCreatedAt()).isEqualTo(start.plusSeconds(i));
+            if (i > 0) {
+                assertThat(messages.get(i).getParentMessageId()).isEqualTo(messages.get(i - 1).getId());
+            }
+        }
+    }
+
+    @Test
+    void writingToAnArchivedConversationRestoresItFirst() {
+        archiveService.archive(CONVERSATION_ID);
+        entityManager.flush();
+        entityManager.clear();
+
+        messageService.createMessage(CONVERSATION_ID, CreateMessageRequest.builder()
+                .role(MessageRole.USER)
+                .content("back again")
+                .totalTokens(10)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(archiveRepository.existsById(CONVERSATION_ID)).isFalse();
+        assertThat(messageRepository.findByConversationId(CONVERSATION_ID)).hasSize(MESSAGES + 1);
+        assertThat(conversationStatsService.getStats(CONVERSATION_ID).getMessageCount()).isEqualTo(MESSAGES + 1);
+    }
+
+    @Test
+    void pagedReadSpansTheArchive() {
+        compact();
+
+        Page<MessageResponse> page = messageService.getConversationMessagesPaged(
+                CONVERSATION_ID, PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "createdAt")));
+
+        assertThat(page.getContent()).extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_2", "msg_archive_3");
+        assertThat(page.getTotalElements()).isEqualTo(MESSAGES);
+    }
+
+    @Test
+    void cursorReadWalksTheArchiveInBothDirections() {
+        compact();
+
+        CursorPageResponse<MessageResponse> first =
+                messageService.getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.NEXT, 2);
+        CursorPageResponse<MessageResponse> second = messageService.getConversationMessagesByCursor(
+                CONVERSATION_ID, first.getNextCursor(), CursorDirection.NEXT, 2);
+        CursorPageResponse<MessageResponse> newest =
+                messageService.getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.PREV, 2);
+
+        assertThat(first.getItems()).extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_0", "msg_archive_1");
+        assertThat(second.getItems()).extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_2", "msg_archive_3");
+        assertThat(second.isHasNext()).isTrue();
+        assertThat(newest.getItems()).extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_3", "msg_archive_4");
+        assertThat(newest.isHasPrevious()).isTrue();
+    }
+
+    @Test
+    void exportWritesArchivedMessages() throws Exception {
+        compact();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportConversation(CONVERSATION_ID, out, false);
+
+        assertThat(written).isEqualTo(MESSAGES);
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).hasSize(MESSAGES)
+                .allSatisfy(line -> assertThat(line).startsWith("{").contains("\"messageId\":\"msg_archive_"));
+    }
+
+    @Test
+    void threadFollowsParentLinksIntoTheArchive() {
+        compact();
+
+        MessageThreadResponse below = messageService.getThread(CONVERSATION_ID, "msg_archive_1", ThreadDirection.DESCENDANTS, 2);
+        MessageThreadResponse above = messageService.getThread(CONVERSATION_ID, "msg_archive_4", ThreadDirection.ANCESTORS, 10);
+
+        assertThat(below.getNodes()).extracting(node -> node.getMessage().getMessageId())
+                .containsExactly("msg_archive_1", "msg_archive_2", "msg_archive_3");
+        assertThat(below.isTruncated()).isTrue();
+        assertThat(above.getNodes()).extracting(node -> node.getMessage().getMessageId())
+                .containsExactly("msg_archive_0", "msg_archive_1", "msg_archive_2", "msg_archive_3", "msg_archive_4");
+        assertThat(above.isTruncated()).isFalse();
+    }
+
+    @Test
+    void searchMatchesArchivedContent() {
+        compact();
+
+        assertThat(messageService.searchMessages(CONVERSATION_ID, "MESSAGE 2"))
+                .extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_2");
+    }
+
+    @Test
+    void syncResumesFromAnArchivedCursor() {
+        compact();
+        MessageView second = archiveService.findMessages(CONVERSATION_ID).orElseThrow().get(1);
+        String cursor = new MessageCursor(second.getCreatedAt(), second.getId()).encode();
+
+        assertThat(syncService.sync(CONVERSATION_ID, cursor, 0).join().getMessages())
+                .extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_2", "msg_archive_3", "msg_archive_4");
+        assertThat(syncService.sync(CONVERSATION_ID, null, 0).join().getMessages()).hasSize(MESSAGES);
+    }
+
+    @Test
+    void filteredReadsSpanTheArchive() {
+        compact();
+
+        assertThat(messageService.getConversationMessagesByRole(CONVERSATION_ID, MessageRole.ASSISTANT))
+                .extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_1", "msg_archive_3");
+        assertThat(messageService.getRecentMessages(CONVERSATION_ID, 2))
+                .extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_4", "msg_archive_3");
+        assertThat(messageService.getMessagesSince(CONVERSATION_ID, start.plusSeconds(2)))
+                .extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_3", "msg_archive_4");
+        assertThat(metadataQueryService.findMessages(CONVERSATION_ID,
+                JsonNodeFactory.instance.objectNode().put("tool_calls", 1), null, null))
+                .extracting(MessageResponse::getMessageId)
+                .containsExactly("msg_archive_1");
+    }
+
+    @Test
+    void deletedCompactedConversationIsNotReadFromTheArchive() {
+        compact();
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Conversation c SET c.status = :status WHERE c.conversationId = :conversationId")
+                .setParameter("status", ConversationStatus.DELETED)
+                .setParameter("conversationId", CONVERSATION_ID)
+                .executeUpdate();
+        entityManager.clear();
+
+        assertThat(archiveService.findMessages(CONVERSATION_ID)).isEmpty();
+        assertThat(messageService.getMessagesAfter(CONVERSATION_ID, null, 10).getMessages()).isEmpty();
+    }
+
+    private void compact() {
+        assertThat(archiveService.archive(CONVERSATION_ID)).isTrue();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(messageRepository.findByConversationId(CONVERSATION_ID)).hasSize(1);
+    }
+}
@@ -0,0 +1,168 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.model.dto.response.PurgeStatusResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.ConversationStats;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.CursorDirection;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.ConversationStatsRepository;
+import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ChatDataJpaTest
+@TestPropertySource(properties = {"chat.purge.batch-size=3", "chat.purge.batch-pause=PT0S"})
+@Import(ConversationPurgeService.class)
+class ConversationPurgeServiceTest {
+
+    private static final String EMAIL = "purge@example.com";
+    private static final int MESSAGES = 7;
+
+    @Autowired
+    private ConversationPurgeService purgeService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private ConversationStatsRepository statsRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void seedConversations() {
+        AppUser user = entityManager.persist(TestUsers.user("Purge", EMAIL));
+
+        Instant now = Instant.now();
+        for (String conversationId : new String[]{"conv_purge_doomed", "conv_purge_kept"}) {
+            Conversation conversation = entityManager.persist(Conversation.builder()
+                    .conversationId(conversationId)
+                    .title(conversationId)
+                    .appUser(user)
+                    .status(ConversationStatus.ACTIVE)
+                    .tokenCount(0)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+            for (int i = 0; i < MESSAGES; i++) {
+                entityManager.persist(Message.builder()
+                        .messageId("msg_" + conversationId + "_" + i)
+                        .conversation(conversation)
+                        .role(MessageRole.USER)
+                        .content("message " + i)
+                        .build());
+            }
+            entityManager.persist(ConversationStats.empty(conversationId));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void deletedConversationVanishesFromReadsBeforeItIsPurged() {
+        conversationService.deleteConversation(EMAIL, "conv_purge_doomed");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThatThrownBy(() -> conversationService.getConversation(EMAIL, "conv_purge_doomed", false))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> messageService.getConversationMessages("conv_purge_doomed"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> messageService.getMessage("msg_conv_purge_doomed_0"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(conversationService.getConversationCount(userId())).isEqualTo(1);
+
+        // Rows are still there until the job runs
+        assertThat(messageRepository.countByConversationId("conv_purge_doomed")).isEqualTo(MESSAGES);
+        assertThat(purgeService.getStatus().getPendingConversations()).isEqualTo(1);
+    }
+
+    @Test
+    void readsThatSkipTheConversationLookupAlsoHideDeletedMessages() {
+        Long parentId = messageRepository.findByMessageId("msg_conv_purge_doomed_0").orElseThrow().getId();
+        Long childId = messageRepository.findByMessageId("msg_conv_purge_doomed_1").orElseThrow().getId();
+        messageRepository.updateParentMessageId(childId, parentId);
+        assertThat(messageService.getChildMessages(parentId)).hasSize(1);
+
+        conversationService.deleteConversation(EMAIL, "conv_purge_doomed");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(messageService.getChildMessages(parentId)).isEmpty();
+        assertThat(messageService.getMessagesAfter("conv_purge_doomed", null, 10).getMessages()).isEmpty();
+        assertThatThrownBy(() -> messageService.getConversationMessagesByCursor(
+                "conv_purge_doomed", null, CursorDirection.PREV, 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(messageService.getMessagesAfter("conv_purge_kept", null, 10).getMessages()).hasSize(MESSAGES);
+    }
+
+    @Test
+    void purgeRemovesMessagesInBatchesThenTheConversation() {
+        conversationService.deleteConversation(EMAIL, "conv_purge_doomed");
+        entityManager.flush();
+        entityManager.clear();
+        // The service is shared across tests in the cached context; compare counter deltas
+        PurgeStatusResponse before = purgeService.getStatus();
+
+        assertThat(purgeService.purgePending()).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(messageRepository.countByConversationId("conv_purge_doomed")).isZero();
+        assertThat(statsRepository.existsById("conv_purge_doomed")).isFalse();
+        assertThat(conversationRepository.countPendingPurge()).isZero();
+        assertThat(messageRepository.countByConversationId("conv_purge_kept")).isEqualTo(MESSAGES);
+
+        PurgeStatusResponse status = purgeService.getStatus();
+        assertThat(status.getConversationsPurged() - before.getConversationsPurged()).isEqualTo(1);
+        assertThat(status.getMessagesPurged() - before.getMessagesPurged()).isEqualTo(MESSAGES);
+        assertThat(status.getBatches() - before.getBatches()).isEqualTo((MESSAGES + 2) / 3);
+        assertThat(status.getFailures()).isEqualTo(before.getFailures());
+        assertThat(status.isRunning()).isFalse();
+    }
+
+    @Test
+    void bulkDeleteByStatusOnlyMarksConversations() {
+        int marked = conversationService.deleteConversationsByStatus(EMAIL, ConversationStatus.ACTIVE);
+        entityManager.clear();
+
+        assertThat(marked).isEqualTo(2);
+        assertThat(conversationService.getConversationCount(userId())).isZero();
+        assertThat(messageRepository.countByConversationId("conv_purge_kept")).isEqualTo(MESSAGES);
+
+        assertThat(purgeService.purgePending()).isEqualTo(2);
+        assertThat(purgeService.getStatus().getPendingConversations()).isZero();
+    }
+
+    private Long userId() {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT u.userId FROM AppUser u WHERE u.email = :email", Long.class)
+                .setParameter("email", EMAIL)
+                .getSingleResult();
+    }
+}
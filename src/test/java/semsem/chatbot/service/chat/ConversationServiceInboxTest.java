@@ -0,0 +1,190 @@
+package semsem.chatbot.service.chat;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import semsem.chatbot.config.metrics.StatementCounts;
+import semsem.chatbot.config.metrics.StatementLog;
+import semsem.chatbot.model.dto.response.ConversationResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.ConversationStats;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ChatDataJpaTest
+class ConversationServiceInboxTest {
+
+    private static final String EMAIL = "inbox@example.com";
+    private static final int CONVERSATIONS = 30;
+    private static final int MESSAGES_PER_CONVERSATION = 3;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private AppUser user;
+
+    @BeforeEach
+    void seedInbox() {
+        user = entityManager.persist(TestUsers.user("Inbox", EMAIL));
+
+        Instant now = Instant.now();
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            Conversation conversation = entityManager.persist(Conversation.builder()
+                    .conversationId("conv_inbox_" + i)
+                    .title("Inbox conversation " + i)
+                    .appUser(user)
+                    .status(ConversationStatus.ACTIVE)
+                    .tokenCount(0)
+                    .createdAt(now)
+                    .updatedAt(now.plusSeconds(i))
+                    .build());
+
+            for (int j = 0; j < MESSAGES_PER_CONVERSATION; j++) {
+                entityManager.persist(Message.builder()
+                        .messageId("msg_inbox_" + i + "_" + j)
+                        .conversation(conversation)
+                        .role(j % 2 == 0 ? MessageRole.USER : MessageRole.ASSISTANT)
+                        .content("message " + j)
+                        .build());
+            }
+
+            ConversationStats stats = ConversationStats.empty(conversation.getConversationId());
+            stats.setMessageCount(MESSAGES_PER_CONVERSATION);
+            entityManager.persist(stats);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void inboxIsServedByConstantNumberOfStatementsRegardlessOfPageSize() {
+        long smallPage = countStatements(() -> conversationService.getUserConversations(EMAIL, PageRequest.of(0, 5)));
+        long largePage = countStatements(() -> conversationService.getUserConversations(EMAIL, PageRequest.of(0, 25)));
+
+        // one data query plus one count query
+        assertThat(smallPage).isEqualTo(2);
+        assertThat(largePage).isEqualTo(smallPage);
+        assertThat(repeatedShapes(() -> conversationService.getUserConversations(EMAIL, PageRequest.of(0, 25))))
+                .isEmpty();
+    }
+
+    @Test
+    void statusInboxIsServedByConstantNumberOfStatementsRegardlessOfPageSize() {
+        Long userId = user.getUserId();
+        long smallPage = countStatements(() -> conversationService.getUserConversationsByStatus(
+                userId, ConversationStatus.ACTIVE, PageRequest.of(0, 5)));
+        long largePage = countStatements(() -> conversationService.getUserConversationsByStatus(
+                userId, ConversationStatus.ACTIVE, PageRequest.of(0, 25)));
+
+        assertThat(smallPage).isEqualTo(2);
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void searchDoesNotIssuePerConversationQueries() {
+        long singleMatch = countStatements(() -> conversationService.searchConversations(EMAIL, "conversation 7"));
+        long allMatch = countStatements(() -> conversationService.searchConversations(EMAIL, "Inbox"));
+
+        assertThat(allMatch).isEqualTo(singleMatch);
+        assertThat(repeatedShapes(() -> conversationService.searchConversations(EMAIL, "Inbox"))).isEmpty();
+    }
+
+    @Test
+    void perRowLookupsAreReportedAsRepeatedShapes() {
+        StatementLog statements = StatementCounts.count(() -> {
+            for (int i = 0; i < CONVERSATIONS; i++) {
+                conversationRepository.findByConversationId("conv_inbox_" + i);
+            }
+        });
+
+        assertThat(statements.count()).isEqualTo(CONVERSATIONS);
+        assertThat(statements.repeated(5)).hasSize(1).containsValue(CONVERSATIONS);
+    }
+
+    @Test
+    void inboxRowsCarryMessageCountAndNewestMessage() {
+        Page<ConversationResponse> page = conversationService.getUserConversations(EMAIL, PageRequest.of(0, 5));
+
+        assertThat(page.getTotalElements()).isEqualTo(CONVERSATIONS);
+        ConversationResponse newest = page.getContent().get(0);
+        assertThat(newest.getConversationId()).isEqualTo("conv_inbox_" + (CONVERSATIONS - 1));
+        assertThat(newest.getMessageCount()).isEqualTo(MESSAGES_PER_CONVERSATION);
+        assertThat(newest.getLastMessage().getMessageId())
+                .isEqualTo("msg_inbox_" + (CONVERSATIONS - 1) + "_" + (MESSAGES_PER_CONVERSATION - 1));
+        assertThat(newest.getLastMessage().getConversationId()).isEqualTo(newest.getConversationId());
+
+        List<ConversationResponse> found = conversationService.searchConversations(EMAIL, "conversation 7");
+        assertThat(found).extracting(ConversationResponse::getConversationId).containsExactly("conv_inbox_7");
+    }
+
+    @Test
+    void conversationsWithoutStatsFallBackToALiveCount() {
+        entityManager.getEntityManager()
+                .createQuery("DELETE FROM ConversationStats s WHERE s.conversationId = :conversationId")
+                .setParameter("conversationId", "conv_inbox_" + (CONVERSATIONS - 1))
+                .executeUpdate();
+        entityManager.clear();
+
+        Page<ConversationResponse> page = conversationService.getUserConversations(EMAIL, PageRequest.of(0, 2));
+
+        assertThat(page.getContent()).extracting(ConversationResponse::getMessageCount)
+                .containsExactly(MESSAGES_PER_CONVERSATION, MESSAGES_PER_CONVERSATION);
+    }
+
+    @Test
+    void statusQueriesNeverReturnSoftDeletedConversations() {
+        Long userId = user.getUserId();
+        conversationRepository.updateStatus("conv_inbox_0", ConversationStatus.DELETED, Instant.now());
+        entityManager.clear();
+
+        // The repository filters DELETED itself, even when asked for that status directly
+        ConversationStatus deleted = ConversationStatus.DELETED;
+        assertThat(conversationRepository.findByUserIdAndStatus(userId, deleted, PageRequest.of(0, 5))).isEmpty();
+        assertThat(conversationRepository.findAllByUserIdAndStatus(userId, deleted)).isEmpty();
+        assertThat(conversationRepository.findInboxByUserIdAndStatus(userId, deleted, PageRequest.of(0, 5))
+                .getTotalElements()).isZero();
+        assertThat(conversationRepository.countByUserIdAndStatus(userId, deleted)).isZero();
+        assertThat(conversationRepository.countByUserIdAndStatus(userId, ConversationStatus.ACTIVE))
+                .isEqualTo(CONVERSATIONS - 1);
+    }
+
+    private long countStatements(Runnable call) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** Statement shapes the N+1 detector would flag for this call. */
+    private Map<String, Integer> repeatedShapes(Runnable call) {
+        entityManager.clear();
+        return StatementCounts.count(call).repeated(2);
+    }
+}
@@ -0,0 +1,150 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import semsem.chatbot.model.dto.request.CreateMessageRequest;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.dto.response.MessageStatsResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.ConversationStats;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.repository.ConversationStatsRepository;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ChatDataJpaTest
+class ConversationStatsServiceTest {
+
+    private static final String CONVERSATION_ID = "conv_stats";
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ConversationStatsService conversationStatsService;
+
+    @Autowired
+    private ConversationStatsRepository conversationStatsRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void seedConversation() {
+        AppUser user = entityManager.persist(TestUsers.user("Stats", "stats@example.com"));
+
+        entityManager.persist(Conversation.builder()
+                .conversationId(CONVERSATION_ID)
+                .title("Stats")
+                .appUser(user)
+                .status(ConversationStatus.ACTIVE)
+                .tokenCount(0)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+        conversationStatsService.initialize(CONVERSATION_ID);
+        entityManager.flush();
+    }
+
+    @Test
+    void statsFollowCreateUpdateAndDelete() {
+        messageService.createMessage(CONVERSATION_ID, message(MessageRole.USER, 10, null));
+        MessageResponse slow = messageService.createMessage(CONVERSATION_ID, message(MessageRole.ASSISTANT, 30, 900L));
+        messageService.createMessage(CONVERSATION_ID, message(MessageRole.ASSISTANT, 20, 100L));
+        MessageResponse tool = messageService.createMessage(CONVERSATION_ID, message(MessageRole.TOOL, 5, null));
+
+        MessageStatsResponse stats = messageService.getMessageStats(CONVERSATION_ID);
+        assertThat(stats.getTotalMessages()).isEqualTo(4);
+        assertThat(stats.getUserMessages()).isEqualTo(1);
+        assertThat(stats.getAssistantMessages()).isEqualTo(2);
+        assertThat(stats.getToolMessages()).isEqualTo(1);
+        assertThat(stats.getTotalTokens()).isEqualTo(65);
+        assertThat(stats.getAverageLatencyMs()).isEqualTo(500.0);
+        assertThat(stats.getMinLatencyMs()).isEqualTo(100L);
+        assertThat(stats.getMaxLatencyMs()).isEqualTo(900L);
+
+        messageService.updateMessage(tool.getMessageId(), CreateMessageRequest.builder().totalTokens(15).build());
+        messageService.updateMessage(slow.getMessageId(), CreateMessageRequest.builder().latencyMs(300L).build());
+        assertThat(messageService.getTotalTokens(CONVERSATION_ID)).isEqualTo(75);
+        assertThat(messageService.getMessageStats(CONVERSATION_ID).getMaxLatencyMs()).isEqualTo(300L);
+
+        messageService.deleteMessage(slow.getMessageId());
+        stats = messageService.getMessageStats(CONVERSATION_ID);
+        assertThat(stats.getTotalMessages()).isEqualTo(3);
+        assertThat(stats.getAssistantMessages()).isEqualTo(1);
+        assertThat(stats.getTotalTokens()).isEqualTo(45);
+        assertThat(stats.getAverageLatencyMs()).isEqualTo(100.0);
+        assertThat(stats.getMinLatencyMs()).isEqualTo(100L);
+        assertThat(stats.getMaxLatencyMs()).isEqualTo(100L);
+
+        messageService.deleteConversationMessages(CONVERSATION_ID);
+        assertThat(messageService.getMessageCount(CONVERSATION_ID)).isZero();
+        assertThat(messageService.getAverageLatency(CONVERSATION_ID)).isNull();
+    }
+
+    @Test
+    void reconcileRepairsDriftAndBackfillsMissingRows() {
+        messageService.createMessage(CONVERSATION_ID, message(MessageRole.USER, 10, null));
+        messageService.createMessage(CONVERSATION_ID, message(MessageRole.ASSISTANT, 20, 250L));
+        entityManager.flush();
+
+        ConversationStats drifted = conversationStatsRepository.findById(CONVERSATION_ID).orElseThrow();
+        drifted.setMessageCount(99);
+        drifted.setTotalTokens(0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(conversationStatsService.reconcile()).isEqualTo(1);
+        entityManager.flush();
+        entityManager.clear();
+
+        ConversationStats repaired = conversationStatsRepository.findById(CONVERSATION_ID).orElseThrow();
+        assertThat(repaired.getMessageCount()).isEqualTo(2);
+        assertThat(repaired.getTotalTokens()).isEqualTo(30);
+        assertThat(repaired.getLatencyCount()).isEqualTo(1);
+
+        conversationStatsRepository.deleteByConversationId(CONVERSATION_ID);
+        entityManager.clear();
+        assertThat(conversationStatsService.reconcile()).isEqualTo(1);
+        assertThat(conversationStatsRepository.findById(CONVERSATION_ID))
+                .get()
+                .extracting(ConversationStats::getMessageCount)
+                .isEqualTo(2L);
+
+        assertThat(conversationStatsService.reconcile()).isZero();
+    }
+
+    @Test
+    void lateInitializeDoesNotOverwriteARebuiltRow() {
+        conversationStatsRepository.deleteByConversationId(CONVERSATION_ID);
+        entityManager.clear();
+
+        // The first write finds no row and rebuilds one; the delayed initialize must not reset it
+        messageService.createMessage(CONVERSATION_ID, message(MessageRole.USER, 10, null));
+        messageService.createMessage(CONVERSATION_ID, message(MessageRole.ASSISTANT, 20, null));
+        conversationStatsService.initialize(CONVERSATION_ID);
+        entityManager.flush();
+        entityManager.clear();
+
+        ConversationStats stats = conversationStatsRepository.findById(CONVERSATION_ID).orElseThrow();
+        assertThat(stats.getMessageCount()).isEqualTo(2);
+        assertThat(stats.getTotalTokens()).isEqualTo(30);
+    }
+
+    private CreateMessageRequest message(MessageRole role, int tokens, Long latencyMs) {
+        return CreateMessageRequest.builder()
+                .role(role)
+                .content(role + " message")
+                .totalTokens(tokens)
+                .latencyMs(latencyMs)
+                .build();
+    }
+}
@@ -0,0 +1,194 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import semsem.chatbot.exception.BadRequestException;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.model.dto.response.CursorPageResponse;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.CursorDirection;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+import semsem.chatbot.util.MessageCursor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static semsem.chatbot.config.metrics.StatementCounts.assertMaxStatements;
+
+/**
+ * Keyset pagination over (createdAt, id): pages must tile the conversation exactly, including messages that
+ * share a timestamp, in both directions and at the page boundaries.
+ */
+@ChatDataJpaTest
+class MessageCursorPaginationTest {
+
+    private static final String CONVERSATION_ID = "conv_cursor";
+    private static final String EMPTY_CONVERSATION_ID = "conv_cursor_empty";
+    private static final int MESSAGES = 7;
+    private static final List<String> IN_ORDER = List.of(
+            "msg_cursor_0", "msg_cursor_1", "msg_cursor_2", "msg_cursor_3", "msg_cursor_4", "msg_cursor_5", "msg_cursor_6");
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final Instant start = Instant.parse("2026-10-01T10:00:00.123456Z");
+
+    @BeforeEach
+    void seed() {
+        AppUser user = entityManager.persist(TestUsers.user("Cursor", "cursor@example.com"));
+        Conversation conversation = entityManager.persist(conversation(CONVERSATION_ID, user));
+        entityManager.persist(conversation(EMPTY_CONVERSATION_ID, user));
+
+        for (int i = 0; i < MESSAGES; i++) {
+            // Messages 2-4 share a timestamp, so only the id keeps their order stable across pages
+            long second = i < 2 ? i : i < 5 ? 2 : i - 2;
+            entityManager.persist(Message.builder()
+                    .messageId("msg_cursor_" + i)
+                    .conversation(conversation)
+                    .role(MessageRole.USER)
+                    .content("message " + i)
+                    .createdAt(start.plusSeconds(second))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void forwardPagesTileTheConversationAcrossTimestampTies() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        CursorPageResponse<MessageResponse> page;
+        do {
+            page = messageService.getConversationMessagesByCursor(CONVERSATION_ID, cursor, CursorDirection.NEXT, 2);
+            page.getItems().forEach(message -> seen.add(message.getMessageId()));
+            assertThat(page.isHasPrevious()).isEqualTo(cursor != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (page.isHasNext());
+
+        assertThat(seen).containsExactlyElementsOf(IN_ORDER);
+        assertThat(pages).isEqualTo(4);
+        assertThat(page.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void backwardPagesStartAtTheNewestAndKeepChronologicalOrderWithinAPage() {
+        CursorPageResponse<MessageResponse> newest =
+                messageService.getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.PREV, 3);
+        CursorPageResponse<MessageResponse> older = messageService.getConversationMessagesByCursor(
+                CONVERSATION_ID, newest.getPrevCursor(), CursorDirection.PREV, 3);
+        CursorPageResponse<MessageResponse> oldest = messageService.getConversationMessagesByCursor(
+                CONVERSATION_ID, older.getPrevCursor(), CursorDirection.PREV, 3);
+
+        assertThat(ids(newest)).containsExactly("msg_cursor_4", "msg_cursor_5", "msg_cursor_6");
+        assertThat(newest.isHasPrevious()).isTrue();
+        assertThat(newest.isHasNext()).isFalse();
+        assertThat(ids(older)).containsExactly("msg_cursor_1", "msg_cursor_2", "msg_cursor_3");
+        assertThat(older.isHasNext()).isTrue();
+        assertThat(ids(oldest)).containsExactly("msg_cursor_0");
+        assertThat(oldest.isHasPrevious()).isFalse();
+    }
+
+    @Test
+    void pageOfALiveConversationIsOneStatement() {
+        String cursor = messageService.getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.NEXT, 2)
+                .getNextCursor();
+
+        // No status or archive lookup in front of the keyset query while it returns rows
+        CursorPageResponse<MessageResponse> page = assertMaxStatements(1, () ->
+                messageService.getConversationMessagesByCursor(CONVERSATION_ID, cursor, CursorDirection.NEXT, 2));
+
+        assertThat(ids(page)).containsExactly("msg_cursor_2", "msg_cursor_3");
+    }
+
+    @Test
+    void pageExactlyAsLargeAsTheConversationHasNoNextPage() {
+        CursorPageResponse<MessageResponse> all =
+                messageService.getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.NEXT, MESSAGES);
+        CursorPageResponse<MessageResponse> oneShort =
+                messageService.getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.NEXT, MESSAGES - 1);
+
+        assertThat(ids(all)).containsExactlyElementsOf(IN_ORDER);
+        assertThat(all.isHasNext()).isFalse();
+        assertThat(oneShort.isHasNext()).isTrue();
+    }
+
+    @Test
+    void readingPastTheNewestMessageReturnsAnEmptyPage() {
+        CursorPageResponse<MessageResponse> all =
+                messageService.getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.NEXT, MESSAGES);
+
+        CursorPageResponse<MessageResponse> past = messageService.getConversationMessagesByCursor(
+                CONVERSATION_ID, all.getNextCursor(), CursorDirection.NEXT, 5);
+
+        assertThat(past.getItems()).isEmpty();
+        assertThat(past.getSize()).isZero();
+        assertThat(past.isHasNext()).isFalse();
+        assertThat(past.isHasPrevious()).isTrue();
+        assertThat(past.getNextCursor()).isNull();
+        assertThat(past.getPrevCursor()).isNull();
+    }
+
+    @Test
+    void emptyConversationReturnsAnEmptyFirstPageButUnknownOneIsNotFound() {
+        for (CursorDirection direction : CursorDirection.values()) {
+            CursorPageResponse<MessageResponse> page =
+                    messageService.getConversationMessagesByCursor(EMPTY_CONVERSATION_ID, null, direction, 10);
+            assertThat(page.getItems()).isEmpty();
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.isHasPrevious()).isFalse();
+        }
+
+        assertThatThrownBy(() -> messageService.getConversationMessagesByCursor("conv_missing", null, CursorDirection.NEXT, 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void rejectsOutOfRangeSizesAndForeignCursors() {
+        assertThatThrownBy(() -> messageService.getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.NEXT, 0))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> messageService.getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.NEXT, 201))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> messageService.getConversationMessagesByCursor(CONVERSATION_ID, "bm90LWEtY3Vyc29y", CursorDirection.NEXT, 10))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void cursorRoundTripKeepsNanosecondPrecision() {
+        MessageCursor cursor = new MessageCursor(start.plusNanos(789), 42L);
+
+        assertThat(MessageCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    private static List<String> ids(CursorPageResponse<MessageResponse> page) {
+        return page.getItems().stream().map(MessageResponse::getMessageId).toList();
+    }
+
+    private Conversation conversation(String conversationId, AppUser user) {
+        return Conversation.builder()
+                .conversationId(conversationId)
+                .title(conversationId)
+                .appUser(user)
+                .status(ConversationStatus.ACTIVE)
+                .tokenCount(0)
+                .createdAt(start.minusSeconds(60))
+                .updatedAt(start)
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessagePartitionManagerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final MessagePartitionManager manager = new MessagePartitionManager(jdbcTemplate, 2, 6, "validate");
+
+    @Test
+    void refusesToRunWhileHibernateUpdatesTheSchema() {
+        assertThatThrownBy(() -> new MessagePartitionManager(jdbcTemplate, 2, 6, "update"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ddl-auto");
+        new MessagePartitionManager(jdbcTemplate, 2, 6, "none");
+    }
+
+    @Test
+    void createsCurrentAndUpcomingMonthlyPartitions() {
+        manager.ensurePartitions(YearMonth.of(2026, 11));
+
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS messages_p202611 PARTITION OF messages "
+                + "FOR VALUES FROM ('2026-11-01 00:00:00+00') TO ('2026-12-01 00:00:00+00')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS messages_p202612 PARTITION OF messages "
+                + "FOR VALUES FROM ('2026-12-01 00:00:00+00') TO ('2027-01-01 00:00:00+00')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS messages_p202701 PARTITION OF messages "
+                + "FOR VALUES FROM ('2027-01-01 00:00:00+00') TO ('2027-02-01 00:00:00+00')");
+        verify(jdbcTemplate, never()).execute(eq("CREATE TABLE IF NOT EXISTS messages_p202702 PARTITION OF messages "
+                + "FOR VALUES FROM ('2027-02-01 00:00:00+00') TO ('2027-03-01 00:00:00+00')"));
+    }
+
+    @Test
+    void detachesThenDropsOnlyPartitionsOlderThanRetention() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("messages")))
+                .thenReturn(List.of("messages_p202603", "messages_p202604", "messages_p202605", "messages_legacy_archive"));
+
+        List<String> dropped = manager.dropExpiredPartitions(YearMonth.of(2026, 5));
+
+        assertThat(dropped).containsExactly("messages_p202603", "messages_p202604");
+        var order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("ALTER TABLE messages DETACH PARTITION messages_p202603 CONCURRENTLY");
+        order.verify(jdbcTemplate).execute("DROP TABLE IF EXISTS messages_p202603");
+        order.verify(jdbcTemplate).execute("ALTER TABLE messages DETACH PARTITION messages_p202604 CONCURRENTLY");
+        order.verify(jdbcTemplate).execute("DROP TABLE IF EXISTS messages_p202604");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS messages_p202605");
+    }
+}
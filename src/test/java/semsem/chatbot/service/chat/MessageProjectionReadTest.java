@@ -0,0 +1,133 @@
+package semsem.chatbot.service.chat;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import semsem.chatbot.model.dto.response.CursorPageResponse;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.CursorDirection;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.model.enums.ThreadDirection;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * List reads go through {@code MessageView} projections: they must not load a single entity
+ * (not even the lazily referenced conversation) into the persistence context.
+ */
+@ChatDataJpaTest
+class MessageProjectionReadTest {
+
+    private static final String CONVERSATION_ID = "conv_projection";
+    private static final ObjectNode TOOL_CALL_METADATA = JsonNodeFactory.instance.objectNode();
+
+    static {
+        TOOL_CALL_METADATA.putArray("tool_calls").addObject().put("type", "property_search").put("name", "search");
+    }
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        AppUser user = entityManager.persist(TestUsers.user("Projection", "projection@example.com"));
+
+        Conversation conversation = entityManager.persist(Conversation.builder()
+                .conversationId(CONVERSATION_ID)
+                .title("Projection")
+                .appUser(user)
+                .status(ConversationStatus.ACTIVE)
+                .tokenCount(0)
+                .createdAt(Instant.now().minusSeconds(60))
+                .updatedAt(Instant.now())
+                .build());
+
+        Message root = message(conversation, "msg_p0", MessageRole.USER, null);
+        root.setMetadata(TOOL_CALL_METADATA);
+        entityManager.persist(root);
+        for (int i = 1; i < 6; i++) {
+            entityManager.persist(message(conversation, "msg_p" + i, i % 2 == 0 ? MessageRole.USER : MessageRole.ASSISTANT, root));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void listReadsMapEveryFieldWithoutLoadingEntities() {
+        assertNoEntitiesLoaded(() -> {
+            var messages = messageService.getConversationMessages(CONVERSATION_ID);
+            assertThat(messages).hasSize(6);
+            MessageResponse first = messages.get(0);
+            assertThat(first.getMessageId()).isEqualTo("msg_p0");
+            assertThat(first.getConversationId()).isEqualTo(CONVERSATION_ID);
+            assertThat(first.getRole()).isEqualTo(MessageRole.USER);
+            assertThat(first.getModelUsed()).isEqualTo("llama3");
+            assertThat(first.getTotalTokens()).isEqualTo(42);
+            assertThat(first.getCreatedAt()).isNotNull();
+            assertThat(first.getMetadata()).isEqualTo(TOOL_CALL_METADATA);
+        });
+        assertNoEntitiesLoaded(() -> assertThat(messageService
+                .getConversationMessagesPaged(CONVERSATION_ID, PageRequest.of(0, 4)).getTotalElements()).isEqualTo(6));
+        assertNoEntitiesLoaded(() -> {
+            CursorPageResponse<MessageResponse> page = messageService
+                    .getConversationMessagesByCursor(CONVERSATION_ID, null, CursorDirection.NEXT, 4);
+            assertThat(page.getItems()).hasSize(4);
+            assertThat(page.isHasNext()).isTrue();
+        });
+        assertNoEntitiesLoaded(() -> assertThat(messageService
+                .getConversationMessagesByRole(CONVERSATION_ID, MessageRole.ASSISTANT)).hasSize(3));
+        assertNoEntitiesLoaded(() -> assertThat(messageService.getRecentMessages(CONVERSATION_ID, 3)).hasSize(3));
+        assertNoEntitiesLoaded(() -> assertThat(messageService.getLastMessage(CONVERSATION_ID)).isNotNull());
+        assertNoEntitiesLoaded(() -> {
+            var nodes = messageService.getThread(CONVERSATION_ID, "msg_p0", ThreadDirection.DESCENDANTS, 5).getNodes();
+            assertThat(nodes).hasSize(6);
+            // native query rows go through Message.VIEW_MAPPING, including the JSON column
+            assertThat(nodes.get(0).getMessage().getMetadata()).isEqualTo(TOOL_CALL_METADATA);
+            assertThat(nodes.get(1).getMessage().getMetadata()).isNull();
+        });
+    }
+
+    private void assertNoEntitiesLoaded(Runnable read) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        read.run();
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    private static Message message(Conversation conversation, String messageId, MessageRole role, Message parent) {
+        return Message.builder()
+                .messageId(messageId)
+                .conversation(conversation)
+                .role(role)
+                .content("content of " + messageId)
+                .modelUsed("llama3")
+                .totalTokens(42)
+                .parentMessageId(parent != null ? parent.getId() : null)
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package semsem.chatbot.service.chat;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.repository.UserRepository;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes allocated per "list a conversation's messages" request: the previous read path (managed
+ * {@link Message} entities copied by {@link MessageMapper}) against the {@code MessageView} projection
+ * path now behind {@link MessageService#getConversationMessages}. Both run in a read-only transaction.
+ * Run with {@code mvn -Pbenchmark test -Dtest=MessageReadAllocationBenchmarkTest}.
+ */
+@Tag("benchmark")
+@ChatDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MessageReadAllocationBenchmarkTest {
+
+    private static final String CONVERSATION_ID = "conv_read_bench";
+    private static final int MESSAGES = 2_000;
+    private static final int ITERATIONS = 50;
+    private static final double MAX_RATIO = Double.parseDouble(System.getProperty("read.maxAllocationRatio", "0.8"));
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Test
+    void projectionReadAllocatesLessThanEntityRead() {
+        seed();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<List<MessageResponse>> entityRead = () -> readOnly.execute(status -> entityManager
+                .createQuery("SELECT m FROM Message m WHERE m.conversation.conversationId = :conversationId " +
+                        "ORDER BY m.createdAt ASC", Message.class)
+                .setParameter("conversationId", CONVERSATION_ID)
+                .getResultStream()
+                .map(messageMapper::toResponse)
+                .toList());
+        Supplier<List<MessageResponse>> projectionRead = () -> messageService.getConversationMessages(CONVERSATION_ID);
+
+        // warm up both paths so JIT and query plan caches do not skew the measurement
+        measure(entityRead, 10);
+        measure(projectionRead, 10);
+
+        long entityBytes = measure(entityRead, ITERATIONS);
+        long projectionBytes = measure(projectionRead, ITERATIONS);
+        double ratio = (double) projectionBytes / entityBytes;
+
+        System.out.printf("entity read: %,d B/request, projection read: %,d B/request, ratio: %.2f%n",
+                entityBytes, projectionBytes, ratio);
+
+        assertThat(projectionRead.get()).hasSize(MESSAGES);
+        assertThat(ratio).isLessThanOrEqualTo(MAX_RATIO);
+    }
+
+    private long measure(Supplier<List<MessageResponse>> read, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            assertThat(read.get()).hasSize(MESSAGES);
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / iterations;
+    }
+
+    private void seed() {
+        AppUser user = userRepository.save(TestUsers.user("Reader", "read-bench@example.com"));
+
+        Conversation conversation = conversationRepository.save(Conversation.builder()
+                .conversationId(CONVERSATION_ID)
+                .title("Read benchmark")
+                .appUser(user)
+                .status(ConversationStatus.ACTIVE)
+                .tokenCount(0)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+
+        messageRepository.saveAll(IntStream.range(0, MESSAGES)
+                .mapToObj(i -> Message.builder()
+                        .messageId("msg_read_" + i)
+                        .conversation(conversation)
+                        .role(i % 2 == 0 ? MessageRole.USER : MessageRole.ASSISTANT)
+                        .content("Listing " + i + ": two bedroom flat near the park, balcony, parking included")
+                        .providerLlm("ollama")
+                        .modelUsed("llama3")
+                        .totalTokens(42)
+                        .latencyMs(120L)
+                        .build())
+                .toList());
+    }
+}
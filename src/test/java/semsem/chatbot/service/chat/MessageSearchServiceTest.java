@@ -0,0 +1,148 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.Test;
+import semsem.chatbot.exception.BadRequestException;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.model.dto.projection.MessageSearchHit;
+import semsem.chatbot.model.dto.response.CursorPageResponse;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.dto.response.MessageSearchResultResponse;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.repository.UserRepository;
+import semsem.chatbot.util.SearchCursor;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MessageSearchServiceTest {
+
+    private static final String EMAIL = "search@example.com";
+    private static final long USER_ID = 7L;
+
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MessageMapper messageMapper = mock(MessageMapper.class);
+    private final MessageSearchService service = new MessageSearchService(messageRepository, userRepository, messageMapper);
+
+    @Test
+    void firstPageStartsAboveEveryRankAndSearchesAllConversations() {
+        when(userRepository.findUserIdByEmail(EMAIL)).thenReturn(Optional.of(USER_ID));
+
+        CursorPageResponse<MessageSearchResultResponse> page = service.search(EMAIL, "  flat  ", null, null, 10);
+
+        verify(messageRepository).searchFullText(USER_ID, "flat", "",
+                SearchCursor.START.rank(), SearchCursor.START.id(), 11);
+        verify(messageRepository, never()).findAllWithConversationByIdIn(any());
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.isHasPrevious()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void fullPageCarriesTheLastHitAsNextCursor() {
+        when(userRepository.findUserIdByEmail(EMAIL)).thenReturn(Optional.of(USER_ID));
+        when(messageRepository.searchFullText(eq(USER_ID), eq("villa"), eq("conv_1"), anyFloat(), anyLong(), eq(3)))
+                .thenReturn(List.of(hit(30L, 0.9f), hit(20L, 0.5f), hit(10L, 0.1f)));
+        when(messageRepository.findAllWithConversationByIdIn(List.of(30L, 20L)))
+                .thenReturn(List.of(message(20L), message(30L)));
+        when(messageMapper.toResponse(any(Message.class))).thenAnswer(invocation -> MessageResponse.builder()
+                .messageId("msg_" + invocation.<Message>getArgument(0).getId())
+                .build());
+
+        CursorPageResponse<MessageSearchResultResponse> page = service.search(EMAIL, "villa", "conv_1", null, 2);
+
+        assertThat(page.getItems()).extracting(result -> result.getMessage().getMessageId())
+                .containsExactly("msg_30", "msg_20");
+        assertThat(page.getItems()).extracting(MessageSearchResultResponse::getConversationTitle)
+                .containsOnly("Listings");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(SearchCursor.decode(page.getNextCursor())).isEqualTo(new SearchCursor(0.5f, 20L));
+    }
+
+    @Test
+    void nextPageResumesFromTheCursor() {
+        when(userRepository.findUserIdByEmail(EMAIL)).thenReturn(Optional.of(USER_ID));
+        String cursor = new SearchCursor(0.5f, 20L).encode();
+
+        CursorPageResponse<MessageSearchResultResponse> page = service.search(EMAIL, "villa", null, cursor, 2);
+
+        verify(messageRepository).searchFullText(USER_ID, "villa", "", 0.5f, 20L, 3);
+        assertThat(page.isHasPrevious()).isTrue();
+    }
+
+    @Test
+    void hitsWhoseMessageWasDeletedMeanwhileAreDropped() {
+        when(userRepository.findUserIdByEmail(EMAIL)).thenReturn(Optional.of(USER_ID));
+        when(messageRepository.searchFullText(anyLong(), anyString(), anyString(), anyFloat(), anyLong(), anyInt()))
+                .thenReturn(List.of(hit(30L, 0.9f), hit(20L, 0.5f)));
+        when(messageRepository.findAllWithConversationByIdIn(List.of(30L, 20L))).thenReturn(List.of(message(30L)));
+        when(messageMapper.toResponse(any(Message.class))).thenReturn(MessageResponse.builder().build());
+
+        assertThat(service.search(EMAIL, "villa", null, null, 5).getItems()).hasSize(1);
+    }
+
+    @Test
+    void rejectsInvalidInputBeforeQuerying() {
+        assertThatThrownBy(() -> service.search(EMAIL, " ", null, null, 10)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search(EMAIL, "villa", null, null, 0)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search(EMAIL, "villa", null, null, 101)).isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(userRepository, messageRepository);
+
+        when(userRepository.findUserIdByEmail(EMAIL)).thenReturn(Optional.of(USER_ID));
+        assertThatThrownBy(() -> service.search(EMAIL, "villa", null, "not-a-cursor", 10))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    void unknownUserIsNotFound() {
+        when(userRepository.findUserIdByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.search(EMAIL, "villa", null, null, 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static MessageSearchHit hit(long id, float rank) {
+        return new MessageSearchHit() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Float getRank() {
+                return rank;
+            }
+
+            @Override
+            public String getSnippet() {
+                return "<mark>villa</mark> " + id;
+            }
+        };
+    }
+
+    private static Message message(long id) {
+        return Message.builder()
+                .id(id)
+                .conversation(Conversation.builder().conversationId("conv_1").title("Listings").build())
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.model.dto.response.MessageResponse;
+import semsem.chatbot.model.dto.response.MessageSyncResponse;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.util.MessageCursor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageSyncServiceTest {
+
+    private static final String CONVERSATION_ID = "conv-1";
+    private static final MessageCursor CURSOR = new MessageCursor(Instant.parse("2026-10-01T10:00:00Z"), 42L);
+
+    private final MessageService messageService = mock(MessageService.class);
+    private final ConversationRepository conversationRepository = mock(ConversationRepository.class);
+    private final MessageNotificationRegistry registry = new MessageNotificationRegistry();
+    private final MessageSyncService syncService =
+            new MessageSyncService(messageService, conversationRepository, registry, 1);
+
+    @AfterEach
+    void tearDown() {
+        syncService.shutdown();
+    }
+
+    @Test
+    void returnsImmediatelyWhenNewerMessagesExist() {
+        when(messageService.getMessagesAfter(eq(CONVERSATION_ID), eq(CURSOR), anyInt())).thenReturn(page(1));
+
+        CompletableFuture<MessageSyncResponse> result = syncService.sync(CONVERSATION_ID, CURSOR.encode(), 5_000);
+
+        assertThat(result).isCompleted();
+        assertThat(result.join().getMessages()).hasSize(1);
+        assertThat(registry.waitingCount()).isZero();
+    }
+
+    @Test
+    void parksUntilAMessageIsCommittedThenRequeriesOnce() throws Exception {
+        when(messageService.getMessagesAfter(eq(CONVERSATION_ID), eq(CURSOR), anyInt()))
+                .thenReturn(page(0))
+                .thenReturn(page(2));
+        when(conversationRepository.existsByConversationId(CONVERSATION_ID)).thenReturn(true);
+
+        CompletableFuture<MessageSyncResponse> result = syncService.sync(CONVERSATION_ID, CURSOR.encode(), 5_000);
+        assertThat(result).isNotDone();
+        assertThat(registry.waitingCount()).isEqualTo(1);
+
+        registry.onMessageCreated(new MessageCreatedEvent(CONVERSATION_ID));
+
+        MessageSyncResponse response = result.get(2, TimeUnit.SECONDS);
+        assertThat(response.getMessages()).hasSize(2);
+        assertThat(response.isTimedOut()).isFalse();
+        assertThat(registry.waitingCount()).isZero();
+        verify(messageService, times(2)).getMessagesAfter(eq(CONVERSATION_ID), eq(CURSOR), anyInt());
+    }
+
+    @Test
+    void timesOutWithTheSameCursorAndUnregisters() throws Exception {
+        when(messageService.getMessagesAfter(eq(CONVERSATION_ID), eq(CURSOR), anyInt())).thenReturn(page(0));
+        when(conversationRepository.existsByConversationId(CONVERSATION_ID)).thenReturn(true);
+
+        MessageSyncResponse response = syncService.sync(CONVERSATION_ID, CURSOR.encode(), 50).get(2, TimeUnit.SECONDS);
+
+        assertThat(response.isTimedOut()).isTrue();
+        assertThat(response.getMessages()).isEmpty();
+        assertThat(response.getCursor()).isEqualTo(CURSOR.encode());
+        assertThat(registry.waitingCount()).isZero();
+    }
+
+    @Test
+    void rejectsUnknownConversationWithoutLeavingAWaiter() {
+        when(messageService.getMessagesAfter(eq(CONVERSATION_ID), eq(CURSOR), anyInt())).thenReturn(page(0));
+
+        assertThatThrownBy(() -> syncService.sync(CONVERSATION_ID, CURSOR.encode(), 5_000))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(registry.waitingCount()).isZero();
+    }
+
+    @Test
+    void rejectsUnknownConversationWithoutCursor() {
+        when(messageService.getMessagesAfter(eq(CONVERSATION_ID), eq(null), anyInt())).thenReturn(page(0));
+
+        assertThatThrownBy(() -> syncService.sync(CONVERSATION_ID, null, 5_000))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(registry.waitingCount()).isZero();
+    }
+
+    @Test
+    void messageCommittedWhileAWakeUpRequeriesIsNotMissed() throws Exception {
+        when(messageService.getMessagesAfter(eq(CONVERSATION_ID), eq(CURSOR), anyInt()))
+                .thenReturn(page(0))
+                .thenAnswer(invocation -> {
+                    // The wake-up read misses a message that commits (and notifies) right after it
+                    registry.onMessageCreated(new MessageCreatedEvent(CONVERSATION_ID));
+                    return page(0);
+                })
+                .thenReturn(page(1));
+        when(conversationRepository.existsByConversationId(CONVERSATION_ID)).thenReturn(true);
+
+        CompletableFuture<MessageSyncResponse> result = syncService.sync(CONVERSATION_ID, CURSOR.encode(), 5_000);
+        registry.onMessageCreated(new MessageCreatedEvent(CONVERSATION_ID));
+
+        assertThat(result.get(2, TimeUnit.SECONDS).getMessages()).hasSize(1);
+        assertThat(registry.waitingCount()).isZero();
+    }
+
+    @Test
+    void notificationsForOtherConversationsDoNotWakeTheWaiter() {
+        when(messageService.getMessagesAfter(eq(CONVERSATION_ID), eq(CURSOR), anyInt())).thenReturn(page(0));
+        when(conversationRepository.existsByConversationId(CONVERSATION_ID)).thenReturn(true);
+
+        CompletableFuture<MessageSyncResponse> result = syncService.sync(CONVERSATION_ID, CURSOR.encode(), 5_000);
+        registry.notifyWaiters("other");
+
+        assertThat(result).isNotDone();
+        verify(messageService, times(1)).getMessagesAfter(any(), any(), anyInt());
+        verify(conversationRepository, never()).existsByConversationId("other");
+    }
+
+    private static MessageSyncResponse page(int size) {
+        List<MessageResponse> messages = IntStream.range(0, size)
+                .mapToObj(i -> MessageResponse.builder().messageId("msg-" + i).build())
+                .toList();
+        return MessageSyncResponse.builder()
+                .messages(messages)
+                .cursor(CURSOR.encode())
+                .build();
+    }
+}
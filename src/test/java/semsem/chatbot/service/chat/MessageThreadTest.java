@@ -0,0 +1,140 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import semsem.chatbot.config.metrics.StatementCounts;
+import semsem.chatbot.exception.ResourceNotFoundException;
+import semsem.chatbot.model.dto.response.MessageThreadResponse;
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.entity.Conversation;
+import semsem.chatbot.model.entity.Message;
+import semsem.chatbot.model.enums.ConversationStatus;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.model.enums.ThreadDirection;
+import semsem.chatbot.support.ChatDataJpaTest;
+import semsem.chatbot.support.TestUsers;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+import static semsem.chatbot.config.metrics.StatementCounts.assertMaxStatements;
+
+@ChatDataJpaTest
+class MessageThreadTest {
+
+    private static final String CONVERSATION_ID = "conv_thread";
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Conversation conversation;
+
+    /*
+     * root
+     * ├── answer        (first generation)
+     * │   └── followUp
+     * │       └── deepAnswer
+     * └── regenerated   (second generation)
+     */
+    @BeforeEach
+    void seedTree() {
+        AppUser user = entityManager.persist(TestUsers.user("Thread", "thread@example.com"));
+
+        conversation = entityManager.persist(Conversation.builder()
+                .conversationId(CONVERSATION_ID)
+                .title("Thread")
+                .appUser(user)
+                .status(ConversationStatus.ACTIVE)
+                .tokenCount(0)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+
+        Message root = message("root", MessageRole.USER, null);
+        Message answer = message("answer", MessageRole.ASSISTANT, root);
+        message("regenerated", MessageRole.ASSISTANT, root);
+        Message followUp = message("followUp", MessageRole.USER, answer);
+        message("deepAnswer", MessageRole.ASSISTANT, followUp);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void subtreeIsReturnedDepthFirstInOneQuery() {
+        long leafStatements = StatementCounts.count(() ->
+                messageService.getThread(CONVERSATION_ID, "regenerated", ThreadDirection.DESCENDANTS, 20)).count();
+        long treeStatements = StatementCounts.count(() ->
+                messageService.getThread(CONVERSATION_ID, "root", ThreadDirection.DESCENDANTS, 20)).count();
+
+        // the recursive CTE fetches every level at once, so a 5-node tree costs the same as a single node
+        assertThat(treeStatements).isEqualTo(leafStatements);
+
+        MessageThreadResponse thread = messageService.getThread(CONVERSATION_ID, "root", ThreadDirection.DESCENDANTS, 20);
+        assertThat(thread.isTruncated()).isFalse();
+        assertThat(thread.getNodes())
+                .extracting(node -> node.getMessage().getMessageId(), MessageThreadResponse.Node::getDepth)
+                .containsExactly(
+                        tuple("root", 0),
+                        tuple("answer", 1),
+                        tuple("followUp", 2),
+                        tuple("deepAnswer", 3),
+                        tuple("regenerated", 1));
+    }
+
+    @Test
+    void threadOfALiveConversationSkipsTheArchive() {
+        // The partition floor lookup and the recursive query; nothing else while the thread has rows
+        MessageThreadResponse thread = assertMaxStatements(2, () ->
+                messageService.getThread(CONVERSATION_ID, "answer", ThreadDirection.ANCESTORS, 20));
+
+        assertThat(thread.getNodes()).hasSize(2);
+    }
+
+    @Test
+    void subtreeIsCutAtMaxDepth() {
+        MessageThreadResponse thread = messageService.getThread(CONVERSATION_ID, "answer", ThreadDirection.DESCENDANTS, 1);
+
+        assertThat(thread.isTruncated()).isTrue();
+        assertThat(thread.getNodes())
+                .extracting(node -> node.getMessage().getMessageId(), MessageThreadResponse.Node::getDepth)
+                .containsExactly(tuple("answer", 0), tuple("followUp", 1));
+    }
+
+    @Test
+    void ancestorPathIsReturnedRootFirst() {
+        MessageThreadResponse full = messageService.getThread(CONVERSATION_ID, "deepAnswer", ThreadDirection.ANCESTORS, 20);
+        assertThat(full.isTruncated()).isFalse();
+        assertThat(full.getNodes())
+                .extracting(node -> node.getMessage().getMessageId())
+                .containsExactly("root", "answer", "followUp", "deepAnswer");
+
+        MessageThreadResponse cut = messageService.getThread(CONVERSATION_ID, "deepAnswer", ThreadDirection.ANCESTORS, 1);
+        assertThat(cut.isTruncated()).isTrue();
+        assertThat(cut.getNodes())
+                .extracting(node -> node.getMessage().getMessageId())
+                .containsExactly("followUp", "deepAnswer");
+    }
+
+    @Test
+    void unknownMessageIsNotFound() {
+        assertThatThrownBy(() -> messageService.getThread(CONVERSATION_ID, "missing", ThreadDirection.DESCENDANTS, 5))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private Message message(String messageId, MessageRole role, Message parent) {
+        return entityManager.persistAndFlush(Message.builder()
+                .messageId(messageId)
+                .conversation(conversation)
+                .role(role)
+                .content(messageId)
+                .parentMessageId(parent != null ? parent.getId() : null)
+                .build());
+    }
+}
@@ -0,0 +1,81 @@
+package semsem.chatbot.service.chat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import semsem.chatbot.exception.BadRequestException;
+import semsem.chatbot.mapper.ConversationMapper;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.model.enums.MessageRole;
+import semsem.chatbot.repository.ConversationRepository;
+import semsem.chatbot.repository.MessageRepository;
+import semsem.chatbot.repository.UserRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MetadataQueryServiceTest {
+
+    private static final Instant FLOOR = Instant.parse("2026-10-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final ConversationRepository conversationRepository = mock(ConversationRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MessageMapper messageMapper = mock(MessageMapper.class);
+    private final MessageTimeBounds messageTimeBounds = mock(MessageTimeBounds.class);
+    private final MetadataQueryService service = new MetadataQueryService(messageRepository, conversationRepository,
+            userRepository, messageMapper, mock(ConversationMapper.class), messageTimeBounds,
+            mock(ConversationArchiveService.class));
+
+    @Test
+    void toolCallLookupPushesAContainmentDocumentDown() {
+        when(messageTimeBounds.floor("conv_1")).thenReturn(FLOOR);
+        when(messageRepository.findByMetadataContaining(anyString(), anyString(), anyString(), eq(FLOOR), anyInt()))
+                .thenReturn(List.of());
+
+        service.findToolCalls("conv_1", "property_search", null);
+
+        verify(messageRepository).findByMetadataContaining("conv_1",
+                "{\"tool_calls\":[{\"type\":\"property_search\"}]}", "", FLOOR, MetadataQueryService.DEFAULT_LIMIT);
+    }
+
+    @Test
+    void roleAndLimitAreForwarded() throws Exception {
+        when(messageTimeBounds.floor("conv_1")).thenReturn(FLOOR);
+
+        service.findMessages("conv_1", objectMapper.readTree("{\"source\":\"whatsapp\"}"), MessageRole.ASSISTANT, 10);
+
+        verify(messageRepository).findByMetadataContaining("conv_1", "{\"source\":\"whatsapp\"}", "ASSISTANT", FLOOR, 10);
+    }
+
+    @Test
+    void rejectsFiltersThatWouldMatchEverything() throws Exception {
+        for (JsonNode filter : List.of(objectMapper.readTree("{}"), objectMapper.readTree("\"tool\""),
+                objectMapper.readTree("[1]"))) {
+            assertThatThrownBy(() -> service.findMessages("conv_1", filter, null, null))
+                    .isInstanceOf(BadRequestException.class);
+        }
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    void rejectsOutOfRangeLimitsBeforeQuerying() throws Exception {
+        when(userRepository.findUserIdByEmail("user@example.com")).thenReturn(Optional.of(1L));
+
+        assertThatThrownBy(() -> service.findConversations("user@example.com",
+                objectMapper.readTree("{\"channel\":\"web\"}"), MetadataQueryService.MAX_LIMIT + 1))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(conversationRepository);
+    }
+}
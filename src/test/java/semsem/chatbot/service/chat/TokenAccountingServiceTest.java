@@ -0,0 +1,131 @@
+package semsem.chatbot.service.chat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import semsem.chatbot.repository.ConversationRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenAccountingServiceTest {
+
+    private static final int WRITERS = 8;
+    private static final int INCREMENTS_PER_WRITER = 20_000;
+    private static final List<String> CONVERSATIONS = List.of("conv_a", "conv_b", "conv_c", "conv_d", "conv_hot");
+
+    private final ConversationRepository conversationRepository = mock(ConversationRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void directModeIssuesAtomicIncrement() {
+        TokenAccountingService service = new TokenAccountingService(conversationRepository, transactionManager, false);
+
+        service.addTokens("conv_a", 17);
+        service.addTokens("conv_a", null);
+
+        verify(conversationRepository).incrementTokenCount(eq("conv_a"), eq(17), any(Instant.class));
+        verify(conversationRepository).incrementTokenCount(eq("conv_a"), eq(0), any(Instant.class));
+        assertThat(service.pendingConversations()).isZero();
+    }
+
+    @Test
+    void writeBehindLosesNoIncrementsUnderConcurrentFlushes() throws Exception {
+        // Writes are staged per transaction and only become visible on commit, like the real database.
+        Map<String, AtomicLong> persisted = new ConcurrentHashMap<>();
+        ThreadLocal<Map<String, Long>> staged = ThreadLocal.withInitial(HashMap::new);
+        AtomicInteger writes = new AtomicInteger();
+        when(conversationRepository.incrementTokenCount(anyString(), anyInt(), any(Instant.class)))
+                .thenAnswer(invocation -> {
+                    // fail every 7th write to exercise the rollback and re-queue path
+                    if (writes.incrementAndGet() % 7 == 0) {
+                        throw new IllegalStateException("simulated database failure");
+                    }
+                    staged.get().merge(invocation.getArgument(0), (long) invocation.<Integer>getArgument(1), Long::sum);
+                    return 1;
+                });
+        doAnswer(invocation -> {
+            staged.get().forEach((id, tokens) -> persisted.computeIfAbsent(id, key -> new AtomicLong()).addAndGet(tokens));
+            staged.get().clear();
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            staged.get().clear();
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        TokenAccountingService service = new TokenAccountingService(conversationRepository, transactionManager, true);
+        Map<String, AtomicLong> expected = new ConcurrentHashMap<>();
+        CONVERSATIONS.forEach(id -> expected.put(id, new AtomicLong()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        Future<?> flusher = executor.submit(() -> {
+            start.await();
+            while (writing.get()) {
+                service.flush();
+            }
+            return null;
+        });
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < INCREMENTS_PER_WRITER; i++) {
+                    // half of all traffic targets one hot conversation
+                    String conversationId = random.nextBoolean()
+                            ? "conv_hot"
+                            : CONVERSATIONS.get(random.nextInt(CONVERSATIONS.size()));
+                    int tokens = random.nextInt(1, 100);
+                    service.addTokens(conversationId, tokens);
+                    expected.get(conversationId).addAndGet(tokens);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        flusher.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        while (service.pendingConversations() > 0) {
+            service.flush();
+        }
+
+        for (String conversationId : CONVERSATIONS) {
+            assertThat(persisted.getOrDefault(conversationId, new AtomicLong()).get())
+                    .as("tokens persisted for %s", conversationId)
+                    .isEqualTo(expected.get(conversationId).get());
+        }
+    }
+}
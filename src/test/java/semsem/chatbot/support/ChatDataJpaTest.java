@@ -0,0 +1,39 @@
+package semsem.chatbot.support;
+
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import semsem.chatbot.config.IdGeneratorConfig;
+import semsem.chatbot.mapper.ConversationMapper;
+import semsem.chatbot.mapper.MessageMapper;
+import semsem.chatbot.service.chat.ConversationArchiveService;
+import semsem.chatbot.service.chat.ConversationService;
+import semsem.chatbot.service.chat.ConversationStatsService;
+import semsem.chatbot.service.chat.MessageService;
+import semsem.chatbot.service.chat.MessageTimeBounds;
+import semsem.chatbot.service.chat.TokenAccountingService;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JPA slice against the test profile's H2 database with the chat services most data tests read through. Tests
+ * that need one more service add it with their own {@code @Import}; every class using the same set shares one
+ * cached context.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MessageService.class, ConversationService.class, ConversationStatsService.class,
+        TokenAccountingService.class, ConversationArchiveService.class, MessageTimeBounds.class,
+        MessageMapper.class, ConversationMapper.class, IdGeneratorConfig.class, JacksonAutoConfiguration.class})
+public @interface ChatDataJpaTest {
+}
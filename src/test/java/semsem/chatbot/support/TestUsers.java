@@ -0,0 +1,32 @@
+package semsem.chatbot.support;
+
+import semsem.chatbot.model.entity.AppUser;
+import semsem.chatbot.model.enums.UserRole;
+
+import java.util.Set;
+
+/**
+ * Unsaved {@link AppUser} fixtures with every account flag set, so tests only spell out what they care about.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    public static AppUser user(String firstName, String email) {
+        return builder(firstName, email).build();
+    }
+
+    /** For tests that need more fields (e.g. {@code createdAt}) on top of a usable account. */
+    public static AppUser.AppUserBuilder builder(String firstName, String email) {
+        return AppUser.builder()
+                .firstName(firstName)
+                .email(email)
+                .password("secret")
+                .roles(Set.of(UserRole.USER))
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true);
+    }
+}
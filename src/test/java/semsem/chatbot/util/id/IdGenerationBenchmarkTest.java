@@ -0,0 +1,116 @@
+package semsem.chatbot.util.id;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generation rate (one thread and {@link #THREADS} threads) and unique-index insert rate for the previous
+ * random 12-hex-char ids and the two {@link IdGenerator} strategies. Runs against the test profile's H2
+ * database by default; point {@code spring.datasource.*} at PostgreSQL for representative insert numbers.
+ * Run with {@code mvn -Pbenchmark test -Dtest=IdGenerationBenchmarkTest}.
+ */
+@Tag("benchmark")
+@JdbcTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdGenerationBenchmarkTest {
+
+    private static final int GENERATED = 1_000_000;
+    private static final int THREADS = 8;
+    private static final int INSERTED = 200_000;
+    private static final int BATCH = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareGenerationAndInsertRates() throws Exception {
+        Map<String, IdGenerator> generators = new LinkedHashMap<>();
+        generators.put("random-uuid12", () -> UUID.randomUUID().toString().replace("-", "").substring(0, 12));
+        generators.put("ulid", new UlidGenerator(Clock.systemUTC()));
+        generators.put("snowflake", new SnowflakeIdGenerator(Clock.systemUTC(), 1));
+
+        // warm up every generator before measuring any of them
+        generators.values().forEach(generator -> generateSingle(generator, 200_000));
+
+        Map<String, Double> singleRates = new LinkedHashMap<>();
+        for (Map.Entry<String, IdGenerator> entry : generators.entrySet()) {
+            double single = generateSingle(entry.getValue(), GENERATED);
+            double multi = generateMulti(entry.getValue());
+            double inserts = insert(entry.getKey(), entry.getValue());
+            singleRates.put(entry.getKey(), single);
+            System.out.printf("%-14s 1 thread: %,12.0f ids/s  %d threads: %,12.0f ids/s  inserts: %,10.0f rows/s%n",
+                    entry.getKey(), single, THREADS, multi, inserts);
+        }
+
+        assertThat(singleRates.get("ulid")).isGreaterThan(singleRates.get("random-uuid12"));
+        assertThat(singleRates.get("snowflake")).isGreaterThan(singleRates.get("random-uuid12"));
+    }
+
+    private static double generateSingle(IdGenerator generator, int count) {
+        long started = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < count; i++) {
+            sink += generator.nextId().length();
+        }
+        assertThat(sink).isPositive();
+        return count / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static double generateMulti(IdGenerator generator) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            long started = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> generateSingle(generator, GENERATED / THREADS)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return GENERATED / ((System.nanoTime() - started) / 1e9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private double insert(String name, IdGenerator generator) {
+        String table = "id_bench_" + name.replace('-', '_');
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id VARCHAR(40) PRIMARY KEY, content VARCHAR(64) NOT NULL)");
+
+        long started = System.nanoTime();
+        for (int inserted = 0; inserted < INSERTED; inserted += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                rows.add(new Object[]{"msg_" + generator.nextId(), "Listing row " + (inserted + i)});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, content) VALUES (?, ?)", rows);
+        }
+        double rate = INSERTED / ((System.nanoTime() - started) / 1e9);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class)).isEqualTo(INSERTED);
+        jdbcTemplate.execute("DROP TABLE " + table);
+        return rate;
+    }
+}
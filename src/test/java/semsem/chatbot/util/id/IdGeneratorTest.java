@@ -0,0 +1,100 @@
+package semsem.chatbot.util.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdGeneratorTest {
+
+    private static final Clock FIXED = Clock.fixed(Instant.parse("2026-10-17T12:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void ulidsAreFixedWidthAndIncreaseWithinOneMillisecond() {
+        UlidGenerator generator = new UlidGenerator(FIXED, new Random(7));
+
+        List<String> ids = generate(generator, 10_000);
+
+        assertThat(ids).allSatisfy(id -> assertThat(id).hasSize(UlidGenerator.LENGTH).matches("[0-9a-hjkmnp-tv-z]+"));
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        // the first 10 characters are the timestamp, shared by every id of this millisecond
+        assertThat(ids).extracting(id -> id.substring(0, 10)).containsOnly(ids.get(0).substring(0, 10));
+    }
+
+    @Test
+    void ulidTimestampPrefixFollowsTheClock() {
+        String earlier = new UlidGenerator(Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC)).nextId();
+        String later = new UlidGenerator(Clock.fixed(Instant.parse("2026-01-01T00:00:00.001Z"), ZoneOffset.UTC)).nextId();
+
+        assertThat(later).isGreaterThan(earlier);
+        assertThat(earlier.substring(0, 10)).isLessThan(later.substring(0, 10));
+    }
+
+    @Test
+    void snowflakeIdsEncodeWorkerAndBorrowTheNextMillisecondWhenTheSequenceRunsOut() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(FIXED, 513);
+        long elapsed = FIXED.millis() - SnowflakeIdGenerator.EPOCH.toEpochMilli();
+
+        long first = generator.nextLong();
+        assertThat(first >>> 22).isEqualTo(elapsed);
+        assertThat((first >>> 12) & 1023).isEqualTo(513);
+        assertThat(first & 4095).isZero();
+
+        long last = first;
+        for (int i = 0; i < 4096; i++) {
+            last = generator.nextLong();
+        }
+        assertThat(last >>> 22).isEqualTo(elapsed + 1);
+        assertThat(last & 4095).isZero();
+
+        List<String> ids = generate(generator, 10_000);
+        assertThat(ids).allSatisfy(id -> assertThat(id).hasSize(SnowflakeIdGenerator.LENGTH));
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void snowflakeRejectsWorkerIdsOutsideTenBits() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(FIXED, 1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(FIXED, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void generatorsNeverRepeatAcrossThreads() throws Exception {
+        for (IdGenerator generator : List.of(new UlidGenerator(Clock.systemUTC()),
+                new SnowflakeIdGenerator(Clock.systemUTC(), 1))) {
+            Set<String> seen = ConcurrentHashMap.newKeySet();
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(pool.submit(() -> generate(generator, 20_000).forEach(seen::add)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+
+            assertThat(seen).hasSize(8 * 20_000);
+        }
+    }
+
+    private static List<String> generate(IdGenerator generator, int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(generator.nextId());
+        }
+        return ids;
+    }
+}